@@ -0,0 +1,58 @@
+package com.telecom.enterprise.backend.analytics;
+
+import com.telecom.enterprise.backend.entity.Order;
+import com.telecom.enterprise.backend.entity.OrderItem;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.util.List;
+
+// Flattened, immutable copy of a placed order taken inside the transaction so the
+// aggregation thread never touches JPA state.
+@Getter
+public class OrderSalesEvent {
+    
+    private final long epochSecond;
+    private final String paymentMethod;
+    private final long totalMinor;
+    private final long[] productIds;
+    private final String[] productNames;
+    private final String[] categories;
+    private final int[] quantities;
+    private final long[] revenueMinor;
+    
+    private OrderSalesEvent(Order order) {
+        List<OrderItem> items = order.getItems();
+        int lines = items.size();
+        this.epochSecond = order.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond();
+        this.paymentMethod = order.getPaymentMethod() != null ? order.getPaymentMethod() : "UNKNOWN";
+        this.totalMinor = toMinor(order.getTotal());
+        this.productIds = new long[lines];
+        this.productNames = new String[lines];
+        this.categories = new String[lines];
+        this.quantities = new int[lines];
+        this.revenueMinor = new long[lines];
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = items.get(i);
+            productIds[i] = item.getProduct().getId();
+            productNames[i] = item.getProductName();
+            categories[i] = item.getProduct().getCategory();
+            quantities[i] = item.getQuantity();
+            revenueMinor[i] = toMinor(item.getTotalPrice());
+        }
+    }
+    
+    public static OrderSalesEvent of(Order order) {
+        return new OrderSalesEvent(order);
+    }
+    
+    public int getLineCount() {
+        return productIds.length;
+    }
+    
+    private static long toMinor(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,155 @@
+package com.telecom.enterprise.backend.analytics;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Open-addressing table from a primitive long key to three rolling rings of
+// (bucket, units, revenue) slots: 60 seconds, 60 minutes and 24 hours.
+// Written by a single aggregation thread; readers never lock and may observe
+// the batch that is currently being applied.
+public class SalesWindowTable {
+    
+    public enum Window {
+        MINUTE, HOUR, DAY
+    }
+    
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int FIELDS = 3;
+    private static final int SECOND_SLOTS = 60;
+    private static final int MINUTE_SLOTS = 60;
+    private static final int HOUR_SLOTS = 24;
+    private static final int SECOND_RING = 0;
+    private static final int MINUTE_RING = SECOND_RING + SECOND_SLOTS * FIELDS;
+    private static final int HOUR_RING = MINUTE_RING + MINUTE_SLOTS * FIELDS;
+    private static final int STRIDE = HOUR_RING + HOUR_SLOTS * FIELDS;
+    
+    private volatile Table table;
+    private int size;
+    
+    public SalesWindowTable(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        this.table = new Table(capacity);
+    }
+    
+    public void add(long key, long epochSecond, long units, long revenueMinor) {
+        Table current = table;
+        int slot = current.indexOf(key);
+        if (slot < 0) {
+            if ((size + 1) * 2 > current.keys.length) {
+                current = resize(current);
+            }
+            slot = current.insert(key);
+            size++;
+        }
+        int base = slot * STRIDE;
+        accumulate(current.data, base + SECOND_RING, SECOND_SLOTS, epochSecond, units, revenueMinor);
+        accumulate(current.data, base + MINUTE_RING, MINUTE_SLOTS, epochSecond / 60, units, revenueMinor);
+        accumulate(current.data, base + HOUR_RING, HOUR_SLOTS, epochSecond / 3600, units, revenueMinor);
+    }
+    
+    // Returns {units, revenueMinor} for the window ending at nowEpochSecond, or null for an unknown key
+    public long[] totals(long key, Window window, long nowEpochSecond) {
+        Table current = table;
+        int slot = current.indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        int base = slot * STRIDE;
+        long[] totals = new long[2];
+        switch (window) {
+            case MINUTE -> sum(current.data, base + SECOND_RING, SECOND_SLOTS, nowEpochSecond, totals);
+            case HOUR -> sum(current.data, base + MINUTE_RING, MINUTE_SLOTS, nowEpochSecond / 60, totals);
+            case DAY -> sum(current.data, base + HOUR_RING, HOUR_SLOTS, nowEpochSecond / 3600, totals);
+        }
+        return totals;
+    }
+    
+    public void forEachKey(LongConsumer action) {
+        long[] keys = table.keys;
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+    
+    private static void accumulate(long[] data, int ring, int slots, long bucket, long units, long revenue) {
+        int offset = ring + (int) (bucket % slots) * FIELDS;
+        long tag = data[offset];
+        if (tag > bucket) {
+            // Late event for a slot the ring has already moved past
+            return;
+        }
+        if (tag != bucket) {
+            data[offset] = bucket;
+            data[offset + 1] = 0;
+            data[offset + 2] = 0;
+        }
+        data[offset + 1] += units;
+        data[offset + 2] += revenue;
+    }
+    
+    private static void sum(long[] data, int ring, int slots, long currentBucket, long[] totals) {
+        for (int i = 0; i < slots; i++) {
+            int offset = ring + i * FIELDS;
+            long tag = data[offset];
+            if (tag > currentBucket - slots && tag <= currentBucket) {
+                totals[0] += data[offset + 1];
+                totals[1] += data[offset + 2];
+            }
+        }
+    }
+    
+    private Table resize(Table old) {
+        Table grown = new Table(old.keys.length * 2);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.keys[i] != EMPTY) {
+                int slot = grown.insert(old.keys[i]);
+                System.arraycopy(old.data, i * STRIDE, grown.data, slot * STRIDE, STRIDE);
+            }
+        }
+        table = grown;
+        return grown;
+    }
+    
+    private static final class Table {
+        private final long[] keys;
+        private final long[] data;
+        private final int mask;
+        
+        Table(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            data = new long[capacity * STRIDE];
+            mask = capacity - 1;
+        }
+        
+        int indexOf(long key) {
+            int i = mix(key) & mask;
+            while (true) {
+                long candidate = keys[i];
+                if (candidate == key) {
+                    return i;
+                }
+                if (candidate == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+        
+        int insert(long key) {
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            return i;
+        }
+        
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.telecom.enterprise.backend.config;
+
+import com.telecom.enterprise.backend.service.AccessTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+// Turns a valid bearer token into the request's Authentication. Registered in the security
+// chain rather than as a bean so it runs exactly once. With app.security.token.required off,
+// requests without a valid token pass through anonymously as before.
+public class AccessTokenFilter extends OncePerRequestFilter {
+    
+    public static final String ATTRIBUTE = "accessToken";
+    private static final String BEARER = "Bearer ";
+    
+    private final AccessTokenService accessTokenService;
+    private final boolean required;
+    
+    public AccessTokenFilter(AccessTokenService accessTokenService, boolean required) {
+        this.accessTokenService = accessTokenService;
+        this.required = required;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AccessTokenService.AccessToken token = header != null && header.startsWith(BEARER)
+                ? accessTokenService.verify(header.substring(BEARER.length()).trim())
+                : null;
+        
+        if (token != null) {
+            request.setAttribute(ATTRIBUTE, token);
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    token, null, List.of(new SimpleGrantedAuthority("ROLE_" + token.role())));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        } else if (required && requiresToken(request)) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    private boolean requiresToken(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/api/")
+                && !path.equals("/api/users/login")
+                && !path.equals("/api/users/register")
+                && !path.equals("/api/sessions/revocations")
+                && !"OPTIONS".equals(request.getMethod());
+    }
+}
@@ -2,6 +2,7 @@ package com.telecom.enterprise.backend.config;
 
 import com.telecom.enterprise.backend.entity.*;
 import com.telecom.enterprise.backend.repository.*;
+import com.telecom.enterprise.backend.service.AccountBalanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -22,6 +24,7 @@ public class DataInitializer implements CommandLineRunner {
     private final ProductRepository productRepository;
     private final BillingRepository billingRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AccountBalanceService accountBalanceService;
     
     @Override
     public void run(String... args) {
@@ -50,8 +53,10 @@ public class DataInitializer implements CommandLineRunner {
                 .role(User.UserRole.ADMIN)
                 .build());
         
+        List<Product> products = new ArrayList<>();
+        
         // Create products - Smartphones
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Galaxy Pro Max 5G")
                 .description("Experience the ultimate in smartphone technology with our flagship Galaxy Pro Max 5G. Featuring a stunning 6.8-inch Dynamic AMOLED display, revolutionary 200MP camera system, and lightning-fast 5G connectivity. The powerful Snapdragon processor ensures seamless multitasking while the 5000mAh battery keeps you going all day.")
                 .price(new BigDecimal("1299.99"))
@@ -78,7 +83,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(true)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("iPhone 15 Pro Max")
                 .description("The most powerful iPhone ever. Featuring the A17 Pro chip, a 48MP main camera with 5x optical zoom, and an aerospace-grade titanium design. Experience the future of mobile technology.")
                 .price(new BigDecimal("1199.99"))
@@ -100,7 +105,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(true)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Pixel 8 Pro")
                 .description("Google's most advanced phone yet. With the Tensor G3 chip, Magic Eraser, and 7 years of OS updates, the Pixel 8 Pro delivers an AI-powered experience like no other.")
                 .price(new BigDecimal("999.99"))
@@ -123,7 +128,7 @@ public class DataInitializer implements CommandLineRunner {
                 .build());
         
         // Create products - Tablets
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Galaxy Tab Ultra")
                 .description("Transform your productivity with the Galaxy Tab Ultra. The 14.6-inch Super AMOLED display and S Pen create the perfect canvas for creativity and work. Powered by the Snapdragon 8 Gen 2, it handles anything you throw at it.")
                 .price(new BigDecimal("1099.99"))
@@ -146,7 +151,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(true)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("iPad Pro 12.9\"")
                 .description("The ultimate iPad experience. With the M2 chip, Liquid Retina XDR display, and ProMotion technology, the iPad Pro sets a new standard for what a tablet can do.")
                 .price(new BigDecimal("1099.99"))
@@ -169,7 +174,7 @@ public class DataInitializer implements CommandLineRunner {
                 .build());
         
         // Create products - Internet & Network
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("5G Home Internet Gateway")
                 .description("Bring blazing-fast 5G speeds to your home. Our 5G Home Internet Gateway delivers up to 1Gbps download speeds without the need for cables or installation appointments. Simply plug in and connect.")
                 .price(new BigDecimal("299.99"))
@@ -191,7 +196,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(true)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Mesh WiFi Pro System (3-Pack)")
                 .description("Eliminate dead zones with our Mesh WiFi Pro System. Cover up to 7,500 sq ft with seamless WiFi 6E coverage. Each node works together to deliver fast, reliable internet throughout your entire home.")
                 .price(new BigDecimal("449.99"))
@@ -215,7 +220,7 @@ public class DataInitializer implements CommandLineRunner {
                 .build());
         
         // Create products - Plans & Services
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Unlimited Premium Plan")
                 .description("Our most premium mobile plan. Enjoy truly unlimited 5G data, 100GB premium hotspot data, and HD streaming on America's fastest 5G network. Includes international texting to 200+ countries.")
                 .price(new BigDecimal("89.99"))
@@ -237,7 +242,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(true)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Business Fiber 1Gbps")
                 .description("Enterprise-grade fiber internet for your business. Symmetrical 1Gbps upload and download speeds with 99.99% uptime guarantee and 24/7 dedicated support.")
                 .price(new BigDecimal("199.99"))
@@ -260,7 +265,7 @@ public class DataInitializer implements CommandLineRunner {
                 .build());
         
         // Create products - Accessories
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Pro Wireless Earbuds")
                 .description("Premium true wireless earbuds with active noise cancellation. Crystal-clear audio, 30-hour battery life, and seamless connectivity make these the perfect companion for your smartphone.")
                 .price(new BigDecimal("249.99"))
@@ -283,7 +288,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(true)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("MagSafe Wireless Charger Stand")
                 .description("Charge your phone and watch simultaneously with our premium MagSafe-compatible wireless charger. The elegant stand design keeps your devices visible and accessible while charging.")
                 .price(new BigDecimal("79.99"))
@@ -305,7 +310,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(false)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Premium Leather Phone Case")
                 .description("Handcrafted from genuine Italian leather, this premium case offers sophisticated protection for your flagship phone. Develops a beautiful patina over time.")
                 .price(new BigDecimal("59.99"))
@@ -328,7 +333,7 @@ public class DataInitializer implements CommandLineRunner {
                 .build());
         
         // Create products - Smart Home
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Smart Home Hub Pro")
                 .description("The brain of your smart home. Control lights, thermostats, cameras, and more from one central hub. Works with Alexa, Google Assistant, and HomeKit.")
                 .price(new BigDecimal("149.99"))
@@ -350,7 +355,7 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(true)
                 .build());
         
-        productRepository.save(Product.builder()
+        products.add(Product.builder()
                 .name("Smart Doorbell Camera Pro")
                 .description("See who's at your door from anywhere. 2K HDR video, color night vision, and two-way talk keep you connected to your home. Includes 30-day cloud storage.")
                 .price(new BigDecimal("199.99"))
@@ -373,8 +378,12 @@ public class DataInitializer implements CommandLineRunner {
                 .featured(false)
                 .build());
         
+        productRepository.saveAll(products);
+        
         // Create billing records for demo user
-        billingRepository.save(BillingRecord.builder()
+        List<BillingRecord> billingRecords = new ArrayList<>();
+        
+        billingRecords.add(BillingRecord.builder()
                 .user(demoUser)
                 .invoiceNumber("INV-2024-001")
                 .amount(new BigDecimal("89.99"))
@@ -389,7 +398,7 @@ public class DataInitializer implements CommandLineRunner {
                 .paymentMethod("Credit Card ****4242")
                 .build());
         
-        billingRepository.save(BillingRecord.builder()
+        billingRecords.add(BillingRecord.builder()
                 .user(demoUser)
                 .invoiceNumber("INV-2024-002")
                 .amount(new BigDecimal("89.99"))
@@ -404,7 +413,7 @@ public class DataInitializer implements CommandLineRunner {
                 .paymentMethod("Credit Card ****4242")
                 .build());
         
-        billingRepository.save(BillingRecord.builder()
+        billingRecords.add(BillingRecord.builder()
                 .user(demoUser)
                 .invoiceNumber("INV-2024-003")
                 .amount(new BigDecimal("89.99"))
@@ -417,6 +426,9 @@ public class DataInitializer implements CommandLineRunner {
                 .billingType(BillingRecord.BillingType.RECURRING)
                 .build());
         
+        billingRepository.saveAll(billingRecords);
+        accountBalanceService.rebuild();
+        
         log.info("Demo data initialized successfully!");
         log.info("Demo user: demo@telecom.com / demo123");
         log.info("Admin user: admin@telecom.com / admin123");
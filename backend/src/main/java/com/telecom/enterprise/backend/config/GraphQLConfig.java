@@ -0,0 +1,15 @@
+package com.telecom.enterprise.backend.config;
+
+import com.telecom.enterprise.backend.graphql.ParsedDocumentCache;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GraphQLConfig {
+    
+    @Bean
+    public GraphQlSourceBuilderCustomizer parsedDocumentCacheCustomizer(ParsedDocumentCache parsedDocumentCache) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(parsedDocumentCache));
+    }
+}
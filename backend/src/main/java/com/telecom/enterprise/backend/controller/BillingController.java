@@ -1,15 +1,34 @@
 package com.telecom.enterprise.backend.controller;
 
+import com.telecom.enterprise.backend.dto.AccountBalanceDTO;
 import com.telecom.enterprise.backend.dto.BillingDTO;
+import com.telecom.enterprise.backend.dto.BillingRunDTO;
+import com.telecom.enterprise.backend.dto.BulkPaymentRequest;
+import com.telecom.enterprise.backend.dto.BulkPaymentResponse;
+import com.telecom.enterprise.backend.dto.DunningStatusDTO;
+import com.telecom.enterprise.backend.dto.OverdueSweepDTO;
 import com.telecom.enterprise.backend.entity.BillingRecord;
+import com.telecom.enterprise.backend.entity.User;
+import com.telecom.enterprise.backend.service.AccountBalanceService;
+import com.telecom.enterprise.backend.service.BillingStatementService;
+import com.telecom.enterprise.backend.service.BillingRunService;
 import com.telecom.enterprise.backend.service.BillingService;
+import com.telecom.enterprise.backend.service.DunningService;
+import com.telecom.enterprise.backend.service.OverdueSweeper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -20,6 +39,11 @@ import java.util.List;
 public class BillingController {
     
     private final BillingService billingService;
+    private final BillingRunService billingRunService;
+    private final OverdueSweeper overdueSweeper;
+    private final BillingStatementService billingStatementService;
+    private final AccountBalanceService accountBalanceService;
+    private final DunningService dunningService;
     
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get billing history for user")
@@ -27,6 +51,47 @@ public class BillingController {
         return ResponseEntity.ok(billingService.getUserBillingHistory(userId));
     }
     
+    @GetMapping("/user/{userId}/balance")
+    @Operation(summary = "Get outstanding, overdue and paid-to-date balance for user")
+    public ResponseEntity<AccountBalanceDTO> getBalance(@PathVariable Long userId) {
+        AccountBalanceDTO balance = accountBalanceService.getBalance(userId);
+        return balance != null 
+                ? ResponseEntity.ok(balance) 
+                : ResponseEntity.notFound().build();
+    }
+    
+    @PostMapping("/balances/rebuild")
+    @Operation(summary = "Recompute all account balances from billing records")
+    public ResponseEntity<Integer> rebuildBalances() {
+        return ResponseEntity.ok(accountBalanceService.rebuild());
+    }
+    
+    @GetMapping("/user/{userId}/statement")
+    @Operation(summary = "Stream a billing statement as CSV or printable text")
+    public ResponseEntity<StreamingResponseBody> getStatement(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "CSV") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        BillingStatementService.Format statementFormat;
+        try {
+            statementFormat = BillingStatementService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        User account = billingStatementService.findAccount(userId);
+        if (account == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        boolean csv = statementFormat == BillingStatementService.Format.CSV;
+        String filename = "statement-" + userId + (csv ? ".csv" : ".txt");
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.TEXT_PLAIN)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(out -> billingStatementService.writeStatement(account, from, to, statementFormat, out));
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get billing record by ID")
     public ResponseEntity<BillingDTO> getBillingRecord(@PathVariable Long id) {
@@ -66,4 +131,64 @@ public class BillingController {
                 ? ResponseEntity.ok(record) 
                 : ResponseEntity.notFound().build();
     }
+    
+    @PostMapping("/user/{userId}/pay")
+    @Operation(summary = "Pay selected invoices, or all outstanding invoices when none are listed")
+    public ResponseEntity<BulkPaymentResponse> payBills(
+            @PathVariable Long userId,
+            @RequestBody BulkPaymentRequest request) {
+        if (request.getPaymentMethod() == null || request.getPaymentMethod().isBlank()
+                || (request.getBillingIds() != null && request.getBillingIds().size() > billingService.getMaxInvoicesPerPayment())) {
+            return ResponseEntity.badRequest().build();
+        }
+        BulkPaymentResponse response = billingService.payBills(userId, request);
+        return response != null 
+                ? ResponseEntity.ok(response) 
+                : ResponseEntity.notFound().build();
+    }
+    
+    @PostMapping("/runs")
+    @Operation(summary = "Start or resume the recurring billing run for a period (yyyy-MM)")
+    public ResponseEntity<BillingRunDTO> startBillingRun(@RequestParam(required = false) String period) {
+        try {
+            YearMonth target = period != null ? YearMonth.parse(period) : YearMonth.now();
+            return ResponseEntity.accepted().body(billingRunService.startRun(target));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/runs/{period}")
+    @Operation(summary = "Get progress and throughput of a billing run")
+    public ResponseEntity<BillingRunDTO> getBillingRun(@PathVariable String period) {
+        try {
+            BillingRunDTO run = billingRunService.getRun(YearMonth.parse(period));
+            return run != null 
+                    ? ResponseEntity.ok(run) 
+                    : ResponseEntity.notFound().build();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/overdue/sweep")
+    @Operation(summary = "Mark pending bills past their due date as overdue")
+    public ResponseEntity<OverdueSweepDTO> sweepOverdue() {
+        return ResponseEntity.ok(overdueSweeper.sweep());
+    }
+    
+    @GetMapping("/overdue/sweep")
+    @Operation(summary = "Get the result of the last overdue sweep")
+    public ResponseEntity<OverdueSweepDTO> getLastOverdueSweep() {
+        OverdueSweepDTO sweep = overdueSweeper.getLastSweep();
+        return sweep != null 
+                ? ResponseEntity.ok(sweep) 
+                : ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/dunning")
+    @Operation(summary = "Get pending payment retries and overdue reminders")
+    public ResponseEntity<DunningStatusDTO> getDunningStatus() {
+        return ResponseEntity.ok(dunningService.getStatus());
+    }
 }
@@ -0,0 +1,52 @@
+package com.telecom.enterprise.backend.controller;
+
+import com.telecom.enterprise.backend.service.InvoiceSoapService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/ws/billing")
+@RequiredArgsConstructor
+@Tag(name = "Billing SOAP", description = "SOAP 1.1 bulk invoice retrieval for ERP integration")
+public class BillingSoapController {
+    
+    private static final MediaType SOAP_XML = new MediaType("text", "xml", StandardCharsets.UTF_8);
+    
+    private final InvoiceSoapService invoiceSoapService;
+    
+    @GetMapping(params = "wsdl")
+    @Operation(summary = "Get the WSDL for the billing SOAP service")
+    public ResponseEntity<Resource> getWsdl() {
+        return ResponseEntity.ok()
+                .contentType(SOAP_XML)
+                .body(new ClassPathResource("wsdl/billing.wsdl"));
+    }
+    
+    @PostMapping
+    @Operation(summary = "GetInvoices: stream invoices matching the request filters as a SOAP envelope")
+    public ResponseEntity<StreamingResponseBody> getInvoices(InputStream body) {
+        InvoiceSoapService.InvoiceQuery query;
+        try {
+            query = invoiceSoapService.readRequest(body);
+        } catch (InvoiceSoapService.SoapFaultException fault) {
+            // SOAP 1.1 carries faults with a 500 whatever their cause
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(SOAP_XML)
+                    .body(out -> invoiceSoapService.writeFault(fault, out));
+        }
+        return ResponseEntity.ok()
+                .contentType(SOAP_XML)
+                .body(out -> invoiceSoapService.writeInvoices(query, out));
+    }
+}
@@ -0,0 +1,39 @@
+package com.telecom.enterprise.backend.controller;
+
+import com.telecom.enterprise.backend.dto.FulfillmentStatsDTO;
+import com.telecom.enterprise.backend.entity.Order;
+import com.telecom.enterprise.backend.service.FulfillmentProcessor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/fulfillment")
+@RequiredArgsConstructor
+@Tag(name = "Fulfillment", description = "Back-office order fulfillment runs")
+@CrossOrigin(origins = "*")
+public class FulfillmentController {
+    
+    private final FulfillmentProcessor fulfillmentProcessor;
+    
+    @PostMapping("/run")
+    @Operation(summary = "Start a fulfillment run for orders in the given status")
+    public ResponseEntity<FulfillmentStatsDTO> run(@RequestParam(defaultValue = "CONFIRMED") String status) {
+        try {
+            return ResponseEntity.accepted()
+                    .body(fulfillmentProcessor.runAsync(Order.OrderStatus.valueOf(status)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get progress, throughput and lag of fulfillment runs")
+    public ResponseEntity<List<FulfillmentStatsDTO>> getStats() {
+        return ResponseEntity.ok(fulfillmentProcessor.getAllStats());
+    }
+}
@@ -67,6 +67,12 @@ public class OrderController {
                 : ResponseEntity.notFound().build();
     }
     
+    @PostMapping("/status/bulk")
+    @Operation(summary = "Transition a batch of orders to a new status")
+    public ResponseEntity<BulkOrderStatusResponse> bulkUpdateStatus(@RequestBody BulkOrderStatusRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateOrderStatus(request));
+    }
+    
     @PostMapping("/payment")
     @Operation(summary = "Process payment for an order")
     public ResponseEntity<PaymentResponse> processPayment(@RequestBody PaymentRequest request) {
@@ -0,0 +1,38 @@
+package com.telecom.enterprise.backend.controller;
+
+import com.telecom.enterprise.backend.analytics.SalesWindowTable;
+import com.telecom.enterprise.backend.dto.SalesAggregateDTO;
+import com.telecom.enterprise.backend.service.SalesAggregationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/sales")
+@RequiredArgsConstructor
+@Tag(name = "Sales Analytics", description = "Rolling sales aggregates by product, category and payment method")
+@CrossOrigin(origins = "*")
+public class SalesAnalyticsController {
+    
+    private final SalesAggregationService salesAggregationService;
+    
+    @GetMapping("/{dimension}")
+    @Operation(summary = "Get rolling units and revenue for a dimension")
+    public ResponseEntity<List<SalesAggregateDTO>> getAggregates(
+            @PathVariable String dimension,
+            @RequestParam(defaultValue = "HOUR") String window,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(salesAggregationService.getAggregates(
+                    SalesAggregationService.Dimension.valueOf(dimension.toUpperCase()),
+                    SalesWindowTable.Window.valueOf(window.toUpperCase()),
+                    limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.telecom.enterprise.backend.controller;
+
+import com.telecom.enterprise.backend.dto.RevocationDeltaDTO;
+import com.telecom.enterprise.backend.session.SessionRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sessions")
+@RequiredArgsConstructor
+@Tag(name = "Sessions", description = "Access token revocations for replicas that verify tokens locally")
+@CrossOrigin(origins = "*")
+public class SessionController {
+    
+    private final SessionRegistry sessionRegistry;
+    
+    @GetMapping("/revocations")
+    @Operation(summary = "Get revocations after a sequence number, or all of them for a new replica")
+    public ResponseEntity<RevocationDeltaDTO> getRevocations(
+            @RequestParam(required = false) String epoch,
+            @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(sessionRegistry.revocationsSince(epoch, since));
+    }
+}
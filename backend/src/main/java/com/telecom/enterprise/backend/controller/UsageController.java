@@ -0,0 +1,77 @@
+package com.telecom.enterprise.backend.controller;
+
+import com.telecom.enterprise.backend.dto.UsageIngestDTO;
+import com.telecom.enterprise.backend.dto.UsagePeriodCloseDTO;
+import com.telecom.enterprise.backend.dto.UsageSummaryDTO;
+import com.telecom.enterprise.backend.service.UsageRatingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/usage")
+@RequiredArgsConstructor
+@Tag(name = "Usage", description = "Usage ingestion and rating")
+@CrossOrigin(origins = "*")
+public class UsageController {
+    
+    private final UsageRatingService usageRatingService;
+    
+    @PostMapping("/ingest")
+    @Operation(summary = "Ingest all CDR files waiting in the inbox")
+    public ResponseEntity<UsageIngestDTO> ingest() {
+        return ResponseEntity.ok(usageRatingService.ingest());
+    }
+    
+    @PostMapping("/generate")
+    @Operation(summary = "Write a synthetic CDR file into the inbox for local testing")
+    public ResponseEntity<UsageIngestDTO> generate(
+            @RequestParam(defaultValue = "1000000") long records,
+            @RequestParam(defaultValue = "10000") int subscribers,
+            @RequestParam(required = false) String period,
+            @RequestParam(defaultValue = "42") long seed) {
+        try {
+            return ResponseEntity.ok(usageRatingService.generate(records, subscribers, 
+                    period != null ? YearMonth.parse(period) : YearMonth.now(), seed));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @PostMapping("/periods/{period}/close")
+    @Operation(summary = "Rate a usage period (yyyy-MM) and create its usage invoices")
+    public ResponseEntity<UsagePeriodCloseDTO> closePeriod(@PathVariable String period) {
+        try {
+            return ResponseEntity.ok(usageRatingService.closePeriod(YearMonth.parse(period)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Get unbilled usage and estimated charge for a user")
+    public ResponseEntity<UsageSummaryDTO> getUsage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String period) {
+        try {
+            UsageSummaryDTO usage = usageRatingService.getUsage(userId, 
+                    period != null ? YearMonth.parse(period) : YearMonth.now());
+            return usage != null 
+                    ? ResponseEntity.ok(usage) 
+                    : ResponseEntity.notFound().build();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
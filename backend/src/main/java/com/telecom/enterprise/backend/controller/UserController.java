@@ -1,13 +1,27 @@
 package com.telecom.enterprise.backend.controller;
 
+import com.telecom.enterprise.backend.config.AccessTokenFilter;
 import com.telecom.enterprise.backend.dto.*;
+import com.telecom.enterprise.backend.service.AccessTokenService;
+import com.telecom.enterprise.backend.service.PasswordHashingService;
+import com.telecom.enterprise.backend.service.UserImportService;
 import com.telecom.enterprise.backend.service.UserService;
+import com.telecom.enterprise.backend.throttle.ClientAddressResolver;
+import com.telecom.enterprise.backend.throttle.LoginThrottle;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -16,23 +30,37 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
     
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ClientAddressResolver clientAddressResolver;
     
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
-    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
-        AuthResponse response = userService.register(request);
-        return response.isSuccess() 
-                ? ResponseEntity.ok(response) 
-                : ResponseEntity.badRequest().body(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest request) {
+        return userService.register(request)
+                .thenApply(response -> response.isSuccess() 
+                        ? ResponseEntity.ok(response) 
+                        : ResponseEntity.badRequest().body(response));
     }
     
     @PostMapping("/login")
     @Operation(summary = "Login with email and password")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
-        AuthResponse response = userService.login(request);
-        return response.isSuccess() 
-                ? ResponseEntity.ok(response) 
-                : ResponseEntity.status(401).body(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        return userService.login(request, clientAddressResolver.resolve(httpRequest))
+                .thenApply(response -> response.isSuccess() 
+                        ? ResponseEntity.ok(response) 
+                        : ResponseEntity.status(401).body(response));
+    }
+    
+    // Idempotent: a missing or already revoked token is not an error
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the caller's access token")
+    public ResponseEntity<Void> logout(
+            @RequestAttribute(name = AccessTokenFilter.ATTRIBUTE, required = false) AccessTokenService.AccessToken token) {
+        if (token != null) {
+            userService.logout(token);
+        }
+        return ResponseEntity.noContent().build();
     }
     
     @GetMapping("/{id}")
@@ -64,13 +92,54 @@ public class UserController {
     
     @PostMapping("/{id}/password")
     @Operation(summary = "Update user password")
-    public ResponseEntity<String> updatePassword(
+    public CompletableFuture<ResponseEntity<String>> updatePassword(
             @PathVariable Long id,
             @RequestParam String currentPassword,
             @RequestParam String newPassword) {
-        boolean success = userService.updatePassword(id, currentPassword, newPassword);
-        return success 
-                ? ResponseEntity.ok("Password updated successfully") 
-                : ResponseEntity.badRequest().body("Current password is incorrect");
+        return userService.updatePassword(id, currentPassword, newPassword)
+                .thenApply(success -> success 
+                        ? ResponseEntity.ok("Password updated successfully") 
+                        : ResponseEntity.badRequest().body("Current password is incorrect"));
+    }
+    
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "text/plain"})
+    @Operation(summary = "Import users from a CSV (with header row) or NDJSON stream")
+    public ResponseEntity<UserImportResponse> importUsers(
+            @RequestParam(defaultValue = "CSV") String format,
+            InputStream body) throws IOException {
+        UserImportService.Format importFormat;
+        try {
+            importFormat = UserImportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userImportService.importUsers(body, importFormat));
+    }
+    
+    @ExceptionHandler(UserImportService.ImportBusyException.class)
+    public ResponseEntity<String> importBusy(UserImportService.ImportBusyException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(e.getMessage());
+    }
+    
+    @ExceptionHandler(LoginThrottle.LoginThrottledException.class)
+    public ResponseEntity<AuthResponse> loginThrottled(LoginThrottle.LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(AuthResponse.builder()
+                        .success(false)
+                        .message(e.getMessage())
+                        .build());
+    }
+    
+    // Hashing pool saturated; the async paths above hand this back through their futures
+    @ExceptionHandler(PasswordHashingService.HashingSaturatedException.class)
+    public ResponseEntity<AuthResponse> hashingSaturated(PasswordHashingService.HashingSaturatedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(AuthResponse.builder()
+                        .success(false)
+                        .message(e.getMessage())
+                        .build());
     }
 }
@@ -0,0 +1,23 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingRunDTO {
+    private String period;
+    private String status;
+    private LocalDate billingDate;
+    private long usersProcessed;
+    private long invoicesCreated;
+    private int chunksCompleted;
+    private int chunksSkipped;
+    private int chunksFailed;
+    private double invoicesPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
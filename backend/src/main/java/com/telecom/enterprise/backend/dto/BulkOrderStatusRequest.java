@@ -0,0 +1,14 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderStatusRequest {
+    private List<Long> orderIds;
+    private List<String> orderNumbers;
+    private String status;
+}
@@ -0,0 +1,16 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderStatusResponse {
+    private String status;
+    private int requested;
+    private int updated;
+    private int failed;
+    private List<OrderStatusUpdateResult> results;
+}
@@ -0,0 +1,13 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkPaymentRequest {
+    private List<Long> billingIds;
+    private String paymentMethod;
+}
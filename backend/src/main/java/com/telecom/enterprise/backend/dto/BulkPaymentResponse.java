@@ -0,0 +1,19 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkPaymentResponse {
+    private Long userId;
+    private String paymentMethod;
+    private int requested;
+    private int paid;
+    private int failed;
+    private BigDecimal amountPaid;
+    private List<InvoicePaymentResult> results;
+}
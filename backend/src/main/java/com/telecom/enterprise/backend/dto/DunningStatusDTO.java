@@ -0,0 +1,18 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DunningStatusDTO {
+    private boolean enabled;
+    private long pendingTimers;
+    private long activeSchedules;
+    private long timersFired;
+    private long noticesSent;
+    private long paymentsRecovered;
+    private long schedulesResolved;
+    private long schedulesExhausted;
+}
@@ -0,0 +1,21 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FulfillmentStatsDTO {
+    private String sourceStatus;
+    private String targetStatus;
+    private boolean running;
+    private Long lastOrderId;
+    private long processed;
+    private long failed;
+    private long lagSeconds;
+    private double ordersPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
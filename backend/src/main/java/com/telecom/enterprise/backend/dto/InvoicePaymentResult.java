@@ -0,0 +1,20 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoicePaymentResult {
+    private Long billingId;
+    private String invoiceNumber;
+    private String previousStatus;
+    private String status;
+    private BigDecimal totalAmount;
+    private LocalDate paidDate;
+    private boolean success;
+    private String message;
+}
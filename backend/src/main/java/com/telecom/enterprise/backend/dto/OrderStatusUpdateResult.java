@@ -0,0 +1,17 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusUpdateResult {
+    private Long orderId;
+    private String orderNumber;
+    private String previousStatus;
+    private String status;
+    private String trackingNumber;
+    private boolean success;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OverdueSweepDTO {
+    private LocalDate cutoffDate;
+    private int batches;
+    private long marked;
+    private long usersNotified;
+    private long durationMillis;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,19 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+
+// Revocations since a replica's last sequence, or all of them when full is set. Tokens are
+// revoked until their expiry; users have every token expiring at or before the cutoff revoked.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevocationDeltaDTO {
+    private String epoch;
+    private long sequence;
+    private boolean full;
+    private long[] tokenIds;
+    private long[] tokenExpiries;
+    private long[] userIds;
+    private long[] userCutoffs;
+}
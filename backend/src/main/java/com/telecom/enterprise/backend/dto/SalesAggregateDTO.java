@@ -0,0 +1,17 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesAggregateDTO {
+    private String dimension;
+    private String key;
+    private String label;
+    private String window;
+    private long units;
+    private BigDecimal revenue;
+}
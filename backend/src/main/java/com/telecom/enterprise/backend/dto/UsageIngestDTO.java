@@ -0,0 +1,18 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsageIngestDTO {
+    private List<String> files;
+    private long accepted;
+    private long rejected;
+    // CDRs for periods already invoiced, refused and logged for adjustment
+    private long late;
+    private long durationMillis;
+    private double recordsPerSecond;
+}
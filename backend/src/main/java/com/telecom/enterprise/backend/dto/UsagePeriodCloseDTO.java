@@ -0,0 +1,16 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsagePeriodCloseDTO {
+    private String period;
+    private int subscribers;
+    private int invoicesCreated;
+    private int alreadyInvoiced;
+    private int unknownUsers;
+    private long durationMillis;
+}
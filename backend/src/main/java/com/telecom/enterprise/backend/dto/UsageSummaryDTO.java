@@ -0,0 +1,18 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsageSummaryDTO {
+    private Long userId;
+    private String period;
+    private long voiceSeconds;
+    private long dataBytes;
+    private long smsCount;
+    private long records;
+    private BigDecimal estimatedCharge;
+}
@@ -0,0 +1,19 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportResponse {
+    private String format;
+    private long rows;
+    private long imported;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private long elapsedMillis;
+    private List<UserImportResult> results;
+}
@@ -0,0 +1,15 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportResult {
+    private long row;
+    private String email;
+    private String status;
+    private Long userId;
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.telecom.enterprise.backend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportRow {
+    private String email;
+    private String password;
+    private String firstName;
+    private String lastName;
+    private String phone;
+    private String address;
+    private String city;
+    private String state;
+    private String zipCode;
+    private String country;
+}
@@ -0,0 +1,30 @@
+package com.telecom.enterprise.backend.dunning;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class DunningNotice {
+    
+    public enum Type {
+        PAYMENT_RECOVERED,
+        PAYMENT_RETRY_FAILED,
+        PAYMENT_RETRY_EXHAUSTED,
+        OVERDUE_REMINDER,
+        OVERDUE_FINAL_NOTICE
+    }
+    
+    private final Type type;
+    private final long userId;
+    private final long targetId;
+    // Order number or invoice number
+    private final String reference;
+    private final BigDecimal amount;
+    private final int attempt;
+    // Null once the schedule is resolved or exhausted
+    private final LocalDateTime nextAttemptAt;
+}
@@ -0,0 +1,10 @@
+package com.telecom.enterprise.backend.dunning;
+
+import java.util.List;
+
+// Called once per fired batch, inside the transaction that advances the schedules, so a
+// notifier that writes to the database commits or rolls back with them
+public interface DunningNotifier {
+    
+    void notify(List<DunningNotice> notices);
+}
@@ -0,0 +1,49 @@
+package com.telecom.enterprise.backend.dunning;
+
+import com.telecom.enterprise.backend.entity.DunningSchedule;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+// Gaps between successive payment retries and overdue reminders, as ISO-8601 durations.
+// The first gap runs from the failure or the overdue sweep to the first attempt; a schedule
+// is exhausted once every gap has been used.
+@Component
+@Slf4j
+public class DunningPolicy {
+    
+    @Value("${app.dunning.payment-retry-delays:PT1H,PT6H,PT24H}")
+    private String paymentRetryDelays;
+    
+    @Value("${app.dunning.overdue-reminder-delays:P3D,P7D,P14D}")
+    private String overdueReminderDelays;
+    
+    private List<Duration> retryDelays;
+    private List<Duration> reminderDelays;
+    
+    @PostConstruct
+    void init() {
+        retryDelays = parse(paymentRetryDelays);
+        reminderDelays = parse(overdueReminderDelays);
+        log.info("Dunning payment retries after {}, overdue reminders after {}", retryDelays, reminderDelays);
+    }
+    
+    // Delay before the next attempt once `attempt` attempts have been made, or null when exhausted
+    public Duration delay(DunningSchedule.Kind kind, int attempt) {
+        List<Duration> delays = kind == DunningSchedule.Kind.PAYMENT_RETRY ? retryDelays : reminderDelays;
+        return attempt < delays.size() ? delays.get(attempt) : null;
+    }
+    
+    private static List<Duration> parse(String delays) {
+        return Arrays.stream(delays.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(Duration::parse)
+                .toList();
+    }
+}
@@ -0,0 +1,34 @@
+package com.telecom.enterprise.backend.dunning;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+// Growable batch of (timer key, deadline) pairs handed to the wheel thread in one queue entry.
+// Also published as an application event so enrolments reach the wheel only after commit.
+@Getter
+public class DunningTimers {
+    
+    private long[] keys;
+    private long[] deadlines;
+    private int size;
+    
+    public DunningTimers(int expected) {
+        keys = new long[Math.max(4, expected)];
+        deadlines = new long[keys.length];
+    }
+    
+    public void add(long key, long deadlineMillis) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            deadlines = Arrays.copyOf(deadlines, size * 2);
+        }
+        keys[size] = key;
+        deadlines[size] = deadlineMillis;
+        size++;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.telecom.enterprise.backend.dunning;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.dunning.notifier", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingDunningNotifier implements DunningNotifier {
+    
+    @Override
+    public void notify(List<DunningNotice> notices) {
+        for (DunningNotice notice : notices) {
+            log.info("Dunning {} for user {} on {} ({}), attempt {}, next {}", notice.getType(), notice.getUserId(),
+                    notice.getReference(), notice.getAmount(), notice.getAttempt(), notice.getNextAttemptAt());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.telecom.enterprise.backend.dunning;
+
+import com.telecom.enterprise.backend.entity.OutboxEvent;
+import com.telecom.enterprise.backend.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One DUNNING_NOTICE event per user per batch, carrying all of that user's notices
+@Component
+@ConditionalOnProperty(name = "app.dunning.notifier", havingValue = "outbox")
+@RequiredArgsConstructor
+public class OutboxDunningNotifier implements DunningNotifier {
+    
+    private final OutboxService outboxService;
+    
+    @Override
+    public void notify(List<DunningNotice> notices) {
+        Map<Long, List<Map<String, Object>>> byUser = new LinkedHashMap<>();
+        for (DunningNotice notice : notices) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("type", notice.getType().name());
+            entry.put("targetId", notice.getTargetId());
+            entry.put("reference", notice.getReference());
+            entry.put("amount", notice.getAmount());
+            entry.put("attempt", notice.getAttempt());
+            entry.put("nextAttemptAt", notice.getNextAttemptAt());
+            byUser.computeIfAbsent(notice.getUserId(), userId -> new ArrayList<>()).add(entry);
+        }
+        
+        Map<Long, Map<String, Object>> payloads = new LinkedHashMap<>();
+        byUser.forEach((userId, entries) -> {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("userId", userId);
+            payload.put("notices", entries);
+            payloads.put(userId, payload);
+        });
+        outboxService.recordUserEvents(OutboxEvent.EventType.DUNNING_NOTICE, payloads);
+    }
+}
@@ -0,0 +1,301 @@
+package com.telecom.enterprise.backend.dunning;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Hierarchical timing wheel keyed by a primitive long. Four levels of 256 slots cover
+// 2^32 ticks; a timer lands in the lowest level whose span reaches its deadline and is
+// cascaded one level down each time the level below wraps, so scheduling, rescheduling
+// and cancelling are O(1) however many timers are pending. Timers live in parallel
+// arrays linked into per-slot lists and are found by key through an open-addressing
+// index, so a pending timer costs no objects. Not thread-safe: one thread owns it.
+public class TimingWheel {
+    
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (WHEEL_BITS * LEVELS);
+    private static final int NIL = -1;
+    private static final long EMPTY = Long.MIN_VALUE;
+    
+    private final long tickMillis;
+    private final int[] heads = new int[LEVELS * WHEEL_SIZE];
+    
+    // Timer pool; released entries are chained through next[] from freeHead
+    private long[] timerKeys;
+    private long[] deadlines;
+    private int[] next;
+    private int[] prev;
+    private int[] buckets;
+    private int allocated;
+    private int freeHead = NIL;
+    
+    private long[] indexKeys;
+    private int[] indexEntries;
+    private int indexMask;
+    
+    private long[] firing = new long[64];
+    private int size;
+    // Next tick to be processed; every tick before it has fired
+    private long currentTick;
+    
+    public TimingWheel(long tickMillis, long nowMillis, int expectedTimers) {
+        this.tickMillis = Math.max(1, tickMillis);
+        this.currentTick = nowMillis / this.tickMillis;
+        Arrays.fill(heads, NIL);
+        
+        int capacity = Math.max(16, expectedTimers);
+        timerKeys = new long[capacity];
+        deadlines = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        buckets = new int[capacity];
+        
+        int indexCapacity = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+        indexKeys = new long[indexCapacity];
+        Arrays.fill(indexKeys, EMPTY);
+        indexEntries = new int[indexCapacity];
+        indexMask = indexCapacity - 1;
+    }
+    
+    // Adds the timer, or moves it if the key is already pending. Deadlines round up to the
+    // next tick so a timer never fires early; past deadlines fire with the next tick.
+    public void schedule(long key, long deadlineMillis) {
+        int entry = lookup(key);
+        if (entry == NIL) {
+            entry = allocate();
+            timerKeys[entry] = key;
+            insertIndex(key, entry);
+            size++;
+        } else {
+            unlink(entry);
+        }
+        deadlines[entry] = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(entry);
+    }
+    
+    public boolean cancel(long key) {
+        int entry = removeIndex(key);
+        if (entry == NIL) {
+            return false;
+        }
+        unlink(entry);
+        release(entry);
+        size--;
+        return true;
+    }
+    
+    public boolean contains(long key) {
+        return lookup(key) != NIL;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // Fires every timer due at or before nowMillis, in tick order. The callback may schedule
+    // or cancel timers, including the key it was handed.
+    public void advance(long nowMillis, LongConsumer expired) {
+        long nowTick = nowMillis / tickMillis;
+        while (currentTick <= nowTick) {
+            if (size == 0) {
+                currentTick = nowTick + 1;
+                return;
+            }
+            long tick = currentTick;
+            for (int level = 1; level < LEVELS && (tick & WHEEL_MASK) == 0; level++) {
+                tick >>>= WHEEL_BITS;
+                cascade(level * WHEEL_SIZE + (int) (tick & WHEEL_MASK));
+            }
+            // Timers scheduled from the callback with a past deadline land back in this slot
+            int bucket = (int) (currentTick & WHEEL_MASK);
+            while (heads[bucket] != NIL) {
+                fire(bucket, expired);
+            }
+            currentTick++;
+        }
+    }
+    
+    // Unlinks the whole slot before calling back, so the callback never sees a half-walked list
+    private void fire(int bucket, LongConsumer expired) {
+        int count = 0;
+        int entry = heads[bucket];
+        heads[bucket] = NIL;
+        while (entry != NIL) {
+            int following = next[entry];
+            if (deadlines[entry] <= currentTick) {
+                if (count == firing.length) {
+                    firing = Arrays.copyOf(firing, count * 2);
+                }
+                firing[count++] = timerKeys[entry];
+                removeIndex(timerKeys[entry]);
+                release(entry);
+                size--;
+            } else {
+                place(entry);
+            }
+            entry = following;
+        }
+        for (int i = 0; i < count; i++) {
+            expired.accept(firing[i]);
+        }
+    }
+    
+    private void cascade(int bucket) {
+        int entry = heads[bucket];
+        heads[bucket] = NIL;
+        while (entry != NIL) {
+            int following = next[entry];
+            place(entry);
+            entry = following;
+        }
+    }
+    
+    private void place(int entry) {
+        long deadline = deadlines[entry];
+        long delta = deadline - currentTick;
+        int bucket;
+        if (delta < WHEEL_SIZE) {
+            bucket = (int) (Math.max(deadline, currentTick) & WHEEL_MASK);
+        } else {
+            // Beyond the top level's reach: park in the furthest slot and re-place on cascade
+            long placed = delta < MAX_SPAN ? deadline : currentTick + MAX_SPAN - 1;
+            int level = 1;
+            long span = (long) WHEEL_SIZE * WHEEL_SIZE;
+            while (level < LEVELS - 1 && placed - currentTick >= span) {
+                level++;
+                span <<= WHEEL_BITS;
+            }
+            bucket = level * WHEEL_SIZE + (int) ((placed >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        }
+        link(entry, bucket);
+    }
+    
+    private void link(int entry, int bucket) {
+        int head = heads[bucket];
+        next[entry] = head;
+        prev[entry] = NIL;
+        if (head != NIL) {
+            prev[head] = entry;
+        }
+        heads[bucket] = entry;
+        buckets[entry] = bucket;
+    }
+    
+    private void unlink(int entry) {
+        int before = prev[entry];
+        int after = next[entry];
+        if (before != NIL) {
+            next[before] = after;
+        } else if (heads[buckets[entry]] == entry) {
+            heads[buckets[entry]] = after;
+        }
+        if (after != NIL) {
+            prev[after] = before;
+        }
+        next[entry] = NIL;
+        prev[entry] = NIL;
+    }
+    
+    private int allocate() {
+        if (freeHead != NIL) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (allocated == timerKeys.length) {
+            int capacity = timerKeys.length * 2;
+            timerKeys = Arrays.copyOf(timerKeys, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+        }
+        return allocated++;
+    }
+    
+    private void release(int entry) {
+        next[entry] = freeHead;
+        prev[entry] = NIL;
+        freeHead = entry;
+    }
+    
+    private int lookup(long key) {
+        int i = mix(key) & indexMask;
+        while (true) {
+            long candidate = indexKeys[i];
+            if (candidate == key) {
+                return indexEntries[i];
+            }
+            if (candidate == EMPTY) {
+                return NIL;
+            }
+            i = (i + 1) & indexMask;
+        }
+    }
+    
+    private void insertIndex(long key, int entry) {
+        if ((size + 1) * 2 > indexKeys.length) {
+            resizeIndex();
+        }
+        int i = mix(key) & indexMask;
+        while (indexKeys[i] != EMPTY) {
+            i = (i + 1) & indexMask;
+        }
+        indexKeys[i] = key;
+        indexEntries[i] = entry;
+    }
+    
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private int removeIndex(long key) {
+        int hole = mix(key) & indexMask;
+        while (indexKeys[hole] != key) {
+            if (indexKeys[hole] == EMPTY) {
+                return NIL;
+            }
+            hole = (hole + 1) & indexMask;
+        }
+        int entry = indexEntries[hole];
+        int i = hole;
+        while (true) {
+            i = (i + 1) & indexMask;
+            long candidate = indexKeys[i];
+            if (candidate == EMPTY) {
+                break;
+            }
+            int home = mix(candidate) & indexMask;
+            if (((i - home) & indexMask) >= ((i - hole) & indexMask)) {
+                indexKeys[hole] = candidate;
+                indexEntries[hole] = indexEntries[i];
+                hole = i;
+            }
+        }
+        indexKeys[hole] = EMPTY;
+        return entry;
+    }
+    
+    private void resizeIndex() {
+        long[] oldKeys = indexKeys;
+        int[] oldEntries = indexEntries;
+        indexKeys = new long[oldKeys.length * 2];
+        Arrays.fill(indexKeys, EMPTY);
+        indexEntries = new int[oldKeys.length * 2];
+        indexMask = indexKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = mix(oldKeys[i]) & indexMask;
+                while (indexKeys[j] != EMPTY) {
+                    j = (j + 1) & indexMask;
+                }
+                indexKeys[j] = oldKeys[i];
+                indexEntries[j] = oldEntries[i];
+            }
+        }
+    }
+    
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,36 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Running totals per account, adjusted in the same transaction as every billing change
+// so the dashboard reads one row instead of summing the billing history
+@Entity
+@Table(name = "account_balances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalance {
+    
+    @Id
+    private Long userId;
+    
+    @Column(nullable = false)
+    private BigDecimal outstanding;
+    
+    @Column(nullable = false)
+    private BigDecimal overdue;
+    
+    @Column(nullable = false)
+    private BigDecimal paidYtd;
+    
+    private Integer paidYear;
+    
+    private LocalDate nextDueDate;
+    
+    private LocalDateTime updatedAt;
+}
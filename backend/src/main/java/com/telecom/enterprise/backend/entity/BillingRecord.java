@@ -7,7 +7,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "billing_records")
+@Table(name = "billing_records", indexes = {
+    @Index(name = "idx_billing_user_type_date", columnList = "user_id, billingType, billingDate"),
+    @Index(name = "idx_billing_status_due_date", columnList = "status, dueDate"),
+    @Index(name = "idx_billing_user_date", columnList = "user_id, billingDate, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +19,8 @@ import java.time.LocalDateTime;
 public class BillingRecord {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "billing_records_seq")
+    @SequenceGenerator(name = "billing_records_seq", sequenceName = "billing_records_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
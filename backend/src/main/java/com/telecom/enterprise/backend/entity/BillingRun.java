@@ -0,0 +1,41 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "billing_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingRun {
+    
+    @Id
+    private String period;
+    
+    @Enumerated(EnumType.STRING)
+    private RunStatus status;
+    
+    private LocalDate billingDate;
+    
+    private long usersProcessed;
+    
+    private long invoicesCreated;
+    
+    private int chunksCompleted;
+    
+    private int chunksSkipped;
+    
+    private int chunksFailed;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime completedAt;
+    
+    public enum RunStatus {
+        RUNNING, COMPLETED, FAILED
+    }
+}
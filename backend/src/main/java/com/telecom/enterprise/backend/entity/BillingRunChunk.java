@@ -0,0 +1,41 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "billing_run_chunks", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_billing_run_chunk", columnNames = {"period", "first_user_id", "last_user_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingRunChunk {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "billing_run_chunks_seq")
+    @SequenceGenerator(name = "billing_run_chunks_seq", sequenceName = "billing_run_chunks_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String period;
+    
+    @Column(nullable = false)
+    private Long firstUserId;
+    
+    @Column(nullable = false)
+    private Long lastUserId;
+    
+    private int usersProcessed;
+    
+    private int invoicesCreated;
+    
+    private LocalDateTime completedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        completedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,64 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "dunning_schedules", indexes = {
+    @Index(name = "idx_dunning_status_id", columnList = "status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DunningSchedule {
+    
+    private static final int KIND_BITS = 4;
+    
+    // Derived from (kind, targetId) by keyOf, so the row id is also the timer key and a
+    // target can only ever have one schedule per kind
+    @Id
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+    
+    @Column(nullable = false)
+    private Long targetId;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    // Retries or reminders already sent
+    private int attempt;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public static long keyOf(Kind kind, long targetId) {
+        return (targetId << KIND_BITS) | kind.ordinal();
+    }
+    
+    public enum Kind {
+        PAYMENT_RETRY, OVERDUE_REMINDER
+    }
+    
+    public enum Status {
+        ACTIVE, RESOLVED, EXHAUSTED
+    }
+}
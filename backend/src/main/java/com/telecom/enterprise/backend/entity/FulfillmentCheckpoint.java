@@ -0,0 +1,34 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "fulfillment_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FulfillmentCheckpoint {
+    
+    @Id
+    private String sourceStatus;
+    
+    @Column(nullable = false)
+    private Long lastOrderId;
+    
+    private boolean completed;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime updatedAt;
+    
+    private LocalDateTime completedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -5,10 +5,14 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_status_id", columnList = "status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,7 +20,8 @@ import java.util.List;
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -124,7 +129,23 @@ public class Order {
         OUT_FOR_DELIVERY,
         DELIVERED,
         CANCELLED,
-        REFUNDED
+        REFUNDED;
+        
+        public Set<OrderStatus> allowedTransitions() {
+            return switch (this) {
+                case PENDING -> EnumSet.of(CONFIRMED, CANCELLED);
+                case CONFIRMED -> EnumSet.of(PROCESSING, CANCELLED);
+                case PROCESSING -> EnumSet.of(SHIPPED, CANCELLED);
+                case SHIPPED -> EnumSet.of(OUT_FOR_DELIVERY, DELIVERED);
+                case OUT_FOR_DELIVERY -> EnumSet.of(DELIVERED);
+                case DELIVERED, CANCELLED -> EnumSet.of(REFUNDED);
+                case REFUNDED -> EnumSet.noneOf(OrderStatus.class);
+            };
+        }
+        
+        public boolean canTransitionTo(OrderStatus target) {
+            return allowedTransitions().contains(target);
+        }
     }
     
     public enum PaymentStatus {
@@ -0,0 +1,66 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_published_id", columnList = "published_at, failed_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String aggregateType;
+    
+    @Column(nullable = false)
+    private Long aggregateId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType eventType;
+    
+    @Column(length = 4000)
+    private String payload;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime publishedAt;
+    
+    // Failed publish attempts; the relay skips the event until nextAttemptAt
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+    
+    private LocalDateTime nextAttemptAt;
+    
+    // Set once the attempts run out; the event is dead-lettered and no longer relayed
+    private LocalDateTime failedAt;
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public enum EventType {
+        ORDER_CREATED,
+        ORDER_STATUS_CHANGED,
+        PAYMENT_COMPLETED,
+        PAYMENT_FAILED,
+        BILLING_OVERDUE,
+        DUNNING_NOTICE
+    }
+}
@@ -0,0 +1,45 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+
+// Unbilled usage per subscriber and open billing month (yyyy-MM). Written in the same
+// transaction that records the CDR file it came from, so rated usage survives a restart; the
+// rows of a month are removed once its invoices are committed.
+@Entity
+@Table(name = "usage_aggregates")
+@IdClass(UsageAggregate.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsageAggregate {
+    
+    @Id
+    @Column(length = 7)
+    private String billingPeriod;
+    
+    @Id
+    private Long userId;
+    
+    @Column(nullable = false)
+    private long voiceSeconds;
+    
+    @Column(nullable = false)
+    private long dataBytes;
+    
+    @Column(nullable = false)
+    private long smsCount;
+    
+    @Column(nullable = false)
+    private long recordCount;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String billingPeriod;
+        private Long userId;
+    }
+}
@@ -0,0 +1,34 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// CDR files whose usage has been stored. A file still in the inbox but listed here was
+// committed before it could be archived, and is archived without being counted again.
+@Entity
+@Table(name = "usage_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsageFile {
+    
+    @Id
+    private String fileName;
+    
+    private long accepted;
+    
+    private long rejected;
+    
+    // CDRs for months already invoiced, left out of the aggregates
+    private long late;
+    
+    @Column(nullable = false)
+    private LocalDateTime ingestedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        ingestedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,24 @@
+package com.telecom.enterprise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Billing months (yyyy-MM) whose usage invoices have been created
+@Entity
+@Table(name = "usage_periods")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsagePeriod {
+    
+    @Id
+    @Column(length = 7)
+    private String billingPeriod;
+    
+    @Column(nullable = false)
+    private LocalDateTime closedAt;
+    
+    private int invoicesCreated;
+}
@@ -0,0 +1,50 @@
+package com.telecom.enterprise.backend.graphql;
+
+import com.telecom.enterprise.backend.config.AccessTokenFilter;
+import com.telecom.enterprise.backend.service.AccessTokenService;
+import com.telecom.enterprise.backend.throttle.ClientAddressResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Names the caller of a GraphQL request for its cost budget: the user of a valid access token,
+// else the client address under the same trusted-proxy rule as the login throttle, so a client
+// cannot reset its budget by sending a new X-Forwarded-For. Over HTTP the interceptor chain runs
+// on the request thread, where the servlet request is still bound.
+@Component
+@RequiredArgsConstructor
+public class GraphQLClientInterceptor implements WebGraphQlInterceptor {
+    
+    private final ClientAddressResolver clientAddressResolver;
+    
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String client = clientKey();
+        if (client != null) {
+            request.configureExecutionInput((input, builder) ->
+                    builder.graphQLContext(Map.of(QueryCostInstrumentation.CLIENT_KEY, client)).build());
+        }
+        return chain.next(request);
+    }
+    
+    private String clientKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (request.getAttribute(AccessTokenFilter.ATTRIBUTE) instanceof AccessTokenService.AccessToken token) {
+            return "user:" + token.userId();
+        }
+        return "address:" + clientAddressResolver.resolve(request);
+    }
+}
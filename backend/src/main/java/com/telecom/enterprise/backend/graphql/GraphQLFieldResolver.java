@@ -0,0 +1,112 @@
+package com.telecom.enterprise.backend.graphql;
+
+import com.telecom.enterprise.backend.dto.*;
+import com.telecom.enterprise.backend.service.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Relations between GraphQL types. Each is a batch mapping: the DataLoader collects every parent
+// at one level of the result and loads the children for all of them with a single statement,
+// so nesting costs one query per level whatever the number of rows. Results are returned in
+// the order of the parents.
+@Controller
+@RequiredArgsConstructor
+public class GraphQLFieldResolver {
+    
+    private final UserService userService;
+    private final ProductService productService;
+    private final OrderService orderService;
+    private final CartService cartService;
+    private final BillingService billingService;
+    
+    // Order relations
+    @BatchMapping(typeName = "Order", field = "items")
+    public List<List<OrderItemDTO>> orderItems(List<OrderDTO> orders) {
+        // Orders fresh from a mutation already carry their items
+        Set<Long> missing = new LinkedHashSet<>();
+        for (OrderDTO order : orders) {
+            if (order.getItems() == null) {
+                missing.add(order.getId());
+            }
+        }
+        Map<Long, List<OrderItemDTO>> loaded = missing.isEmpty()
+                ? Map.of()
+                : orderService.getItemsByOrderIds(missing);
+        List<List<OrderItemDTO>> items = new ArrayList<>(orders.size());
+        for (OrderDTO order : orders) {
+            items.add(order.getItems() != null
+                    ? order.getItems()
+                    : loaded.getOrDefault(order.getId(), List.of()));
+        }
+        return items;
+    }
+    
+    @BatchMapping(typeName = "Order", field = "user")
+    public List<UserDTO> orderUser(List<OrderDTO> orders) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        orders.forEach(order -> userIds.add(order.getUserId()));
+        Map<Long, UserDTO> users = userService.getUsersByIds(userIds);
+        List<UserDTO> result = new ArrayList<>(orders.size());
+        orders.forEach(order -> result.add(users.get(order.getUserId())));
+        return result;
+    }
+    
+    @BatchMapping(typeName = "OrderItem", field = "product")
+    public List<ProductDTO> orderItemProduct(List<OrderItemDTO> items) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        items.forEach(item -> productIds.add(item.getProductId()));
+        Map<Long, ProductDTO> products = productService.getProductsByIds(productIds);
+        List<ProductDTO> result = new ArrayList<>(items.size());
+        items.forEach(item -> result.add(products.get(item.getProductId())));
+        return result;
+    }
+    
+    // Cart relations; a cart's items come with it, as its totals are computed from them
+    @BatchMapping(typeName = "CartItem", field = "product")
+    public List<ProductDTO> cartItemProduct(List<CartItemDTO> items) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        items.forEach(item -> productIds.add(item.getProductId()));
+        Map<Long, ProductDTO> products = productService.getProductsByIds(productIds);
+        List<ProductDTO> result = new ArrayList<>(items.size());
+        items.forEach(item -> result.add(products.get(item.getProductId())));
+        return result;
+    }
+    
+    // User relations
+    @BatchMapping(typeName = "User", field = "orders")
+    public List<List<OrderDTO>> userOrders(List<UserDTO> users) {
+        Map<Long, List<OrderDTO>> orders = orderService.getOrderSummariesByUserIds(userIds(users));
+        List<List<OrderDTO>> result = new ArrayList<>(users.size());
+        users.forEach(user -> result.add(orders.getOrDefault(user.getId(), List.of())));
+        return result;
+    }
+    
+    @BatchMapping(typeName = "User", field = "cart")
+    public List<CartDTO> userCart(List<UserDTO> users) {
+        Map<Long, CartDTO> carts = cartService.getCartsByUserIds(userIds(users));
+        List<CartDTO> result = new ArrayList<>(users.size());
+        users.forEach(user -> result.add(carts.get(user.getId())));
+        return result;
+    }
+    
+    @BatchMapping(typeName = "User", field = "billingHistory")
+    public List<List<BillingDTO>> userBillingHistory(List<UserDTO> users) {
+        Map<Long, List<BillingDTO>> history = billingService.getBillingHistoryByUserIds(userIds(users));
+        List<List<BillingDTO>> result = new ArrayList<>(users.size());
+        users.forEach(user -> result.add(history.getOrDefault(user.getId(), List.of())));
+        return result;
+    }
+    
+    private static Set<Long> userIds(List<UserDTO> users) {
+        Set<Long> ids = new LinkedHashSet<>();
+        users.forEach(user -> ids.add(user.getId()));
+        return ids;
+    }
+}
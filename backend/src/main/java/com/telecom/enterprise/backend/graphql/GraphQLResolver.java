@@ -1,5 +1,6 @@
 package com.telecom.enterprise.backend.graphql;
 
+import com.telecom.enterprise.backend.analytics.SalesWindowTable;
 import com.telecom.enterprise.backend.dto.*;
 import com.telecom.enterprise.backend.service.*;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
@@ -20,6 +22,8 @@ public class GraphQLResolver {
     private final OrderService orderService;
     private final CartService cartService;
     private final BillingService billingService;
+    private final SalesAggregationService salesAggregationService;
+    private final AccountBalanceService accountBalanceService;
     
     // User Queries
     @QueryMapping
@@ -63,20 +67,20 @@ public class GraphQLResolver {
         return productService.getAllCategories();
     }
     
-    // Order Queries
+    // Order Queries; items and other relations are batch-loaded by GraphQLFieldResolver
     @QueryMapping
     public OrderDTO order(@Argument Long id) {
-        return orderService.getOrderById(id);
+        return orderService.getOrderSummaryById(id);
     }
     
     @QueryMapping
     public OrderDTO orderByNumber(@Argument String orderNumber) {
-        return orderService.getOrderByNumber(orderNumber);
+        return orderService.getOrderSummaryByNumber(orderNumber);
     }
     
     @QueryMapping
     public List<OrderDTO> userOrders(@Argument Long userId) {
-        return orderService.getUserOrders(userId);
+        return orderService.getOrderSummariesByUserIds(List.of(userId)).getOrDefault(userId, List.of());
     }
     
     // Cart Queries
@@ -96,15 +100,30 @@ public class GraphQLResolver {
         return billingService.getBillingRecord(id);
     }
     
+    @QueryMapping
+    public AccountBalanceDTO accountBalance(@Argument Long userId) {
+        return accountBalanceService.getBalance(userId);
+    }
+    
+    // Analytics Queries
+    @QueryMapping
+    public List<SalesAggregateDTO> salesAggregates(@Argument String dimension, @Argument String window, @Argument Integer limit) {
+        return salesAggregationService.getAggregates(
+                SalesAggregationService.Dimension.valueOf(dimension.toUpperCase()),
+                SalesWindowTable.Window.valueOf(window != null ? window.toUpperCase() : "HOUR"),
+                limit != null ? limit : 20);
+    }
+    
     // User Mutations
     @MutationMapping
-    public AuthResponse register(@Argument("input") RegisterRequest input) {
+    public CompletableFuture<AuthResponse> register(@Argument("input") RegisterRequest input) {
         return userService.register(input);
     }
     
     @MutationMapping
-    public AuthResponse login(@Argument String email, @Argument String password) {
-        return userService.login(LoginRequest.builder().email(email).password(password).build());
+    public CompletableFuture<AuthResponse> login(@Argument String email, @Argument String password) {
+        // No client address over GraphQL; the per-email limit still applies
+        return userService.login(LoginRequest.builder().email(email).password(password).build(), null);
     }
     
     @MutationMapping
@@ -144,4 +163,16 @@ public class GraphQLResolver {
     public PaymentResponse processPayment(@Argument("input") PaymentRequest input) {
         return orderService.processPayment(input);
     }
+    
+    // Billing Mutations
+    @MutationMapping
+    public BulkPaymentResponse payBills(@Argument Long userId, @Argument List<Long> billingIds, @Argument String paymentMethod) {
+        if (billingIds != null && billingIds.size() > billingService.getMaxInvoicesPerPayment()) {
+            throw new IllegalArgumentException("At most " + billingService.getMaxInvoicesPerPayment() + " invoices per payment");
+        }
+        return billingService.payBills(userId, BulkPaymentRequest.builder()
+                .billingIds(billingIds)
+                .paymentMethod(paymentMethod)
+                .build());
+    }
 }
@@ -0,0 +1,88 @@
+package com.telecom.enterprise.backend.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Parsed and validated GraphQL documents keyed by query text, so a repeated query skips both
+// steps and goes straight to execution. Validation depends only on the schema, which is fixed
+// for the life of the process, so entries never go stale. Documents that failed to parse or
+// validate are not kept, which stops junk queries from pushing out the common ones.
+@Component
+@RequiredArgsConstructor
+public class ParsedDocumentCache implements PreparsedDocumentProvider {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.graphql.document-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.graphql.document-cache.max-entries:1000}")
+    private int maxEntries;
+    
+    private final Map<String, PreparsedDocumentEntry> documents = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+    
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("graphql.document.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("graphql.document.cache.requests", "result", "miss");
+        Gauge.builder("graphql.document.cache.size", documents, Map::size).register(meterRegistry);
+    }
+    
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(parseAndValidate.apply(executionInput));
+        }
+        String query = executionInput.getQuery();
+        PreparsedDocumentEntry entry = documents.get(query);
+        if (entry != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry);
+        }
+        misses.increment();
+        // Concurrent misses for one query may each parse it; the work is the same as uncached
+        entry = parseAndValidate.apply(executionInput);
+        if (!entry.hasErrors()) {
+            documents.put(query, entry);
+            if (documents.size() > maxEntries) {
+                trim();
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+    
+    // Still abstract in this graphql-java version, though nothing calls it once the async
+    // variant is overridden
+    @Override
+    @Deprecated
+    public PreparsedDocumentEntry getDocument(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        return getDocumentAsync(executionInput, parseAndValidate).join();
+    }
+    
+    // Arbitrary entries go until back under the cap; the hot queries come straight back
+    private void trim() {
+        Iterator<PreparsedDocumentEntry> entries = documents.values().iterator();
+        while (documents.size() > maxEntries && entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.telecom.enterprise.backend.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+// Persisted queries over HTTP, following the Apollo protocol: a request carries
+// extensions.persistedQuery.sha256Hash and may leave out the query text. The text is filled in
+// from the PersistedQueryStore before the GraphQL handler sees the request, since the handler
+// insists on one. An unknown hash gets PERSISTED_QUERY_NOT_FOUND, upon which the client resends
+// with the text to register it. In ALLOWLIST mode anything not allowlisted is refused here,
+// before it is parsed.
+@Component
+@RequiredArgsConstructor
+public class PersistedQueryFilter extends OncePerRequestFilter {
+    
+    private static final byte[] MARKER = "persistedQuery".getBytes(StandardCharsets.US_ASCII);
+    
+    private final PersistedQueryStore persistedQueryStore;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${spring.graphql.path:/graphql}")
+    private String graphqlPath;
+    
+    private Counter hits;
+    private Counter misses;
+    private Counter rejected;
+    
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("graphql.persisted.requests", "result", "hit");
+        misses = meterRegistry.counter("graphql.persisted.requests", "result", "miss");
+        rejected = meterRegistry.counter("graphql.persisted.requests", "result", "rejected");
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return persistedQueryStore.getMode() == PersistedQueryStore.Mode.OFF
+                || !"POST".equals(request.getMethod())
+                || !graphqlPath.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        // Plain queries skip the extra JSON parse unless every query must be checked
+        if (persistedQueryStore.getMode() == PersistedQueryStore.Mode.AUTOMATIC && indexOf(body, MARKER) < 0) {
+            chain.doFilter(new BodyRequest(request, body), response);
+            return;
+        }
+        
+        JsonNode document;
+        try {
+            document = objectMapper.readTree(body);
+        } catch (IOException e) {
+            document = null;
+        }
+        if (!(document instanceof ObjectNode)) {
+            // Malformed; let the GraphQL handler report it as usual
+            chain.doFilter(new BodyRequest(request, body), response);
+            return;
+        }
+        ObjectNode node = (ObjectNode) document;
+        JsonNode queryNode = node.get("query");
+        String query = queryNode != null && queryNode.isTextual() && !queryNode.asText().isEmpty()
+                ? queryNode.asText()
+                : null;
+        String hash = node.at("/extensions/persistedQuery/sha256Hash").asText(null);
+        if (hash != null) {
+            hash = hash.toLowerCase(Locale.ROOT);
+        }
+        
+        if (hash == null) {
+            if (query != null && !persistedQueryStore.isAllowed(PersistedQueryStore.sha256(query))) {
+                reject(response, "PERSISTED_QUERY_NOT_ALLOWED", "Only persisted queries may be executed");
+                return;
+            }
+            chain.doFilter(new BodyRequest(request, body), response);
+            return;
+        }
+        if (query == null) {
+            query = persistedQueryStore.lookup(hash);
+            if (query == null) {
+                misses.increment();
+                reject(response, "PERSISTED_QUERY_NOT_FOUND", "PersistedQueryNotFound");
+                return;
+            }
+            hits.increment();
+            node.put("query", query);
+            body = objectMapper.writeValueAsBytes(node);
+        } else {
+            if (!hash.equals(PersistedQueryStore.sha256(query))) {
+                reject(response, "PERSISTED_QUERY_HASH_MISMATCH", "Provided sha256Hash does not match the query");
+                return;
+            }
+            if (!persistedQueryStore.isAllowed(hash)) {
+                reject(response, "PERSISTED_QUERY_NOT_ALLOWED", "Only persisted queries may be executed");
+                return;
+            }
+            persistedQueryStore.register(hash, query);
+        }
+        chain.doFilter(new BodyRequest(request, body), response);
+    }
+    
+    // GraphQL-over-HTTP clients expect protocol errors as a 200 with an errors array
+    private void reject(HttpServletResponse response, String code, String message) throws IOException {
+        rejected.increment();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("errors", new Object[]{
+                Map.of("message", message, "extensions", Map.of("code", code))}));
+    }
+    
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+    
+    // Replays the body that was read here, or its rewritten form, to the rest of the chain
+    private static class BodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        BodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+                
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+    }
+}
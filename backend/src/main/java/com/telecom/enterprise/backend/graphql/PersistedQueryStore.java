@@ -0,0 +1,102 @@
+package com.telecom.enterprise.backend.graphql;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Query texts by SHA-256 hash for persisted queries. In AUTOMATIC mode clients register a query
+// by sending its text with its hash once, then send only the hash; registrations are bounded
+// and a client whose hash was dropped just registers again. In ALLOWLIST mode only the documents
+// shipped under graphql/persisted/ can run, whether a request names them by hash or by text.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersistedQueryStore {
+    
+    public enum Mode {
+        OFF, AUTOMATIC, ALLOWLIST
+    }
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Getter
+    @Value("${app.graphql.persisted-queries.mode:AUTOMATIC}")
+    private Mode mode;
+    
+    @Value("${app.graphql.persisted-queries.max-entries:10000}")
+    private int maxEntries;
+    
+    @Value("${app.graphql.persisted-queries.allowlist:classpath*:graphql/persisted/*.graphql}")
+    private String allowlistLocation;
+    
+    private final Map<String, String> registered = new ConcurrentHashMap<>();
+    private Map<String, String> allowlist = Map.of();
+    
+    @PostConstruct
+    void init() throws IOException {
+        Map<String, String> documents = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(allowlistLocation)) {
+            try (InputStream in = resource.getInputStream()) {
+                String query = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                documents.put(sha256(query), query);
+            }
+        }
+        allowlist = Map.copyOf(documents);
+        Gauge.builder("graphql.persisted.queries", registered, Map::size).register(meterRegistry);
+        log.info("GraphQL persisted queries {}: {} allowlisted documents", mode, allowlist.size());
+    }
+    
+    // Null when the hash is unknown, or not allowlisted in ALLOWLIST mode
+    public String lookup(String hash) {
+        String query = allowlist.get(hash);
+        if (query != null || mode != Mode.AUTOMATIC) {
+            return query;
+        }
+        return registered.get(hash);
+    }
+    
+    public boolean isAllowed(String hash) {
+        return mode != Mode.ALLOWLIST || allowlist.containsKey(hash);
+    }
+    
+    // The caller has checked the hash against the text
+    public void register(String hash, String query) {
+        if (mode != Mode.AUTOMATIC || allowlist.containsKey(hash)) {
+            return;
+        }
+        if (registered.putIfAbsent(hash, query) == null && registered.size() > maxEntries) {
+            Iterator<String> hashes = registered.keySet().iterator();
+            while (registered.size() > maxEntries && hashes.hasNext()) {
+                hashes.next();
+                hashes.remove();
+            }
+        }
+    }
+    
+    public static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
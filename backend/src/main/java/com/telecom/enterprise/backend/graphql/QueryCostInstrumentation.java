@@ -0,0 +1,246 @@
+package com.telecom.enterprise.backend.graphql;
+
+import com.telecom.enterprise.backend.throttle.TokenBucketTable;
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.schema.GraphQLCompositeType;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Static cost analysis of every operation once it is validated and before anything runs. A
+// field costs its weight plus, for object fields, the cost of its selections times the expected
+// length when it is a list, so nesting multiplies the way the work does. Operations deeper or
+// costlier than the limits are refused outright; the rest are charged against a budget per
+// client that refills at a steady rate, so one client's heavy queries run out its own budget
+// rather than the backend's capacity. Introspection is not charged.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+    
+    // Set in the GraphQL context by GraphQLClientInterceptor
+    public static final String CLIENT_KEY = "graphql.cost.client";
+    private static final String ANONYMOUS = "anonymous";
+    
+    private static final int QUERY_WEIGHT = 5;
+    private static final int MUTATION_WEIGHT = 20;
+    private static final int OBJECT_WEIGHT = 1;
+    
+    // Fields costing more than their kind: full scans, and relations loaded with a batch statement
+    private static final Map<String, Integer> WEIGHTS = Map.ofEntries(
+            Map.entry("Query.products", 10),
+            Map.entry("Query.searchProducts", 10),
+            Map.entry("Query.salesAggregates", 10),
+            Map.entry("User.orders", 3),
+            Map.entry("User.cart", 3),
+            Map.entry("User.billingHistory", 3),
+            Map.entry("Order.user", 3),
+            Map.entry("Order.items", 3),
+            Map.entry("OrderItem.product", 3),
+            Map.entry("CartItem.product", 3));
+    
+    // Expected lengths of lists that differ much from the default
+    private static final Map<String, Integer> LIST_SIZES = Map.of(
+            "Query.products", 200,
+            "Query.productsByCategory", 50,
+            "Query.searchProducts", 50,
+            "Query.featuredProducts", 10,
+            "Order.items", 5,
+            "Cart.items", 5);
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.graphql.cost.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.graphql.cost.max-depth:8}")
+    private int maxDepth;
+    
+    @Value("${app.graphql.cost.max-complexity:5000}")
+    private long maxComplexity;
+    
+    @Value("${app.graphql.cost.default-list-size:20}")
+    private int defaultListSize;
+    
+    @Value("${app.graphql.cost.budget.capacity:20000}")
+    private int budgetCapacity;
+    
+    @Value("${app.graphql.cost.budget.refill-per-second:200}")
+    private int refillPerSecond;
+    
+    @Value("${app.graphql.cost.budget.expected-clients:16384}")
+    private int expectedClients;
+    
+    private TokenBucketTable budgets;
+    private DistributionSummary costs;
+    
+    // Reported as a GraphQL error with the code and figures under extensions
+    public static class QueryCostException extends AbortExecutionException {
+        private final Map<String, Object> extensions;
+        
+        public QueryCostException(String code, String message, Map<String, Object> details) {
+            super(message);
+            this.extensions = new LinkedHashMap<>();
+            this.extensions.put("code", code);
+            this.extensions.putAll(details);
+        }
+        
+        @Override
+        public Map<String, Object> getExtensions() {
+            return extensions;
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        if (maxComplexity > budgetCapacity) {
+            log.warn("GraphQL max-complexity {} is above the budget capacity {}; such queries can never run",
+                    maxComplexity, budgetCapacity);
+        }
+        budgets = new TokenBucketTable(expectedClients, budgetCapacity, 1_000_000_000L / Math.max(1, refillPerSecond));
+        costs = meterRegistry.summary("graphql.query.cost");
+        log.info("GraphQL cost limits {}: depth {}, complexity {}, budget {} refilled at {}/s",
+                enabled ? "on" : "off", maxDepth, maxComplexity, budgetCapacity, refillPerSecond);
+    }
+    
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        if (enabled) {
+            check(parameters.getExecutionContext());
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+    
+    private void check(ExecutionContext context) {
+        OperationDefinition operation = context.getOperationDefinition();
+        GraphQLSchema schema = context.getGraphQLSchema();
+        GraphQLObjectType root = switch (operation.getOperation()) {
+            case MUTATION -> schema.getMutationType();
+            case SUBSCRIPTION -> schema.getSubscriptionType();
+            default -> schema.getQueryType();
+        };
+        Analysis analysis = new Analysis(schema, context.getFragmentsByName());
+        long cost = analysis.cost(operation.getSelectionSet(), root, 0);
+        
+        if (analysis.depth > maxDepth) {
+            throw reject("QUERY_TOO_DEEP",
+                    "Query depth " + analysis.depth + " exceeds the maximum of " + maxDepth,
+                    Map.of("depth", analysis.depth, "maxDepth", maxDepth));
+        }
+        if (cost > maxComplexity) {
+            throw reject("QUERY_TOO_COMPLEX",
+                    "Query cost " + cost + " exceeds the maximum of " + maxComplexity,
+                    Map.of("cost", cost, "maxCost", maxComplexity));
+        }
+        String client = context.getGraphQLContext().getOrDefault(CLIENT_KEY, ANONYMOUS);
+        if (cost > 0 && !budgets.tryAcquire(client, cost, System.nanoTime())) {
+            throw reject("QUERY_BUDGET_EXHAUSTED",
+                    "Query cost " + cost + " exceeds the remaining budget, which refills at "
+                            + refillPerSecond + " per second",
+                    Map.of("cost", cost, "budget", budgetCapacity, "refillPerSecond", refillPerSecond));
+        }
+        costs.record(cost);
+    }
+    
+    private QueryCostException reject(String code, String message, Map<String, Object> details) {
+        meterRegistry.counter("graphql.query.rejected", "reason", code).increment();
+        return new QueryCostException(code, message, details);
+    }
+    
+    // Walks the selections of one operation; validation has already ruled out unknown fields and
+    // fragment cycles. @skip and @include are ignored, so both branches are charged.
+    private class Analysis {
+        private final GraphQLSchema schema;
+        private final Map<String, FragmentDefinition> fragments;
+        private int depth;
+        
+        Analysis(GraphQLSchema schema, Map<String, FragmentDefinition> fragments) {
+            this.schema = schema;
+            this.fragments = fragments;
+        }
+        
+        long cost(SelectionSet selections, GraphQLCompositeType parent, int level) {
+            long total = 0;
+            for (Selection<?> selection : selections.getSelections()) {
+                if (selection instanceof Field field) {
+                    total += cost(field, parent, level + 1);
+                } else if (selection instanceof InlineFragment fragment) {
+                    GraphQLCompositeType type = fragment.getTypeCondition() != null
+                            ? (GraphQLCompositeType) schema.getType(fragment.getTypeCondition().getName())
+                            : parent;
+                    total += cost(fragment.getSelectionSet(), type, level);
+                } else if (selection instanceof FragmentSpread spread) {
+                    FragmentDefinition fragment = fragments.get(spread.getName());
+                    GraphQLCompositeType type =
+                            (GraphQLCompositeType) schema.getType(fragment.getTypeCondition().getName());
+                    total += cost(fragment.getSelectionSet(), type, level);
+                }
+            }
+            return total;
+        }
+        
+        private long cost(Field field, GraphQLCompositeType parent, int level) {
+            if (field.getName().startsWith("__") || !(parent instanceof GraphQLFieldsContainer container)) {
+                return 0;
+            }
+            GraphQLFieldDefinition definition = container.getFieldDefinition(field.getName());
+            if (definition == null) {
+                return 0;
+            }
+            depth = Math.max(depth, level);
+            String coordinate = parent.getName() + "." + field.getName();
+            GraphQLType type = definition.getType();
+            boolean leaf = !(GraphQLTypeUtil.unwrapAll(type) instanceof GraphQLCompositeType);
+            long weight = weight(parent, coordinate, leaf);
+            if (leaf || field.getSelectionSet() == null) {
+                return weight;
+            }
+            long children = cost(field.getSelectionSet(), (GraphQLCompositeType) GraphQLTypeUtil.unwrapAll(type), level);
+            long multiplier = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(type))
+                    ? LIST_SIZES.getOrDefault(coordinate, defaultListSize)
+                    : 1;
+            return weight + multiplier * children;
+        }
+        
+        private long weight(GraphQLCompositeType parent, String coordinate, boolean leaf) {
+            Integer weight = WEIGHTS.get(coordinate);
+            if (weight != null) {
+                return weight;
+            }
+            if (parent == schema.getMutationType()) {
+                return MUTATION_WEIGHT;
+            }
+            if (parent == schema.getQueryType()) {
+                return QUERY_WEIGHT;
+            }
+            return leaf ? 0 : OBJECT_WEIGHT;
+        }
+    }
+}
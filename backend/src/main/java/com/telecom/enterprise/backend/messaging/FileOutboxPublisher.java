@@ -0,0 +1,65 @@
+package com.telecom.enterprise.backend.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.telecom.enterprise.backend.entity.OutboxEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "file")
+@RequiredArgsConstructor
+@Slf4j
+public class FileOutboxPublisher implements OutboxPublisher {
+    
+    private final ObjectMapper objectMapper;
+    
+    @Value("${app.outbox.file.path:outbox-events.ndjson}")
+    private String path;
+    
+    private BufferedWriter writer;
+    
+    @PostConstruct
+    void open() throws IOException {
+        Path file = Path.of(path).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.info("Outbox events will be appended to {}", file);
+    }
+    
+    @Override
+    public synchronized void publish(OutboxEvent event) throws IOException {
+        ObjectNode line = objectMapper.createObjectNode()
+                .put("id", event.getId())
+                .put("aggregateType", event.getAggregateType())
+                .put("aggregateId", event.getAggregateId())
+                .put("eventType", event.getEventType().name())
+                .put("createdAt", event.getCreatedAt().toString());
+        line.set("payload", objectMapper.readTree(event.getPayload()));
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.newLine();
+    }
+    
+    @Override
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+    
+    @PreDestroy
+    synchronized void close() throws IOException {
+        writer.close();
+    }
+}
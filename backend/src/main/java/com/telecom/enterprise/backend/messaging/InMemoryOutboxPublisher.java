@@ -0,0 +1,36 @@
+package com.telecom.enterprise.backend.messaging;
+
+import com.telecom.enterprise.backend.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+    
+    @Value("${app.outbox.memory.capacity:10000}")
+    private int capacity;
+    
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+    
+    @Override
+    public synchronized void publish(OutboxEvent event) {
+        if (events.size() >= capacity) {
+            events.pollFirst();
+        }
+        events.addLast(event);
+        log.debug("Published {} for {} {}", event.getEventType(), event.getAggregateType(), event.getAggregateId());
+    }
+    
+    public synchronized List<OutboxEvent> getRecentEvents() {
+        return new ArrayList<>(events);
+    }
+}
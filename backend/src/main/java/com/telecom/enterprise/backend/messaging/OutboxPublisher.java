@@ -0,0 +1,11 @@
+package com.telecom.enterprise.backend.messaging;
+
+import com.telecom.enterprise.backend.entity.OutboxEvent;
+
+public interface OutboxPublisher {
+    
+    void publish(OutboxEvent event) throws Exception;
+    
+    default void flush() throws Exception {
+    }
+}
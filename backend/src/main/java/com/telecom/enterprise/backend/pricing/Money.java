@@ -0,0 +1,137 @@
+package com.telecom.enterprise.backend.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+// Immutable amount held as a long count of the currency's minor units (cents for USD), so
+// pricing arithmetic is exact integer math with no per-call scale handling. Rounding only
+// happens where a fraction of a minor unit can appear: converting in from BigDecimal and
+// applying a rate, and both take the rounding mode explicitly. Overflow throws rather than wraps.
+public final class Money implements Comparable<Money> {
+    
+    private static final int MAX_FRACTION_DIGITS = 4;
+    
+    private final long minor;
+    private final Currency currency;
+    
+    private Money(long minor, Currency currency) {
+        this.minor = minor;
+        this.currency = currency;
+    }
+    
+    public static Money ofMinor(long minor, Currency currency) {
+        fractionDigits(currency);
+        return new Money(minor, currency);
+    }
+    
+    public static Money zero(Currency currency) {
+        return ofMinor(0, currency);
+    }
+    
+    public static Money of(BigDecimal amount, Currency currency, RoundingMode rounding) {
+        long minor = amount.setScale(fractionDigits(currency), rounding).unscaledValue().longValueExact();
+        return new Money(minor, currency);
+    }
+    
+    public long getMinor() {
+        return minor;
+    }
+    
+    public Currency getCurrency() {
+        return currency;
+    }
+    
+    public boolean isZero() {
+        return minor == 0;
+    }
+    
+    public int signum() {
+        return Long.signum(minor);
+    }
+    
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return other.minor == 0 ? this : new Money(Math.addExact(minor, other.minor), currency);
+    }
+    
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return other.minor == 0 ? this : new Money(Math.subtractExact(minor, other.minor), currency);
+    }
+    
+    public Money times(long quantity) {
+        return quantity == 1 ? this : new Money(Math.multiplyExact(minor, quantity), currency);
+    }
+    
+    public Money times(Rate rate, RoundingMode rounding) {
+        long product = Math.multiplyExact(minor, rate.getPartsPerMillion());
+        return new Money(divide(product, Rate.ONE, rounding), currency);
+    }
+    
+    public Money negate() {
+        return new Money(Math.negateExact(minor), currency);
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, fractionDigits(currency));
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minor, other.minor);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minor == other.minor && currency.equals(other.currency);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor) * 31 + currency.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toBigDecimal().toPlainString();
+    }
+    
+    // Integer division under any RoundingMode, matching what BigDecimal.divide would return
+    static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        long absDivisor = Math.abs(divisor);
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> twiceRemainder >= absDivisor;
+            case HALF_DOWN -> twiceRemainder > absDivisor;
+            case HALF_EVEN -> twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+    
+    private static int fractionDigits(Currency currency) {
+        int digits = currency.getDefaultFractionDigits();
+        if (digits < 0 || digits > MAX_FRACTION_DIGITS) {
+            throw new IllegalArgumentException("Unsupported currency for Money: " + currency);
+        }
+        return digits;
+    }
+    
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+}
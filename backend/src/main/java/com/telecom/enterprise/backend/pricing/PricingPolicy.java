@@ -0,0 +1,65 @@
+package com.telecom.enterprise.backend.pricing;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+// Single home for the store currency, tax rate and flat shipping charge, parsed once at
+// startup. Entities and DTOs keep BigDecimal; services convert in with money() and back
+// out with Money.toBigDecimal() at those boundaries.
+@Component
+@Slf4j
+public class PricingPolicy {
+    
+    // Stored amounts already carry two decimals, so anything finer is rounded half-up on the way in
+    private static final RoundingMode BOUNDARY_ROUNDING = RoundingMode.HALF_UP;
+    private static final RoundingMode TAX_ROUNDING = RoundingMode.HALF_UP;
+    
+    @Value("${app.pricing.currency:USD}")
+    private String currencyCode;
+    
+    @Value("${app.pricing.tax-rate:0.08}")
+    private BigDecimal taxRateValue;
+    
+    @Value("${app.pricing.shipping:9.99}")
+    private BigDecimal shippingValue;
+    
+    private Currency currency;
+    private Rate taxRate;
+    private Money shipping;
+    private Money zero;
+    
+    @PostConstruct
+    void init() {
+        currency = Currency.getInstance(currencyCode);
+        taxRate = Rate.of(taxRateValue);
+        zero = Money.zero(currency);
+        shipping = money(shippingValue);
+        log.info("Pricing in {} with tax rate {} and shipping {}", currency, taxRate, shipping);
+    }
+    
+    public Money money(BigDecimal amount) {
+        return amount != null ? Money.of(amount, currency, BOUNDARY_ROUNDING) : zero;
+    }
+    
+    public Money zero() {
+        return zero;
+    }
+    
+    public Money tax(Money taxable) {
+        return taxable.times(taxRate, TAX_ROUNDING);
+    }
+    
+    public Money shipping() {
+        return shipping;
+    }
+    
+    public Currency getCurrency() {
+        return currency;
+    }
+}
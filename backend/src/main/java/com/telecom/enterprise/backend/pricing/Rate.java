@@ -0,0 +1,48 @@
+package com.telecom.enterprise.backend.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Fractional multiplier (tax rates, discounts) held in parts per million, parsed once at
+// startup so applying it is a single long multiply and a rounded divide
+public final class Rate {
+    
+    static final long ONE = 1_000_000L;
+    private static final int SCALE = 6;
+    
+    private final long partsPerMillion;
+    
+    private Rate(long partsPerMillion) {
+        this.partsPerMillion = partsPerMillion;
+    }
+    
+    public static Rate of(BigDecimal rate) {
+        if (rate.signum() < 0) {
+            throw new IllegalArgumentException("Rate must not be negative: " + rate);
+        }
+        return new Rate(rate.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+    
+    public long getPartsPerMillion() {
+        return partsPerMillion;
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(partsPerMillion, SCALE).stripTrailingZeros();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Rate other && partsPerMillion == other.partsPerMillion;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(partsPerMillion);
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
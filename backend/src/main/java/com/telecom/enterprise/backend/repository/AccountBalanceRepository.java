@@ -0,0 +1,9 @@
+package com.telecom.enterprise.backend.repository;
+
+import com.telecom.enterprise.backend.entity.AccountBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, Long> {
+}
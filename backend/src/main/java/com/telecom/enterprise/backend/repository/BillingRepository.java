@@ -2,9 +2,19 @@ package com.telecom.enterprise.backend.repository;
 
 import com.telecom.enterprise.backend.entity.BillingRecord;
 import com.telecom.enterprise.backend.entity.User;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +22,84 @@ import java.util.Optional;
 public interface BillingRepository extends JpaRepository<BillingRecord, Long> {
     List<BillingRecord> findByUser(User user);
     List<BillingRecord> findByUserOrderByCreatedAtDesc(User user);
+    
+    @Query("SELECT b FROM BillingRecord b WHERE b.user.id IN :userIds ORDER BY b.createdAt DESC")
+    List<BillingRecord> findByUserIdInOrderByCreatedAtDesc(@Param("userIds") Collection<Long> userIds);
     Optional<BillingRecord> findByInvoiceNumber(String invoiceNumber);
     List<BillingRecord> findByStatus(BillingRecord.BillingStatus status);
+    
+    // Latest charge per user and plan description, used as the template for the next period
+    @Query("SELECT b.user.id AS userId, b.amount AS amount, b.description AS description, " +
+           "b.billingType AS billingType, b.billingDate AS billingDate FROM BillingRecord b " +
+           "WHERE b.user.id IN :userIds AND b.billingType IN :types AND b.billingDate = (" +
+           "SELECT MAX(b2.billingDate) FROM BillingRecord b2 WHERE b2.user = b.user " +
+           "AND b2.description = b.description AND b2.billingType IN :types) " +
+           "ORDER BY b.user.id, b.description")
+    List<RecurringChargeView> findLatestRecurringCharges(@Param("userIds") Collection<Long> userIds,
+                                                         @Param("types") Collection<BillingRecord.BillingType> types);
+    
+    // Served by idx_billing_status_due_date: an index range scan instead of a full table read
+    @Query("SELECT b.id AS id, b.user.id AS userId, b.invoiceNumber AS invoiceNumber, " +
+           "b.totalAmount AS totalAmount, b.dueDate AS dueDate FROM BillingRecord b " +
+           "WHERE b.status = :status AND b.dueDate < :cutoff ORDER BY b.dueDate, b.id")
+    List<DueRecordView> findDueBatch(@Param("status") BillingRecord.BillingStatus status,
+                                     @Param("cutoff") LocalDate cutoff,
+                                     Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE BillingRecord b SET b.status = :target, b.updatedAt = :now " +
+           "WHERE b.id IN :ids AND b.status = :expected")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("expected") BillingRecord.BillingStatus expected,
+                         @Param("target") BillingRecord.BillingStatus target,
+                         @Param("now") LocalDateTime now);
+    
+    @Query("SELECT b.id FROM BillingRecord b WHERE b.id IN :ids AND b.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                      @Param("status") BillingRecord.BillingStatus status);
+    
+    // Payment paths lock the rows they settle, so a bill can never be paid twice or counted
+    // twice in the account balance. Rows are locked in id order to keep concurrent payers from deadlocking.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BillingRecord b WHERE b.id = :id")
+    Optional<BillingRecord> lockById(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BillingRecord b WHERE b.user.id = :userId AND b.id IN :ids ORDER BY b.id")
+    List<BillingRecord> lockByUserAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BillingRecord b WHERE b.user.id = :userId AND b.status IN :statuses ORDER BY b.id")
+    List<BillingRecord> lockByUserAndStatusIn(@Param("userId") Long userId,
+                                              @Param("statuses") Collection<BillingRecord.BillingStatus> statuses,
+                                              Pageable pageable);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BillingRecord b SET b.status = :paid, b.paidDate = :paidDate, b.paymentMethod = :paymentMethod, " +
+           "b.updatedAt = :now WHERE b.id IN :ids AND b.status IN :payable")
+    int markPaid(@Param("ids") Collection<Long> ids,
+                 @Param("payable") Collection<BillingRecord.BillingStatus> payable,
+                 @Param("paid") BillingRecord.BillingStatus paid,
+                 @Param("paymentMethod") String paymentMethod,
+                 @Param("paidDate") LocalDate paidDate,
+                 @Param("now") LocalDateTime now);
+    
+    @Query("SELECT b.invoiceNumber FROM BillingRecord b WHERE b.invoiceNumber IN :invoiceNumbers")
+    List<String> findExistingInvoiceNumbers(@Param("invoiceNumbers") Collection<String> invoiceNumbers);
+    
+    interface DueRecordView {
+        Long getId();
+        Long getUserId();
+        String getInvoiceNumber();
+        BigDecimal getTotalAmount();
+        LocalDate getDueDate();
+    }
+    
+    interface RecurringChargeView {
+        Long getUserId();
+        BigDecimal getAmount();
+        String getDescription();
+        BillingRecord.BillingType getBillingType();
+        LocalDate getBillingDate();
+    }
 }
@@ -0,0 +1,12 @@
+package com.telecom.enterprise.backend.repository;
+
+import com.telecom.enterprise.backend.entity.BillingRunChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BillingRunChunkRepository extends JpaRepository<BillingRunChunk, Long> {
+    List<BillingRunChunk> findByPeriod(String period);
+}
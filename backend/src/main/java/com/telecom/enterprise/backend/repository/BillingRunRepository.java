@@ -0,0 +1,9 @@
+package com.telecom.enterprise.backend.repository;
+
+import com.telecom.enterprise.backend.entity.BillingRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BillingRunRepository extends JpaRepository<BillingRun, String> {
+}
@@ -3,12 +3,21 @@ package com.telecom.enterprise.backend.repository;
 import com.telecom.enterprise.backend.entity.Cart;
 import com.telecom.enterprise.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUser(User user);
     Optional<Cart> findByUserId(Long userId);
+    
+    // Carts with their items and products in one statement; the totals need every item's price
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.product " +
+           "WHERE c.user.id IN :userIds")
+    List<Cart> findWithItemsByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,32 @@
+package com.telecom.enterprise.backend.repository;
+
+import com.telecom.enterprise.backend.entity.DunningSchedule;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DunningScheduleRepository extends JpaRepository<DunningSchedule, Long> {
+    
+    List<DunningSchedule> findByIdInAndStatus(Collection<Long> ids, DunningSchedule.Status status);
+    
+    long countByStatus(DunningSchedule.Status status);
+    
+    // Keyset page over idx_dunning_status_id for reloading the timing wheel at startup
+    @Query("SELECT d.id AS id, d.nextAttemptAt AS nextAttemptAt FROM DunningSchedule d " +
+           "WHERE d.status = :status AND d.id > :afterId ORDER BY d.id")
+    List<TimerView> findTimersAfter(@Param("status") DunningSchedule.Status status,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+    
+    interface TimerView {
+        Long getId();
+        LocalDateTime getNextAttemptAt();
+    }
+}
@@ -0,0 +1,34 @@
+package com.telecom.enterprise.backend.repository;
+
+import com.telecom.enterprise.backend.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    
+    // Items of many orders with their product image in one statement, without loading entities
+    @Query("SELECT i.order.id AS orderId, i.id AS id, p.id AS productId, i.productName AS productName, " +
+           "i.productSku AS productSku, p.imageUrl AS productImage, i.quantity AS quantity, " +
+           "i.unitPrice AS unitPrice, i.totalPrice AS totalPrice " +
+           "FROM OrderItem i JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemView> findViewsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    interface OrderItemView {
+        Long getOrderId();
+        Long getId();
+        Long getProductId();
+        String getProductName();
+        String getProductSku();
+        String getProductImage();
+        Integer getQuantity();
+        BigDecimal getUnitPrice();
+        BigDecimal getTotalPrice();
+    }
+}
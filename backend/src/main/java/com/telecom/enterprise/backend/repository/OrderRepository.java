@@ -4,9 +4,15 @@ import com.telecom.enterprise.backend.entity.Order;
 import com.telecom.enterprise.backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,7 +27,45 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByUserOrderByCreatedAtDesc(User user);
     
+    @Query("SELECT o FROM Order o WHERE o.user.id IN :userIds ORDER BY o.createdAt DESC")
+    List<Order> findByUserIdInOrderByCreatedAtDesc(@Param("userIds") Collection<Long> userIds);
+    
     List<Order> findByStatus(Order.OrderStatus status);
     
+    // Payment paths lock the orders they settle, so a customer payment and a dunning retry can
+    // never both complete one order. Rows are locked in id order to keep batches from deadlocking.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderNumber = :orderNumber")
+    Optional<Order> lockByOrderNumber(@Param("orderNumber") String orderNumber);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> lockByIdIn(@Param("ids") Collection<Long> ids);
+    
     Optional<Order> findByTrackingNumber(String trackingNumber);
+    
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.status AS status " +
+           "FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusView> findStatusViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.status AS status " +
+           "FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<OrderStatusView> findStatusViewsByOrderNumberIn(@Param("orderNumbers") Collection<String> orderNumbers);
+    
+    @Query("SELECT o.id AS id, o.createdAt AS createdAt FROM Order o " +
+           "WHERE o.status = :status AND o.id > :afterId ORDER BY o.id")
+    List<OrderCursorView> findCursorPage(@Param("status") Order.OrderStatus status, 
+                                         @Param("afterId") Long afterId, 
+                                         Pageable pageable);
+    
+    interface OrderStatusView {
+        Long getId();
+        String getOrderNumber();
+        Order.OrderStatus getStatus();
+    }
+    
+    interface OrderCursorView {
+        Long getId();
+        LocalDateTime getCreatedAt();
+    }
 }
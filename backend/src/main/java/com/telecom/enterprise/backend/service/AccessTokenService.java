@@ -0,0 +1,137 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.entity.User;
+import com.telecom.enterprise.backend.session.SessionRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+// Issues and verifies stateless access tokens of the form kid.claims.signature, where claims
+// is base64url("userId:role:expiresAtEpochSecond:tokenId") and the signature is HMAC-SHA256
+// over "kid.claims". Verification is a MAC over a few dozen bytes with a per-thread Mac that
+// was keyed once, so no request needs the database. The first configured key signs; the rest
+// only verify, which lets a key be rotated out without logging everyone off. Issued tokens are
+// registered with the SessionRegistry, and verification rejects the ones it has revoked.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccessTokenService {
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final SessionRegistry sessionRegistry;
+    
+    // Comma-separated kid=secret pairs; the BFFs verify with the same list
+    @Value("${app.security.token.keys}")
+    private String keyConfig;
+    
+    @Value("${app.security.token.ttl:PT12H}")
+    private Duration ttl;
+    
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, ThreadLocal<Mac>> macs = new HashMap<>();
+    private String signingKid;
+    
+    public record AccessToken(long userId, String role, long expiresAt, long tokenId) {
+    }
+    
+    @PostConstruct
+    void init() {
+        for (String entry : keyConfig.split(",")) {
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank() || parts[0].indexOf('.') >= 0) {
+                throw new IllegalStateException("app.security.token.keys entries must be kid=secret");
+            }
+            byte[] secret = parts[1].trim().getBytes(StandardCharsets.UTF_8);
+            if (secret.length < 32) {
+                throw new IllegalStateException("Token key " + parts[0] + " must be at least 32 bytes");
+            }
+            SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+            macs.put(parts[0].trim(), ThreadLocal.withInitial(() -> newMac(key)));
+            if (signingKid == null) {
+                signingKid = parts[0].trim();
+            }
+        }
+        log.info("Access tokens signed with key {} ({} keys accepted), valid for {}", signingKid, macs.size(), ttl);
+    }
+    
+    public String issue(User user) {
+        // Past any cutoff left by a password change in this same second
+        long expiresAt = Math.max(Instant.now().plus(ttl).getEpochSecond(), sessionRegistry.minimumExpiry(user.getId()));
+        long tokenId = random.nextLong();
+        sessionRegistry.register(tokenId, user.getId(), expiresAt);
+        String claims = user.getId() + ":" + user.getRole().name() + ":" + expiresAt + ":" + Long.toHexString(tokenId);
+        String signed = signingKid + "." + ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(sign(signingKid, signed));
+    }
+    
+    // Null for anything that is malformed, signed with an unknown key, forged, expired or revoked
+    public AccessToken verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int claimsStart = token.indexOf('.');
+        int signatureStart = token.lastIndexOf('.');
+        if (claimsStart <= 0 || signatureStart <= claimsStart + 1) {
+            return null;
+        }
+        String kid = token.substring(0, claimsStart);
+        if (!macs.containsKey(kid)) {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(kid, token.substring(0, signatureStart)))) {
+                return null;
+            }
+            String[] claims = new String(DECODER.decode(token.substring(claimsStart + 1, signatureStart)),
+                    StandardCharsets.UTF_8).split(":");
+            if (claims.length != 4) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(claims[2]);
+            if (expiresAt <= Instant.now().getEpochSecond()) {
+                return null;
+            }
+            long userId = Long.parseLong(claims[0]);
+            long tokenId = Long.parseUnsignedLong(claims[3], 16);
+            if (sessionRegistry.isRevoked(tokenId, userId, expiresAt)) {
+                return null;
+            }
+            return new AccessToken(userId, claims[1], expiresAt, tokenId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private byte[] sign(String kid, String signed) {
+        Mac mac = macs.get(kid).get();
+        return mac.doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
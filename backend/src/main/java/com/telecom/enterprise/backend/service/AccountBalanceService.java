@@ -0,0 +1,206 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.AccountBalanceDTO;
+import com.telecom.enterprise.backend.entity.AccountBalance;
+import com.telecom.enterprise.backend.repository.AccountBalanceRepository;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceService {
+    
+    // Creates the zero row the first time an account is touched; FROM users keeps it to real accounts.
+    // Two transactions can both pass NOT EXISTS for a new account, and the second then fails on the
+    // key; ensure() absorbs that, since either way the row exists.
+    private static final String ENSURE_SQL =
+            "INSERT INTO account_balances (user_id, outstanding, overdue, paid_ytd, paid_year, updated_at) " +
+            "SELECT u.id, 0, 0, 0, ?, ? FROM users u WHERE u.id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM account_balances a WHERE a.user_id = u.id)";
+    private static final String ENSURE_ALL_SQL =
+            "INSERT INTO account_balances (user_id, outstanding, overdue, paid_ytd, paid_year, updated_at) " +
+            "SELECT u.id, 0, 0, 0, ?, ? FROM users u " +
+            "WHERE NOT EXISTS (SELECT 1 FROM account_balances a WHERE a.user_id = u.id)";
+    private static final String LOCK_ALL_SQL = "SELECT user_id FROM account_balances FOR UPDATE";
+    // Relative updates, so concurrent changes to one account serialize on the row lock and never lose a delta
+    private static final String APPLY_SQL =
+            "UPDATE account_balances SET outstanding = outstanding + ?, overdue = overdue + ?, " +
+            "paid_ytd = CASE WHEN paid_year = ? THEN paid_ytd + ? ELSE ? END, paid_year = ?, updated_at = ? " +
+            "WHERE user_id = ?";
+    private static final String EARLIER_DUE_SQL =
+            "UPDATE account_balances SET next_due_date = ? " +
+            "WHERE user_id = ? AND (next_due_date IS NULL OR next_due_date > ?)";
+    private static final String RECOMPUTE_DUE_SQL =
+            "UPDATE account_balances SET next_due_date = (SELECT MIN(b.due_date) FROM billing_records b " +
+            "WHERE b.user_id = account_balances.user_id AND b.status = 'PENDING') WHERE user_id = ?";
+    private static final String REBUILD_SQL =
+            "UPDATE account_balances SET " +
+            "outstanding = COALESCE((SELECT SUM(b.total_amount) FROM billing_records b " +
+            "WHERE b.user_id = account_balances.user_id AND b.status IN ('PENDING', 'OVERDUE')), 0), " +
+            "overdue = COALESCE((SELECT SUM(b.total_amount) FROM billing_records b " +
+            "WHERE b.user_id = account_balances.user_id AND b.status = 'OVERDUE'), 0), " +
+            "paid_ytd = COALESCE((SELECT SUM(b.total_amount) FROM billing_records b " +
+            "WHERE b.user_id = account_balances.user_id AND b.status = 'PAID' AND b.paid_date >= ?), 0), " +
+            "paid_year = ?, " +
+            "next_due_date = (SELECT MIN(b.due_date) FROM billing_records b " +
+            "WHERE b.user_id = account_balances.user_id AND b.status = 'PENDING'), " +
+            "updated_at = ?";
+    
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    public AccountBalanceDTO getBalance(Long userId) {
+        return accountBalanceRepository.findById(userId)
+                .map(this::toDTO)
+                .orElseGet(() -> userRepository.existsById(userId) ? emptyBalance(userId) : null);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoiceIssued(Long userId, BigDecimal total, LocalDate dueDate) {
+        invoicesIssued(Map.of(userId, total), Map.of(userId, dueDate));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoicesIssued(Map<Long, BigDecimal> totalsByUser, Map<Long, LocalDate> earliestDueByUser) {
+        List<Delta> deltas = new ArrayList<>(totalsByUser.size());
+        totalsByUser.forEach((userId, total) -> deltas.add(new Delta(userId, total, BigDecimal.ZERO, BigDecimal.ZERO)));
+        apply(deltas);
+        
+        List<Object[]> dueArgs = new ArrayList<>(earliestDueByUser.size());
+        earliestDueByUser.forEach((userId, dueDate) -> {
+            if (dueDate != null) {
+                dueArgs.add(new Object[]{Date.valueOf(dueDate), userId, Date.valueOf(dueDate)});
+            }
+        });
+        if (!dueArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(EARLIER_DUE_SQL, dueArgs);
+        }
+    }
+    
+    // The paid invoice must already be flushed: the next due date is recomputed from billing_records
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoicePaid(Long userId, BigDecimal total, boolean wasOverdue) {
+        invoicesPaid(userId, total, wasOverdue ? total : BigDecimal.ZERO);
+    }
+    
+    // overdueTotal is the part of total that was overdue before payment
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoicesPaid(Long userId, BigDecimal total, BigDecimal overdueTotal) {
+        apply(List.of(new Delta(userId, total.negate(), overdueTotal.negate(), total)));
+        recomputeNextDue(List.of(userId));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoicesOverdue(Map<Long, BigDecimal> totalsByUser) {
+        List<Delta> deltas = new ArrayList<>(totalsByUser.size());
+        totalsByUser.forEach((userId, total) -> deltas.add(new Delta(userId, BigDecimal.ZERO, total, BigDecimal.ZERO)));
+        apply(deltas);
+        recomputeNextDue(totalsByUser.keySet());
+    }
+    
+    // Full recomputation from billing_records, for seeding and reconciliation, safe while deltas
+    // arrive. Every row is locked before anything is read: a transaction that applied a delta is
+    // waited for and its billing change is part of the recomputation, and one that has not yet
+    // applied its delta waits for this commit and adds it on top. Rows are updated in place rather
+    // than deleted and reinserted, so no delta can land on a row that is about to disappear.
+    @Transactional
+    public int rebuild() {
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.update(ENSURE_ALL_SQL, today.getYear(), now);
+        } catch (DuplicateKeyException e) {
+            // An account touched concurrently got its row first; the others are inserted on retry
+            jdbcTemplate.update(ENSURE_ALL_SQL, today.getYear(), now);
+        }
+        jdbcTemplate.queryForList(LOCK_ALL_SQL, Long.class);
+        int rows = jdbcTemplate.update(REBUILD_SQL, Date.valueOf(today.withDayOfYear(1)), today.getYear(), now);
+        log.info("Rebuilt {} account balances", rows);
+        return rows;
+    }
+    
+    private void apply(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // Rows are locked in id order, the order rebuild() locks them in, so the two cannot deadlock
+        deltas = new ArrayList<>(deltas);
+        deltas.sort(Comparator.comparing(Delta::userId));
+        int year = LocalDate.now().getYear();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        List<Object[]> ensureArgs = new ArrayList<>(deltas.size());
+        List<Object[]> applyArgs = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            ensureArgs.add(new Object[]{year, now, delta.userId});
+            applyArgs.add(new Object[]{delta.outstanding, delta.overdue, year, delta.paid, delta.paid, year, now, delta.userId});
+        }
+        ensure(ensureArgs);
+        jdbcTemplate.batchUpdate(APPLY_SQL, applyArgs);
+    }
+    
+    // A failed statement only rolls back itself, so the surrounding transaction carries on. Rows
+    // the failed batch did insert are skipped by NOT EXISTS when each is retried alone.
+    private void ensure(List<Object[]> ensureArgs) {
+        try {
+            jdbcTemplate.batchUpdate(ENSURE_SQL, ensureArgs);
+        } catch (DuplicateKeyException e) {
+            for (Object[] args : ensureArgs) {
+                try {
+                    jdbcTemplate.update(ENSURE_SQL, args);
+                } catch (DuplicateKeyException ignored) {
+                    // Created by the concurrent transaction, which has committed by now
+                }
+            }
+        }
+    }
+    
+    private void recomputeNextDue(Collection<Long> userIds) {
+        List<Object[]> args = new ArrayList<>(userIds.size());
+        userIds.forEach(userId -> args.add(new Object[]{userId}));
+        jdbcTemplate.batchUpdate(RECOMPUTE_DUE_SQL, args);
+    }
+    
+    private AccountBalanceDTO toDTO(AccountBalance balance) {
+        boolean currentYear = balance.getPaidYear() != null && balance.getPaidYear() == LocalDate.now().getYear();
+        return AccountBalanceDTO.builder()
+                .userId(balance.getUserId())
+                .outstanding(balance.getOutstanding())
+                .overdue(balance.getOverdue())
+                .paidYtd(currentYear ? balance.getPaidYtd() : BigDecimal.ZERO)
+                .nextDueDate(balance.getNextDueDate())
+                .updatedAt(balance.getUpdatedAt())
+                .build();
+    }
+    
+    private AccountBalanceDTO emptyBalance(Long userId) {
+        return AccountBalanceDTO.builder()
+                .userId(userId)
+                .outstanding(BigDecimal.ZERO)
+                .overdue(BigDecimal.ZERO)
+                .paidYtd(BigDecimal.ZERO)
+                .build();
+    }
+    
+    private record Delta(Long userId, BigDecimal outstanding, BigDecimal overdue, BigDecimal paid) {
+    }
+}
@@ -0,0 +1,322 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.BillingRunDTO;
+import com.telecom.enterprise.backend.entity.BillingRecord;
+import com.telecom.enterprise.backend.entity.BillingRun;
+import com.telecom.enterprise.backend.entity.BillingRunChunk;
+import com.telecom.enterprise.backend.repository.BillingRepository;
+import com.telecom.enterprise.backend.repository.BillingRunChunkRepository;
+import com.telecom.enterprise.backend.repository.BillingRunRepository;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BillingRunService {
+    
+    private static final Set<BillingRecord.BillingType> RECURRING_TYPES =
+            EnumSet.of(BillingRecord.BillingType.SUBSCRIPTION, BillingRecord.BillingType.RECURRING);
+    private static final DateTimeFormatter INVOICE_PERIOD = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    private final UserRepository userRepository;
+    private final BillingRepository billingRepository;
+    private final BillingRunRepository runRepository;
+    private final BillingRunChunkRepository chunkRepository;
+    private final BillingRecordBatchWriter invoiceWriter;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.billing-run.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${app.billing-run.workers:0}")
+    private int workers;
+    
+    @Value("${app.billing-run.max-in-flight-chunks:16}")
+    private int maxInFlightChunks;
+    
+    @Value("${app.billing-run.due-days:30}")
+    private int dueDays;
+    
+    private final AtomicReference<RunState> current = new AtomicReference<>();
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService workerPool;
+    private ExecutorService coordinator;
+    private Timer chunkTimer;
+    private Counter invoicesCounter;
+    private Counter usersCounter;
+    
+    @PostConstruct
+    void init() {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        workerPool = Executors.newFixedThreadPool(poolSize, namedThreads("billing-run-worker-"));
+        coordinator = Executors.newSingleThreadExecutor(namedThreads("billing-run-coordinator-"));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        chunkTimer = meterRegistry.timer("billing.run.chunk");
+        invoicesCounter = meterRegistry.counter("billing.run.invoices");
+        usersCounter = meterRegistry.counter("billing.run.users");
+        Gauge.builder("billing.run.progress.users", current, ref -> ref.get() != null ? ref.get().usersProcessed.get() : 0)
+                .description("Users processed by the current or last billing run")
+                .register(meterRegistry);
+        Gauge.builder("billing.run.throughput", current, ref -> ref.get() != null ? ref.get().invoicesPerSecond() : 0)
+                .description("Invoices generated per second by the current or last billing run")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workerPool.shutdownNow();
+    }
+    
+    public BillingRunDTO startRun(YearMonth period) {
+        RunState state = new RunState(period);
+        state.running = true;
+        RunState active = current.get();
+        if (active != null && active.running) {
+            log.info("Billing run for {} already in progress", active.period);
+            return snapshot(active);
+        }
+        if (!current.compareAndSet(active, state)) {
+            return snapshot(current.get());
+        }
+        
+        coordinator.execute(() -> run(state));
+        return snapshot(state);
+    }
+    
+    public BillingRunDTO getRun(YearMonth period) {
+        RunState state = current.get();
+        if (state != null && state.period.equals(period)) {
+            return snapshot(state);
+        }
+        return runRepository.findById(period.toString())
+                .map(this::toDTO)
+                .orElse(null);
+    }
+    
+    private void run(RunState state) {
+        String period = state.period.toString();
+        BillingRun run = runRepository.findById(period)
+                .orElseGet(() -> BillingRun.builder().period(period).build());
+        run.setStatus(BillingRun.RunStatus.RUNNING);
+        run.setBillingDate(state.billingDate);
+        run.setStartedAt(state.startedAt);
+        run.setCompletedAt(null);
+        runRepository.save(run);
+        
+        try {
+            process(state);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Billing run for {} interrupted", period);
+            state.chunksFailed.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.error("Billing run for {} failed: {}", period, e.getMessage(), e);
+            state.chunksFailed.incrementAndGet();
+        } finally {
+            state.completedAt = LocalDateTime.now();
+            state.running = false;
+            
+            run.setStatus(state.chunksFailed.get() > 0 ? BillingRun.RunStatus.FAILED : BillingRun.RunStatus.COMPLETED);
+            run.setUsersProcessed(state.usersProcessed.get());
+            run.setInvoicesCreated(state.invoicesCreated.get());
+            run.setChunksCompleted(state.chunksCompleted.get());
+            run.setChunksSkipped(state.chunksSkipped.get());
+            run.setChunksFailed(state.chunksFailed.get());
+            run.setCompletedAt(state.completedAt);
+            runRepository.save(run);
+            log.info("Billing run for {} finished {}: {} invoices for {} users, {} chunks failed",
+                    period, run.getStatus(), state.invoicesCreated.get(), state.usersProcessed.get(), state.chunksFailed.get());
+        }
+    }
+    
+    private void process(RunState state) throws InterruptedException {
+        // Chunks committed by an earlier attempt at this period are skipped on resume
+        Set<String> completedChunks = chunkRepository.findByPeriod(state.period.toString()).stream()
+                .map(chunk -> chunkKey(chunk.getFirstUserId(), chunk.getLastUserId()))
+                .collect(Collectors.toCollection(HashSet::new));
+        
+        int permits = Math.max(1, maxInFlightChunks);
+        Semaphore inFlight = new Semaphore(permits);
+        long cursor = 0;
+        List<Long> userIds;
+        
+        do {
+            userIds = userRepository.findActiveUserIdsAfter(cursor, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            
+            long first = userIds.get(0);
+            cursor = userIds.get(userIds.size() - 1);
+            if (completedChunks.contains(chunkKey(first, cursor))) {
+                state.chunksSkipped.incrementAndGet();
+                continue;
+            }
+            
+            List<Long> chunk = userIds;
+            long last = cursor;
+            inFlight.acquire();
+            try {
+                workerPool.execute(() -> {
+                    try {
+                        int created = chunkTimer.record(() -> billChunk(state, chunk, first, last));
+                        state.usersProcessed.addAndGet(chunk.size());
+                        state.invoicesCreated.addAndGet(created);
+                        state.chunksCompleted.incrementAndGet();
+                        usersCounter.increment(chunk.size());
+                        invoicesCounter.increment(created);
+                    } catch (RuntimeException e) {
+                        log.error("Billing chunk for users {}..{} failed: {}", first, last, e.getMessage());
+                        state.chunksFailed.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                throw e;
+            }
+        } while (userIds.size() == chunkSize);
+        
+        inFlight.acquire(permits);
+        inFlight.release(permits);
+    }
+    
+    // Invoices and the chunk checkpoint commit together, so a chunk is either fully billed
+    // and recorded or rolled back and retried on the next attempt
+    private int billChunk(RunState state, List<Long> userIds, long firstUserId, long lastUserId) {
+        return transactionTemplate.execute(status -> {
+            LocalDate periodStart = state.period.atDay(1);
+            Set<String> seen = new HashSet<>();
+            Map<Long, Integer> lineNumbers = new HashMap<>();
+            List<BillingRecordBatchWriter.NewInvoice> invoices = new ArrayList<>();
+            
+            for (BillingRepository.RecurringChargeView charge : billingRepository.findLatestRecurringCharges(userIds, RECURRING_TYPES)) {
+                if (!seen.add(charge.getUserId() + ":" + charge.getDescription())
+                        || !charge.getBillingDate().isBefore(periodStart)) {
+                    continue;
+                }
+                int line = lineNumbers.merge(charge.getUserId(), 1, Integer::sum);
+                invoices.add(BillingRecordBatchWriter.NewInvoice.builder()
+                        .userId(charge.getUserId())
+                        .invoiceNumber("INV-" + state.period.format(INVOICE_PERIOD) + "-" + charge.getUserId() + "-" + line)
+                        .amount(charge.getAmount())
+                        .description(charge.getDescription())
+                        .billingType(charge.getBillingType())
+                        .billingDate(state.billingDate)
+                        .dueDate(state.billingDate.plusDays(dueDays))
+                        .build());
+            }
+            
+            int created = invoiceWriter.insert(invoices);
+            chunkRepository.save(BillingRunChunk.builder()
+                    .period(state.period.toString())
+                    .firstUserId(firstUserId)
+                    .lastUserId(lastUserId)
+                    .usersProcessed(userIds.size())
+                    .invoicesCreated(created)
+                    .build());
+            return created;
+        });
+    }
+    
+    private BillingRunDTO snapshot(RunState state) {
+        return BillingRunDTO.builder()
+                .period(state.period.toString())
+                .status(state.running ? BillingRun.RunStatus.RUNNING.name()
+                        : state.chunksFailed.get() > 0 ? BillingRun.RunStatus.FAILED.name() : BillingRun.RunStatus.COMPLETED.name())
+                .billingDate(state.billingDate)
+                .usersProcessed(state.usersProcessed.get())
+                .invoicesCreated(state.invoicesCreated.get())
+                .chunksCompleted(state.chunksCompleted.get())
+                .chunksSkipped(state.chunksSkipped.get())
+                .chunksFailed(state.chunksFailed.get())
+                .invoicesPerSecond(state.invoicesPerSecond())
+                .startedAt(state.startedAt)
+                .completedAt(state.completedAt)
+                .build();
+    }
+    
+    private BillingRunDTO toDTO(BillingRun run) {
+        long elapsedMillis = run.getStartedAt() != null && run.getCompletedAt() != null
+                ? Duration.between(run.getStartedAt(), run.getCompletedAt()).toMillis() : 0;
+        return BillingRunDTO.builder()
+                .period(run.getPeriod())
+                .status(run.getStatus().name())
+                .billingDate(run.getBillingDate())
+                .usersProcessed(run.getUsersProcessed())
+                .invoicesCreated(run.getInvoicesCreated())
+                .chunksCompleted(run.getChunksCompleted())
+                .chunksSkipped(run.getChunksSkipped())
+                .chunksFailed(run.getChunksFailed())
+                .invoicesPerSecond(elapsedMillis > 0 ? run.getInvoicesCreated() * 1000.0 / elapsedMillis : 0)
+                .startedAt(run.getStartedAt())
+                .completedAt(run.getCompletedAt())
+                .build();
+    }
+    
+    private static String chunkKey(long firstUserId, long lastUserId) {
+        return firstUserId + ":" + lastUserId;
+    }
+    
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static class RunState {
+        private final YearMonth period;
+        private final LocalDate billingDate;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong usersProcessed = new AtomicLong();
+        private final AtomicLong invoicesCreated = new AtomicLong();
+        private final AtomicInteger chunksCompleted = new AtomicInteger();
+        private final AtomicInteger chunksSkipped = new AtomicInteger();
+        private final AtomicInteger chunksFailed = new AtomicInteger();
+        private volatile boolean running;
+        private volatile LocalDateTime completedAt;
+        
+        RunState(YearMonth period) {
+            this.period = period;
+            this.billingDate = period.atDay(1);
+        }
+        
+        double invoicesPerSecond() {
+            LocalDateTime end = completedAt != null ? completedAt : LocalDateTime.now();
+            long elapsedMillis = Duration.between(startedAt, end).toMillis();
+            return elapsedMillis > 0 ? invoicesCreated.get() * 1000.0 / elapsedMillis : 0;
+        }
+    }
+}
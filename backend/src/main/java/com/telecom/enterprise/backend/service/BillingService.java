@@ -1,19 +1,36 @@
 package com.telecom.enterprise.backend.service;
 
 import com.telecom.enterprise.backend.dto.BillingDTO;
+import com.telecom.enterprise.backend.dto.BulkPaymentRequest;
+import com.telecom.enterprise.backend.dto.BulkPaymentResponse;
+import com.telecom.enterprise.backend.dto.InvoicePaymentResult;
 import com.telecom.enterprise.backend.entity.BillingRecord;
 import com.telecom.enterprise.backend.entity.User;
+import com.telecom.enterprise.backend.pricing.Money;
+import com.telecom.enterprise.backend.pricing.PricingPolicy;
 import com.telecom.enterprise.backend.repository.BillingRepository;
 import com.telecom.enterprise.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,8 +38,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BillingService {
     
+    private static final Set<BillingRecord.BillingStatus> PAYABLE =
+            EnumSet.of(BillingRecord.BillingStatus.PENDING, BillingRecord.BillingStatus.OVERDUE);
+    
     private final BillingRepository billingRepository;
     private final UserRepository userRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final PricingPolicy pricing;
+    
+    @Value("${app.billing.bulk-payment.max-invoices:500}")
+    private int maxInvoicesPerPayment;
     
     public List<BillingDTO> getUserBillingHistory(Long userId) {
         return userRepository.findById(userId)
@@ -32,6 +57,14 @@ public class BillingService {
                 .orElse(List.of());
     }
     
+    public Map<Long, List<BillingDTO>> getBillingHistoryByUserIds(Collection<Long> userIds) {
+        Map<Long, List<BillingDTO>> history = new HashMap<>();
+        for (BillingRecord record : billingRepository.findByUserIdInOrderByCreatedAtDesc(userIds)) {
+            history.computeIfAbsent(record.getUser().getId(), id -> new ArrayList<>()).add(toDTO(record));
+        }
+        return history;
+    }
+    
     public BillingDTO getBillingRecord(Long recordId) {
         return billingRepository.findById(recordId)
                 .map(this::toDTO)
@@ -49,14 +82,15 @@ public class BillingService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        BigDecimal tax = amount.multiply(new BigDecimal("0.08"));
-        BigDecimal totalAmount = amount.add(tax);
+        Money net = pricing.money(amount);
+        Money tax = pricing.tax(net);
+        BigDecimal totalAmount = net.plus(tax).toBigDecimal();
         
         BillingRecord record = BillingRecord.builder()
                 .user(user)
                 .invoiceNumber("INV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
-                .amount(amount)
-                .tax(tax)
+                .amount(net.toBigDecimal())
+                .tax(tax.toBigDecimal())
                 .totalAmount(totalAmount)
                 .status(BillingRecord.BillingStatus.PENDING)
                 .billingDate(LocalDate.now())
@@ -66,21 +100,126 @@ public class BillingService {
                 .build();
         
         record = billingRepository.save(record);
+        accountBalanceService.invoiceIssued(userId, totalAmount, record.getDueDate());
         return toDTO(record);
     }
     
     @Transactional
     public BillingDTO payBill(Long recordId, String paymentMethod) {
-        return billingRepository.findById(recordId)
+        return billingRepository.lockById(recordId)
                 .map(record -> {
+                    BillingRecord.BillingStatus previous = record.getStatus();
                     record.setStatus(BillingRecord.BillingStatus.PAID);
                     record.setPaidDate(LocalDate.now());
                     record.setPaymentMethod(paymentMethod);
-                    return toDTO(billingRepository.save(record));
+                    record = billingRepository.saveAndFlush(record);
+                    if (previous == BillingRecord.BillingStatus.PENDING || previous == BillingRecord.BillingStatus.OVERDUE) {
+                        accountBalanceService.invoicePaid(record.getUser().getId(), record.getTotalAmount(),
+                                previous == BillingRecord.BillingStatus.OVERDUE);
+                    }
+                    return toDTO(record);
                 })
                 .orElse(null);
     }
     
+    public int getMaxInvoicesPerPayment() {
+        return maxInvoicesPerPayment;
+    }
+    
+    // Settles the listed invoices, or every outstanding one when none are listed, with one bulk
+    // update and one balance adjustment. Invoices that cannot be paid are reported, not fatal.
+    @Transactional
+    public BulkPaymentResponse payBills(Long userId, BulkPaymentRequest request) {
+        if (!userRepository.existsById(userId)) {
+            return null;
+        }
+        List<Long> requestedIds = request.getBillingIds() != null ? request.getBillingIds() : List.of();
+        boolean payOutstanding = requestedIds.isEmpty();
+        log.info("Bulk payment for user {} of {} invoices", userId, payOutstanding ? "all outstanding" : requestedIds.size());
+        
+        List<BillingRecord> records = payOutstanding
+                ? billingRepository.lockByUserAndStatusIn(userId, PAYABLE, PageRequest.of(0, maxInvoicesPerPayment))
+                : billingRepository.lockByUserAndIdIn(userId, new LinkedHashSet<>(requestedIds));
+        Map<Long, BillingRecord> found = records.stream()
+                .collect(Collectors.toMap(BillingRecord::getId, Function.identity()));
+        List<Long> references = payOutstanding
+                ? records.stream().map(BillingRecord::getId).collect(Collectors.toList())
+                : requestedIds;
+        
+        LocalDate today = LocalDate.now();
+        List<InvoicePaymentResult> results = new ArrayList<>(references.size());
+        List<Long> payIds = new ArrayList<>(references.size());
+        Set<Long> seen = new HashSet<>();
+        Money paid = pricing.zero();
+        Money overdue = pricing.zero();
+        
+        for (Long id : references) {
+            BillingRecord record = found.get(id);
+            if (record == null) {
+                results.add(paymentFailure(id, null, "Billing record not found"));
+                continue;
+            }
+            if (!seen.add(id)) {
+                results.add(paymentFailure(id, record, "Duplicate billing reference"));
+                continue;
+            }
+            if (!PAYABLE.contains(record.getStatus())) {
+                results.add(paymentFailure(id, record, "Billing record is " + record.getStatus()));
+                continue;
+            }
+            
+            Money total = pricing.money(record.getTotalAmount());
+            paid = paid.plus(total);
+            if (record.getStatus() == BillingRecord.BillingStatus.OVERDUE) {
+                overdue = overdue.plus(total);
+            }
+            payIds.add(id);
+            results.add(InvoicePaymentResult.builder()
+                    .billingId(id)
+                    .invoiceNumber(record.getInvoiceNumber())
+                    .previousStatus(record.getStatus().name())
+                    .status(BillingRecord.BillingStatus.PAID.name())
+                    .totalAmount(total.toBigDecimal())
+                    .paidDate(today)
+                    .success(true)
+                    .build());
+        }
+        
+        if (!payIds.isEmpty()) {
+            int updated = billingRepository.markPaid(payIds, PAYABLE, BillingRecord.BillingStatus.PAID,
+                    request.getPaymentMethod(), today, LocalDateTime.now());
+            // The rows are locked, so the status guard can only miss if the lock was not honoured
+            if (updated != payIds.size()) {
+                throw new IllegalStateException("Expected to pay " + payIds.size() + " invoices but updated " + updated);
+            }
+            accountBalanceService.invoicesPaid(userId, paid.toBigDecimal(), overdue.toBigDecimal());
+        }
+        
+        log.info("Bulk payment for user {} settled {} invoices totalling {}", userId, payIds.size(), paid);
+        return BulkPaymentResponse.builder()
+                .userId(userId)
+                .paymentMethod(request.getPaymentMethod())
+                .requested(results.size())
+                .paid(payIds.size())
+                .failed(results.size() - payIds.size())
+                .amountPaid(paid.toBigDecimal())
+                .results(results)
+                .build();
+    }
+    
+    private InvoicePaymentResult paymentFailure(Long id, BillingRecord record, String message) {
+        String status = record != null ? record.getStatus().name() : null;
+        return InvoicePaymentResult.builder()
+                .billingId(id)
+                .invoiceNumber(record != null ? record.getInvoiceNumber() : null)
+                .previousStatus(status)
+                .status(status)
+                .totalAmount(record != null ? record.getTotalAmount() : null)
+                .success(false)
+                .message(message)
+                .build();
+    }
+    
     public BillingDTO toDTO(BillingRecord record) {
         return BillingDTO.builder()
                 .id(record.getId())
@@ -0,0 +1,230 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.entity.User;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BillingStatementService {
+    
+    private static final String SELECT_SQL =
+            "SELECT invoice_number, billing_date, due_date, paid_date, description, billing_type, status, " +
+            "amount, tax, total_amount, payment_method FROM billing_records WHERE user_id = ?";
+    private static final String CSV_HEADER =
+            "invoice_number,billing_date,due_date,paid_date,description,billing_type,status," +
+            "amount,tax,total_amount,payment_method\n";
+    private static final String RULE = "-".repeat(96) + "\n";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    
+    @Value("${app.billing.statement.fetch-size:500}")
+    private int fetchSize;
+    
+    @Value("${app.billing.statement.lines-per-page:60}")
+    private int linesPerPage;
+    
+    public enum Format {
+        CSV, TEXT
+    }
+    
+    public User findAccount(Long userId) {
+        return userRepository.findById(userId).orElse(null);
+    }
+    
+    // Rows go from a forward-only cursor straight to the writer, so memory stays flat
+    // however many years of history the range covers
+    public void writeStatement(User account, LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        StatementWriter statement = format == Format.CSV
+                ? new CsvStatement(writer)
+                : new TextStatement(writer, account, from, to, linesPerPage);
+        
+        try {
+            statement.begin();
+            streamRows(account.getId(), from, to, statement);
+            statement.end();
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download; nothing left to write to
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+    
+    private void streamRows(Long userId, LocalDate from, LocalDate to, StatementWriter statement) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        if (from != null) {
+            sql.append(" AND billing_date >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND billing_date <= ?");
+            params.add(Date.valueOf(to));
+        }
+        sql.append(" ORDER BY billing_date, id");
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                statement.row(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private interface StatementWriter {
+        void begin() throws IOException;
+        
+        void row(ResultSet rs) throws IOException, SQLException;
+        
+        void end() throws IOException;
+    }
+    
+    private static class CsvStatement implements StatementWriter {
+        private final Writer writer;
+        
+        CsvStatement(Writer writer) {
+            this.writer = writer;
+        }
+        
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+        }
+        
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            for (int column = 1; column <= 11; column++) {
+                if (column > 1) {
+                    writer.write(',');
+                }
+                writeCsv(rs.getString(column));
+            }
+            writer.write('\n');
+        }
+        
+        @Override
+        public void end() {
+        }
+        
+        private void writeCsv(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+    
+    // Fixed-width printable statement with a repeated header on every page and running totals
+    private static class TextStatement implements StatementWriter {
+        private final Writer writer;
+        private final User account;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int linesPerPage;
+        private int page;
+        private int line;
+        private long invoices;
+        private BigDecimal billed = BigDecimal.ZERO;
+        private BigDecimal paid = BigDecimal.ZERO;
+        private BigDecimal outstanding = BigDecimal.ZERO;
+        
+        TextStatement(Writer writer, User account, LocalDate from, LocalDate to, int linesPerPage) {
+            this.writer = writer;
+            this.account = account;
+            this.from = from;
+            this.to = to;
+            this.linesPerPage = Math.max(10, linesPerPage);
+        }
+        
+        @Override
+        public void begin() throws IOException {
+            pageHeader();
+        }
+        
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            if (line >= linesPerPage) {
+                writer.write('\f');
+                pageHeader();
+            }
+            String status = rs.getString("status");
+            BigDecimal total = rs.getBigDecimal("total_amount");
+            writer.write(String.format("%-12s %-22s %-34.34s %-10s %12s\n",
+                    rs.getString("billing_date"), rs.getString("invoice_number"),
+                    rs.getString("description") != null ? rs.getString("description") : "",
+                    status, total != null ? total.toPlainString() : ""));
+            line++;
+            
+            invoices++;
+            if (total != null) {
+                billed = billed.add(total);
+                if ("PAID".equals(status)) {
+                    paid = paid.add(total);
+                } else if ("PENDING".equals(status) || "OVERDUE".equals(status)) {
+                    outstanding = outstanding.add(total);
+                }
+            }
+        }
+        
+        @Override
+        public void end() throws IOException {
+            writer.write(RULE);
+            writer.write(String.format("%-30s %12d\n", "Invoices", invoices));
+            writer.write(String.format("%-30s %12s\n", "Total billed", billed.toPlainString()));
+            writer.write(String.format("%-30s %12s\n", "Paid", paid.toPlainString()));
+            writer.write(String.format("%-30s %12s\n", "Outstanding", outstanding.toPlainString()));
+        }
+        
+        private void pageHeader() throws IOException {
+            page++;
+            writer.write(String.format("%-84s Page %5d\n", "ENTERPRISE TELECOM - BILLING STATEMENT", page));
+            writer.write(String.format("Account %d: %s %s <%s>\n",
+                    account.getId(), account.getFirstName(), account.getLastName(), account.getEmail()));
+            writer.write(String.format("Period: %s to %s\n",
+                    from != null ? from : "start of account", to != null ? to : LocalDate.now()));
+            writer.write(RULE);
+            writer.write(String.format("%-12s %-22s %-34s %-10s %12s\n", "Date", "Invoice", "Description", "Status", "Total"));
+            writer.write(RULE);
+            line = 0;
+        }
+    }
+}
@@ -2,17 +2,20 @@ package com.telecom.enterprise.backend.service;
 
 import com.telecom.enterprise.backend.dto.*;
 import com.telecom.enterprise.backend.entity.*;
+import com.telecom.enterprise.backend.pricing.Money;
+import com.telecom.enterprise.backend.pricing.PricingPolicy;
 import com.telecom.enterprise.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,13 +26,23 @@ public class CartService {
     private final CartItemRepository cartItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    
-    private static final BigDecimal TAX_RATE = new BigDecimal("0.08");
+    private final PricingPolicy pricing;
     
     public CartDTO getCart(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .map(this::toDTO)
-                .orElseGet(() -> createEmptyCart(userId));
+        return getCartsByUserIds(List.of(userId)).get(userId);
+    }
+    
+    // One statement for any number of users; users without a cart get an empty one
+    public Map<Long, CartDTO> getCartsByUserIds(Collection<Long> userIds) {
+        Map<Long, CartDTO> carts = new HashMap<>();
+        for (Cart cart : cartRepository.findWithItemsByUserIdIn(userIds)) {
+            CartDTO dto = toDTO(cart);
+            carts.put(dto.getUserId(), dto);
+        }
+        for (Long userId : userIds) {
+            carts.computeIfAbsent(userId, this::createEmptyCart);
+        }
+        return carts;
     }
     
     @Transactional
@@ -118,44 +131,43 @@ public class CartService {
         return CartDTO.builder()
                 .userId(userId)
                 .items(List.of())
-                .subtotal(BigDecimal.ZERO)
-                .tax(BigDecimal.ZERO)
-                .total(BigDecimal.ZERO)
+                .subtotal(pricing.zero().toBigDecimal())
+                .tax(pricing.zero().toBigDecimal())
+                .total(pricing.zero().toBigDecimal())
                 .itemCount(0)
                 .build();
     }
     
     public CartDTO toDTO(Cart cart) {
-        List<CartItemDTO> items = cart.getItems().stream()
-                .map(item -> CartItemDTO.builder()
-                        .id(item.getId())
-                        .productId(item.getProduct().getId())
-                        .productName(item.getProduct().getName())
-                        .productImage(item.getProduct().getImageUrl())
-                        .price(item.getProduct().getPrice())
-                        .quantity(item.getQuantity())
-                        .total(item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                        .build())
-                .collect(Collectors.toList());
-        
-        BigDecimal subtotal = items.stream()
-                .map(CartItemDTO::getTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal tax = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal total = subtotal.add(tax);
+        List<CartItemDTO> items = new ArrayList<>(cart.getItems().size());
+        Money subtotal = pricing.zero();
+        int itemCount = 0;
+        for (CartItem item : cart.getItems()) {
+            Money price = pricing.money(item.getProduct().getPrice());
+            Money lineTotal = price.times(item.getQuantity());
+            subtotal = subtotal.plus(lineTotal);
+            itemCount += item.getQuantity();
+            items.add(CartItemDTO.builder()
+                    .id(item.getId())
+                    .productId(item.getProduct().getId())
+                    .productName(item.getProduct().getName())
+                    .productImage(item.getProduct().getImageUrl())
+                    .price(price.toBigDecimal())
+                    .quantity(item.getQuantity())
+                    .total(lineTotal.toBigDecimal())
+                    .build());
+        }
         
-        int itemCount = items.stream()
-                .mapToInt(CartItemDTO::getQuantity)
-                .sum();
+        Money tax = pricing.tax(subtotal);
+        Money total = subtotal.plus(tax);
         
         return CartDTO.builder()
                 .id(cart.getId())
                 .userId(cart.getUser().getId())
                 .items(items)
-                .subtotal(subtotal)
-                .tax(tax)
-                .total(total)
+                .subtotal(subtotal.toBigDecimal())
+                .tax(tax.toBigDecimal())
+                .total(total.toBigDecimal())
                 .itemCount(itemCount)
                 .build();
     }
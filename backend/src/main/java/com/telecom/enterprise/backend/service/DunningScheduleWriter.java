@@ -0,0 +1,87 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dunning.DunningPolicy;
+import com.telecom.enterprise.backend.dunning.DunningTimers;
+import com.telecom.enterprise.backend.entity.DunningSchedule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Enrols failed payments and overdue bills for dunning in the caller's transaction. The new
+// deadlines are published as an event and reach the timing wheel only after commit.
+@Service
+@RequiredArgsConstructor
+public class DunningScheduleWriter {
+    
+    // Restarts a schedule that had finished, e.g. an order whose payment fails again after a retry
+    private static final String REACTIVATE_SQL =
+            "UPDATE dunning_schedules SET status = 'ACTIVE', attempt = 0, next_attempt_at = ?, updated_at = ? " +
+            "WHERE id = ? AND status <> 'ACTIVE'";
+    // FROM the target table so a schedule only exists for a real order or bill and picks up its owner
+    private static final String ENSURE_RETRY_SQL =
+            "INSERT INTO dunning_schedules (id, kind, target_id, user_id, attempt, next_attempt_at, status, created_at, updated_at) " +
+            "SELECT ?, 'PAYMENT_RETRY', o.id, o.user_id, 0, ?, 'ACTIVE', ?, ? FROM orders o WHERE o.id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM dunning_schedules d WHERE d.id = ?)";
+    private static final String ENSURE_REMINDER_SQL =
+            "INSERT INTO dunning_schedules (id, kind, target_id, user_id, attempt, next_attempt_at, status, created_at, updated_at) " +
+            "SELECT ?, 'OVERDUE_REMINDER', b.id, b.user_id, 0, ?, 'ACTIVE', ?, ? FROM billing_records b WHERE b.id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM dunning_schedules d WHERE d.id = ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DunningPolicy dunningPolicy;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentFailed(Long orderId) {
+        enrol(DunningSchedule.Kind.PAYMENT_RETRY, ENSURE_RETRY_SQL, List.of(orderId));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void billsOverdue(Collection<Long> billingIds) {
+        enrol(DunningSchedule.Kind.OVERDUE_REMINDER, ENSURE_REMINDER_SQL, billingIds);
+    }
+    
+    private void enrol(DunningSchedule.Kind kind, String ensureSql, Collection<Long> targetIds) {
+        if (targetIds.isEmpty() || dunningPolicy.delay(kind, 0) == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime firstAttempt = now.plus(dunningPolicy.delay(kind, 0));
+        Timestamp nowTs = Timestamp.valueOf(now);
+        Timestamp firstAttemptTs = Timestamp.valueOf(firstAttempt);
+        
+        List<Long> keys = new ArrayList<>(targetIds.size());
+        List<Object[]> reactivateArgs = new ArrayList<>(targetIds.size());
+        List<Object[]> ensureArgs = new ArrayList<>(targetIds.size());
+        for (Long targetId : targetIds) {
+            long key = DunningSchedule.keyOf(kind, targetId);
+            keys.add(key);
+            reactivateArgs.add(new Object[]{firstAttemptTs, nowTs, key});
+            ensureArgs.add(new Object[]{key, firstAttemptTs, nowTs, nowTs, targetId, key});
+        }
+        int[] reactivated = jdbcTemplate.batchUpdate(REACTIVATE_SQL, reactivateArgs);
+        int[] inserted = jdbcTemplate.batchUpdate(ensureSql, ensureArgs);
+        
+        // Schedules that were already active keep their place in the wheel
+        long deadline = firstAttempt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        DunningTimers timers = new DunningTimers(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (reactivated[i] > 0 || inserted[i] > 0) {
+                timers.add(keys.get(i), deadline);
+            }
+        }
+        if (!timers.isEmpty()) {
+            eventPublisher.publishEvent(timers);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.DunningStatusDTO;
+import com.telecom.enterprise.backend.dunning.DunningNotice;
+import com.telecom.enterprise.backend.dunning.DunningNotifier;
+import com.telecom.enterprise.backend.dunning.DunningPolicy;
+import com.telecom.enterprise.backend.dunning.DunningTimers;
+import com.telecom.enterprise.backend.dunning.TimingWheel;
+import com.telecom.enterprise.backend.entity.BillingRecord;
+import com.telecom.enterprise.backend.entity.DunningSchedule;
+import com.telecom.enterprise.backend.entity.Order;
+import com.telecom.enterprise.backend.repository.BillingRepository;
+import com.telecom.enterprise.backend.repository.DunningScheduleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Drives payment retries and overdue reminders from an in-memory timing wheel instead of
+// polling dunning_schedules. The table is the durable copy: it is read once at startup to
+// rebuild the wheel, and every fired timer re-checks its row, so a stale or duplicate timer
+// is harmless. One thread owns the wheel; enrolments and reschedules reach it through a
+// queue, and fired keys are handed to workers in batches.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DunningService {
+    
+    private final DunningScheduleRepository scheduleRepository;
+    private final BillingRepository billingRepository;
+    private final OrderService orderService;
+    private final DunningPolicy dunningPolicy;
+    private final DunningNotifier notifier;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.dunning.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.dunning.tick-ms:1000}")
+    private long tickMillis;
+    
+    @Value("${app.dunning.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.dunning.workers:2}")
+    private int workers;
+    
+    @Value("${app.dunning.max-in-flight-batches:4}")
+    private int maxInFlightBatches;
+    
+    @Value("${app.dunning.load-page-size:10000}")
+    private int loadPageSize;
+    
+    @Value("${app.dunning.expected-timers:100000}")
+    private int expectedTimers;
+    
+    @Value("${app.dunning.failure-backoff-ms:60000}")
+    private long failureBackoffMillis;
+    
+    private final Queue<DunningTimers> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTimers = new AtomicInteger();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private volatile boolean running;
+    private Thread wheelThread;
+    private ExecutorService workerPool;
+    private Semaphore inFlight;
+    private TransactionTemplate transactionTemplate;
+    private Counter firedCounter;
+    private Counter noticesCounter;
+    private Counter recoveredCounter;
+    private Counter resolvedCounter;
+    private Counter exhaustedCounter;
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        firedCounter = meterRegistry.counter("dunning.timers.fired");
+        noticesCounter = meterRegistry.counter("dunning.notices");
+        recoveredCounter = meterRegistry.counter("dunning.payments.recovered");
+        resolvedCounter = meterRegistry.counter("dunning.schedules.resolved");
+        exhaustedCounter = meterRegistry.counter("dunning.schedules.exhausted");
+        Gauge.builder("dunning.timers.pending", pendingTimers, AtomicInteger::get).register(meterRegistry);
+        
+        if (!enabled) {
+            log.info("Dunning scheduler disabled; failed payments and overdue bills are still enrolled");
+            return;
+        }
+        workerPool = Executors.newFixedThreadPool(Math.max(1, workers), namedThreads("dunning-worker-"));
+        inFlight = new Semaphore(Math.max(1, maxInFlightBatches));
+        running = true;
+        wheelThread = new Thread(this::run, "dunning-wheel");
+        wheelThread.setDaemon(true);
+        wheelThread.start();
+    }
+    
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (wheelThread != null) {
+            wheelThread.interrupt();
+            workerPool.shutdownNow();
+        }
+    }
+    
+    // Runs on the committing thread after an enrolment, so it only enqueues
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTimersCommitted(DunningTimers timers) {
+        queue.offer(timers);
+    }
+    
+    public DunningStatusDTO getStatus() {
+        return DunningStatusDTO.builder()
+                .enabled(enabled)
+                .pendingTimers(pendingTimers.get())
+                .activeSchedules(scheduleRepository.countByStatus(DunningSchedule.Status.ACTIVE))
+                .timersFired((long) firedCounter.count())
+                .noticesSent((long) noticesCounter.count())
+                .paymentsRecovered((long) recoveredCounter.count())
+                .schedulesResolved((long) resolvedCounter.count())
+                .schedulesExhausted((long) exhaustedCounter.count())
+                .build();
+    }
+    
+    private void run() {
+        TimingWheel wheel = new TimingWheel(tickMillis, System.currentTimeMillis(), expectedTimers);
+        long loaded = load(wheel);
+        log.info("Dunning wheel started with {} persisted timers", loaded);
+        
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        int size = Math.max(1, batchSize);
+        // Due keys are collected first and dispatched once the wheel is done, since dispatch
+        // blocks and the wheel's callback cannot
+        long[][] due = {new long[size]};
+        int[] count = new int[1];
+        while (running) {
+            try {
+                DunningTimers timers;
+                while ((timers = queue.poll()) != null) {
+                    for (int i = 0; i < timers.getSize(); i++) {
+                        wheel.schedule(timers.getKeys()[i], timers.getDeadlines()[i]);
+                    }
+                }
+                
+                count[0] = 0;
+                wheel.advance(System.currentTimeMillis(), key -> {
+                    if (count[0] == due[0].length) {
+                        due[0] = Arrays.copyOf(due[0], due[0].length * 2);
+                    }
+                    due[0][count[0]++] = key;
+                });
+                pendingTimers.set(wheel.size());
+                for (int from = 0; from < count[0]; from += size) {
+                    dispatch(Arrays.copyOfRange(due[0], from, Math.min(count[0], from + size)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Dunning wheel iteration failed", e);
+            }
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+    
+    private long load(TimingWheel wheel) {
+        long loaded = 0;
+        long afterId = Long.MIN_VALUE;
+        try {
+            List<DunningScheduleRepository.TimerView> page;
+            do {
+                page = scheduleRepository.findTimersAfter(DunningSchedule.Status.ACTIVE, afterId, PageRequest.of(0, loadPageSize));
+                for (DunningScheduleRepository.TimerView timer : page) {
+                    wheel.schedule(timer.getId(), toMillis(timer.getNextAttemptAt()));
+                    afterId = timer.getId();
+                }
+                loaded += page.size();
+            } while (page.size() == loadPageSize && running);
+        } catch (RuntimeException e) {
+            log.error("Could not reload dunning schedules after {} timers", loaded, e);
+        }
+        pendingTimers.set(wheel.size());
+        return loaded;
+    }
+    
+    // Blocks the wheel thread while workers are saturated; due timers simply wait in the batch
+    private void dispatch(long[] keys) throws InterruptedException {
+        inFlight.acquire();
+        firedCounter.increment(keys.length);
+        try {
+            workerPool.execute(() -> fire(keys));
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+    
+    private void fire(long[] keys) {
+        try {
+            DunningTimers next = transactionTemplate.execute(status -> process(keys));
+            if (next != null && !next.isEmpty()) {
+                queue.offer(next);
+            }
+        } catch (RuntimeException e) {
+            // Nothing was committed; put the whole batch back on the wheel after a pause
+            log.warn("Dunning batch of {} failed, retrying in {} ms: {}", keys.length, failureBackoffMillis, e.getMessage());
+            DunningTimers retry = new DunningTimers(keys.length);
+            long deadline = System.currentTimeMillis() + failureBackoffMillis;
+            for (long key : keys) {
+                retry.add(key, deadline);
+            }
+            queue.offer(retry);
+        } finally {
+            inFlight.release();
+        }
+    }
+    
+    private DunningTimers process(long[] keys) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = Arrays.stream(keys).boxed().collect(Collectors.toList());
+        DunningTimers next = new DunningTimers(keys.length);
+        List<DunningSchedule> retries = new ArrayList<>();
+        List<DunningSchedule> reminders = new ArrayList<>();
+        
+        for (DunningSchedule schedule : scheduleRepository.findByIdInAndStatus(ids, DunningSchedule.Status.ACTIVE)) {
+            // Moved later since this timer was set, e.g. re-enrolled after a fresh failure
+            if (schedule.getNextAttemptAt().isAfter(now)) {
+                next.add(schedule.getId(), toMillis(schedule.getNextAttemptAt()));
+            } else if (schedule.getKind() == DunningSchedule.Kind.PAYMENT_RETRY) {
+                retries.add(schedule);
+            } else {
+                reminders.add(schedule);
+            }
+        }
+        
+        List<DunningNotice> notices = new ArrayList<>();
+        if (!retries.isEmpty()) {
+            retryPayments(retries, now, next, notices);
+        }
+        if (!reminders.isEmpty()) {
+            remindOverdue(reminders, now, next, notices);
+        }
+        if (!notices.isEmpty()) {
+            notifier.notify(notices);
+            noticesCounter.increment(notices.size());
+        }
+        return next;
+    }
+    
+    private void retryPayments(List<DunningSchedule> schedules, LocalDateTime now, DunningTimers next, List<DunningNotice> notices) {
+        Map<Long, Order> attempted = orderService.retryFailedPayments(schedules.stream()
+                        .map(DunningSchedule::getTargetId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        
+        for (DunningSchedule schedule : schedules) {
+            Order order = attempted.get(schedule.getTargetId());
+            if (order == null) {
+                // Paid by the customer or cancelled since the last attempt
+                resolve(schedule);
+                continue;
+            }
+            schedule.setAttempt(schedule.getAttempt() + 1);
+            DunningNotice.Type type;
+            if (order.getPaymentStatus() == Order.PaymentStatus.COMPLETED) {
+                resolve(schedule);
+                recoveredCounter.increment();
+                type = DunningNotice.Type.PAYMENT_RECOVERED;
+            } else if (advance(schedule, now, next)) {
+                type = DunningNotice.Type.PAYMENT_RETRY_FAILED;
+            } else {
+                type = DunningNotice.Type.PAYMENT_RETRY_EXHAUSTED;
+            }
+            notices.add(notice(schedule, type, order.getOrderNumber(), order.getTotal()));
+        }
+    }
+    
+    private void remindOverdue(List<DunningSchedule> schedules, LocalDateTime now, DunningTimers next, List<DunningNotice> notices) {
+        Map<Long, BillingRecord> bills = billingRepository.findAllById(schedules.stream()
+                        .map(DunningSchedule::getTargetId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(BillingRecord::getId, Function.identity()));
+        
+        for (DunningSchedule schedule : schedules) {
+            BillingRecord bill = bills.get(schedule.getTargetId());
+            if (bill == null || bill.getStatus() != BillingRecord.BillingStatus.OVERDUE) {
+                resolve(schedule);
+                continue;
+            }
+            schedule.setAttempt(schedule.getAttempt() + 1);
+            DunningNotice.Type type = advance(schedule, now, next)
+                    ? DunningNotice.Type.OVERDUE_REMINDER
+                    : DunningNotice.Type.OVERDUE_FINAL_NOTICE;
+            notices.add(notice(schedule, type, bill.getInvoiceNumber(), bill.getTotalAmount()));
+        }
+    }
+    
+    // Moves the schedule to its next attempt, or marks it exhausted when the policy has no more
+    private boolean advance(DunningSchedule schedule, LocalDateTime now, DunningTimers next) {
+        Duration delay = dunningPolicy.delay(schedule.getKind(), schedule.getAttempt());
+        if (delay == null) {
+            schedule.setStatus(DunningSchedule.Status.EXHAUSTED);
+            exhaustedCounter.increment();
+            return false;
+        }
+        schedule.setNextAttemptAt(now.plus(delay));
+        next.add(schedule.getId(), toMillis(schedule.getNextAttemptAt()));
+        return true;
+    }
+    
+    private void resolve(DunningSchedule schedule) {
+        schedule.setStatus(DunningSchedule.Status.RESOLVED);
+        resolvedCounter.increment();
+    }
+    
+    private DunningNotice notice(DunningSchedule schedule, DunningNotice.Type type, String reference, BigDecimal amount) {
+        return DunningNotice.builder()
+                .type(type)
+                .userId(schedule.getUserId())
+                .targetId(schedule.getTargetId())
+                .reference(reference)
+                .amount(amount)
+                .attempt(schedule.getAttempt())
+                .nextAttemptAt(schedule.getStatus() == DunningSchedule.Status.ACTIVE ? schedule.getNextAttemptAt() : null)
+                .build();
+    }
+    
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+    
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,315 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.BulkOrderStatusRequest;
+import com.telecom.enterprise.backend.dto.BulkOrderStatusResponse;
+import com.telecom.enterprise.backend.dto.FulfillmentStatsDTO;
+import com.telecom.enterprise.backend.entity.FulfillmentCheckpoint;
+import com.telecom.enterprise.backend.entity.Order;
+import com.telecom.enterprise.backend.repository.FulfillmentCheckpointRepository;
+import com.telecom.enterprise.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FulfillmentProcessor {
+    
+    private static final Map<Order.OrderStatus, Order.OrderStatus> FULFILLMENT_FLOW = new EnumMap<>(Map.of(
+            Order.OrderStatus.CONFIRMED, Order.OrderStatus.PROCESSING,
+            Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED));
+    
+    private final OrderRepository orderRepository;
+    private final FulfillmentCheckpointRepository checkpointRepository;
+    private final OrderService orderService;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.fulfillment.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.fulfillment.page-size:1000}")
+    private int pageSize;
+    
+    @Value("${app.fulfillment.workers:4}")
+    private int workers;
+    
+    @Value("${app.fulfillment.max-in-flight-pages:8}")
+    private int maxInFlightPages;
+    
+    private final Map<Order.OrderStatus, RunState> runs = new EnumMap<>(Order.OrderStatus.class);
+    private ExecutorService workerPool;
+    private ExecutorService coordinator;
+    
+    @PostConstruct
+    void init() {
+        workerPool = Executors.newFixedThreadPool(Math.max(1, workers), namedThreads("fulfillment-worker-"));
+        coordinator = Executors.newSingleThreadExecutor(namedThreads("fulfillment-coordinator-"));
+        
+        FULFILLMENT_FLOW.keySet().forEach(source -> {
+            RunState state = new RunState();
+            runs.put(source, state);
+            Gauge.builder("fulfillment.lag", state, s -> s.lagSeconds)
+                    .description("Age of the oldest order in the page currently being fulfilled")
+                    .baseUnit("seconds")
+                    .tag("status", source.name())
+                    .register(meterRegistry);
+        });
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workerPool.shutdownNow();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.fulfillment.interval-ms:60000}",
+               initialDelayString = "${app.fulfillment.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        FULFILLMENT_FLOW.keySet().forEach(this::run);
+    }
+    
+    public FulfillmentStatsDTO runAsync(Order.OrderStatus source) {
+        requireStep(source);
+        coordinator.execute(() -> run(source));
+        return getStats(source);
+    }
+    
+    public FulfillmentStatsDTO run(Order.OrderStatus source) {
+        Order.OrderStatus target = requireStep(source);
+        RunState state = runs.get(source);
+        
+        if (!state.running.compareAndSet(false, true)) {
+            log.info("Fulfillment run for {} orders already in progress", source);
+            return getStats(source);
+        }
+        
+        try {
+            process(source, target, state);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Fulfillment run for {} orders interrupted at order {}", source, state.lastOrderId);
+        } catch (RuntimeException e) {
+            log.error("Fulfillment run for {} orders failed: {}", source, e.getMessage(), e);
+        } finally {
+            state.running.set(false);
+        }
+        return getStats(source);
+    }
+    
+    public List<FulfillmentStatsDTO> getAllStats() {
+        return FULFILLMENT_FLOW.keySet().stream()
+                .map(this::getStats)
+                .collect(Collectors.toList());
+    }
+    
+    public FulfillmentStatsDTO getStats(Order.OrderStatus source) {
+        RunState state = runs.get(source);
+        LocalDateTime startedAt = state.startedAt;
+        LocalDateTime endedAt = state.completedAt != null ? state.completedAt : LocalDateTime.now();
+        long elapsedMillis = startedAt != null ? Duration.between(startedAt, endedAt).toMillis() : 0;
+        
+        return FulfillmentStatsDTO.builder()
+                .sourceStatus(source.name())
+                .targetStatus(FULFILLMENT_FLOW.get(source).name())
+                .running(state.running.get())
+                .lastOrderId(state.lastOrderId)
+                .processed(state.processed.get())
+                .failed(state.failed.get())
+                .lagSeconds(state.lagSeconds)
+                .ordersPerSecond(elapsedMillis > 0 ? state.processed.get() * 1000.0 / elapsedMillis : 0)
+                .startedAt(startedAt)
+                .completedAt(state.completedAt)
+                .build();
+    }
+    
+    private void process(Order.OrderStatus source, Order.OrderStatus target, RunState state) throws InterruptedException {
+        FulfillmentCheckpoint checkpoint = checkpointRepository.findById(source.name())
+                .filter(existing -> !existing.isCompleted())
+                .orElseGet(() -> FulfillmentCheckpoint.builder()
+                        .sourceStatus(source.name())
+                        .lastOrderId(0L)
+                        .startedAt(LocalDateTime.now())
+                        .build());
+        checkpoint.setCompleted(false);
+        checkpoint.setCompletedAt(null);
+        checkpointRepository.save(checkpoint);
+        
+        state.reset(checkpoint.getLastOrderId());
+        log.info("Fulfillment run {} -> {} starting after order {}", source, target, checkpoint.getLastOrderId());
+        
+        CheckpointTracker tracker = new CheckpointTracker(checkpoint, state);
+        Semaphore inFlight = new Semaphore(Math.max(1, maxInFlightPages));
+        Timer pageTimer = meterRegistry.timer("fulfillment.page", "status", source.name());
+        Counter updated = meterRegistry.counter("fulfillment.orders", "status", source.name(), "outcome", "updated");
+        Counter failed = meterRegistry.counter("fulfillment.orders", "status", source.name(), "outcome", "failed");
+        
+        long cursor = checkpoint.getLastOrderId();
+        long sequence = 0;
+        List<OrderRepository.OrderCursorView> page;
+        
+        do {
+            page = orderRepository.findCursorPage(source, cursor, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            
+            state.lagSeconds = Duration.between(page.get(0).getCreatedAt(), LocalDateTime.now()).toSeconds();
+            cursor = page.get(page.size() - 1).getId();
+            
+            List<Long> orderIds = page.stream()
+                    .map(OrderRepository.OrderCursorView::getId)
+                    .collect(Collectors.toList());
+            long pageSequence = sequence++;
+            long pageEnd = cursor;
+            
+            // Blocks the reader once max-in-flight pages are queued so memory stays bounded
+            inFlight.acquire();
+            try {
+                workerPool.execute(() -> {
+                    try {
+                        BulkOrderStatusResponse response = pageTimer.record(() -> transition(orderIds, target));
+                        updated.increment(response.getUpdated());
+                        failed.increment(response.getFailed());
+                        tracker.complete(pageSequence, pageEnd, response.getUpdated(), response.getFailed());
+                    } catch (RuntimeException e) {
+                        log.error("Fulfillment page ending at order {} failed: {}", pageEnd, e.getMessage());
+                        failed.increment(orderIds.size());
+                        tracker.fail(pageSequence, orderIds.size());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                throw e;
+            }
+        } while (page.size() == pageSize);
+        
+        inFlight.acquire(Math.max(1, maxInFlightPages));
+        inFlight.release(Math.max(1, maxInFlightPages));
+        
+        tracker.finish();
+        state.lagSeconds = 0;
+        log.info("Fulfillment run {} -> {} finished: {} updated, {} failed",
+                source, target, state.processed.get(), state.failed.get());
+    }
+    
+    private BulkOrderStatusResponse transition(List<Long> orderIds, Order.OrderStatus target) {
+        return orderService.bulkUpdateOrderStatus(BulkOrderStatusRequest.builder()
+                .orderIds(orderIds)
+                .status(target.name())
+                .build());
+    }
+    
+    private Order.OrderStatus requireStep(Order.OrderStatus source) {
+        Order.OrderStatus target = FULFILLMENT_FLOW.get(source);
+        if (target == null) {
+            throw new IllegalArgumentException("No fulfillment step for status " + source);
+        }
+        return target;
+    }
+    
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static class RunState {
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long lastOrderId;
+        private volatile long lagSeconds;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        
+        void reset(long resumeAfter) {
+            processed.set(0);
+            failed.set(0);
+            lastOrderId = resumeAfter;
+            startedAt = LocalDateTime.now();
+            completedAt = null;
+        }
+    }
+    
+    // Pages finish out of order on the worker pool, so the checkpoint only advances over
+    // the contiguous prefix of completed pages; a restart re-reads at most the in-flight pages.
+    // A page whose transition threw never completes: the checkpoint stays just before the first
+    // such page and the run is left open, so the next run resumes there and retries it.
+    private class CheckpointTracker {
+        private final FulfillmentCheckpoint checkpoint;
+        private final RunState state;
+        private final Map<Long, Long> completedPages = new HashMap<>();
+        private long nextSequence;
+        private long firstFailedSequence = Long.MAX_VALUE;
+        
+        CheckpointTracker(FulfillmentCheckpoint checkpoint, RunState state) {
+            this.checkpoint = checkpoint;
+            this.state = state;
+        }
+        
+        synchronized void complete(long sequence, long pageEnd, int updated, int failed) {
+            state.processed.addAndGet(updated);
+            state.failed.addAndGet(failed);
+            if (sequence > firstFailedSequence) {
+                // The watermark can no longer get this far
+                return;
+            }
+            completedPages.put(sequence, pageEnd);
+            
+            Long watermark = null;
+            while (completedPages.containsKey(nextSequence)) {
+                watermark = completedPages.remove(nextSequence++);
+            }
+            if (watermark != null) {
+                checkpoint.setLastOrderId(watermark);
+                state.lastOrderId = watermark;
+                checkpointRepository.save(checkpoint);
+            }
+        }
+        
+        synchronized void fail(long sequence, int orders) {
+            state.failed.addAndGet(orders);
+            firstFailedSequence = Math.min(firstFailedSequence, sequence);
+            completedPages.keySet().removeIf(completed -> completed > firstFailedSequence);
+        }
+        
+        synchronized void finish() {
+            state.completedAt = LocalDateTime.now();
+            if (firstFailedSequence != Long.MAX_VALUE) {
+                log.warn("Fulfillment run for {} orders left open at order {} after a failed page",
+                        checkpoint.getSourceStatus(), checkpoint.getLastOrderId());
+                return;
+            }
+            checkpoint.setCompleted(true);
+            checkpoint.setCompletedAt(state.completedAt);
+            checkpointRepository.save(checkpoint);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.entity.BillingRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk invoice retrieval for the ERP over SOAP 1.1. Both directions use StAX rather than a
+// JAXB tree: the request is a handful of filter elements read off the stream, and the
+// response is written element by element from a forward-only cursor, so a 100k-invoice
+// envelope costs the same memory as a 10-invoice one.
+@Service
+@RequiredArgsConstructor
+public class InvoiceSoapService {
+    
+    public static final String SOAP_NS = "http://schemas.xmlsoap.org/soap/envelope/";
+    public static final String BILLING_NS = "http://telecom.enterprise.com/billing";
+    
+    private static final String SELECT_SQL =
+            "SELECT id, invoice_number, user_id, billing_date, due_date, paid_date, description, billing_type, " +
+            "status, amount, tax, total_amount, payment_method FROM billing_records WHERE 1 = 1";
+    
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${app.billing.soap.fetch-size:500}")
+    private int fetchSize;
+    
+    @Value("${app.billing.soap.max-results:100000}")
+    private int maxResults;
+    
+    public record InvoiceQuery(Long userId, BillingRecord.BillingStatus status, LocalDate from, LocalDate to, int limit) {
+    }
+    
+    // Raised for requests the service cannot answer; the controller turns it into a soap:Fault
+    public static class SoapFaultException extends RuntimeException {
+        private final boolean clientFault;
+        
+        public SoapFaultException(String message, boolean clientFault) {
+            super(message);
+            this.clientFault = clientFault;
+        }
+        
+        public String getFaultCode() {
+            return clientFault ? "soap:Client" : "soap:Server";
+        }
+    }
+    
+    public InvoiceQuery readRequest(InputStream body) {
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(body);
+            try {
+                return readRequest(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new SoapFaultException("Malformed request: " + e.getMessage(), true);
+        }
+    }
+    
+    private InvoiceQuery readRequest(XMLStreamReader reader) throws XMLStreamException {
+        if (!nextElement(reader) || !SOAP_NS.equals(reader.getNamespaceURI()) || !"Envelope".equals(reader.getLocalName())) {
+            throw new SoapFaultException("Expected a SOAP 1.1 Envelope", true);
+        }
+        // Skip any Header and find the operation element inside Body
+        while (nextElement(reader)) {
+            if (SOAP_NS.equals(reader.getNamespaceURI()) && "Body".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+        if (!nextElement(reader)) {
+            throw new SoapFaultException("Empty SOAP Body", true);
+        }
+        if (!BILLING_NS.equals(reader.getNamespaceURI()) || !"GetInvoicesRequest".equals(reader.getLocalName())) {
+            throw new SoapFaultException("Unsupported operation {" + reader.getNamespaceURI() + "}" + reader.getLocalName(), true);
+        }
+        
+        Long userId = null;
+        BillingRecord.BillingStatus status = null;
+        LocalDate from = null;
+        LocalDate to = null;
+        int limit = maxResults;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                String value = reader.getElementText().trim();
+                try {
+                    switch (name) {
+                        case "userId" -> userId = Long.valueOf(value);
+                        case "status" -> status = BillingRecord.BillingStatus.valueOf(value.toUpperCase());
+                        case "fromDate" -> from = LocalDate.parse(value);
+                        case "toDate" -> to = LocalDate.parse(value);
+                        case "maxResults" -> limit = Integer.parseInt(value);
+                        default -> throw new SoapFaultException("Unknown element " + name, true);
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    throw new SoapFaultException("Invalid " + name + ": " + value, true);
+                }
+            }
+        }
+        if (limit <= 0 || limit > maxResults) {
+            throw new SoapFaultException("maxResults must be between 1 and " + maxResults, true);
+        }
+        return new InvoiceQuery(userId, status, from, to, limit);
+    }
+    
+    public void writeInvoices(InvoiceQuery query, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        try {
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(buffered, StandardCharsets.UTF_8.name());
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeStartElement("soap", "Envelope", SOAP_NS);
+            writer.writeNamespace("soap", SOAP_NS);
+            writer.writeNamespace("bil", BILLING_NS);
+            writer.writeStartElement("soap", "Body", SOAP_NS);
+            writer.writeStartElement("bil", "GetInvoicesResponse", BILLING_NS);
+            
+            long count = streamRows(query, writer);
+            
+            writer.writeStartElement("bil", "count", BILLING_NS);
+            writer.writeCharacters(Long.toString(count));
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e);
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download; nothing left to write to
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+    
+    public void writeFault(SoapFaultException fault, OutputStream out) throws IOException {
+        try {
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeStartElement("soap", "Envelope", SOAP_NS);
+            writer.writeNamespace("soap", SOAP_NS);
+            writer.writeStartElement("soap", "Body", SOAP_NS);
+            writer.writeStartElement("soap", "Fault", SOAP_NS);
+            writer.writeStartElement("faultcode");
+            writer.writeCharacters(fault.getFaultCode());
+            writer.writeEndElement();
+            writer.writeStartElement("faultstring");
+            writer.writeCharacters(fault.getMessage());
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        out.flush();
+    }
+    
+    private long streamRows(InvoiceQuery query, XMLStreamWriter writer) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        if (query.userId() != null) {
+            sql.append(" AND user_id = ?");
+            params.add(query.userId());
+        }
+        if (query.status() != null) {
+            sql.append(" AND status = ?");
+            params.add(query.status().name());
+        }
+        if (query.from() != null) {
+            sql.append(" AND billing_date >= ?");
+            params.add(Date.valueOf(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND billing_date <= ?");
+            params.add(Date.valueOf(query.to()));
+        }
+        sql.append(" ORDER BY id");
+        
+        long[] count = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setMaxRows(query.limit());
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                writeInvoice(rs, writer);
+                count[0]++;
+            } catch (XMLStreamException e) {
+                throw new UncheckedIOException(new IOException(e));
+            }
+        });
+        return count[0];
+    }
+    
+    private void writeInvoice(ResultSet rs, XMLStreamWriter writer) throws SQLException, XMLStreamException {
+        writer.writeStartElement("bil", "invoice", BILLING_NS);
+        element(writer, "id", rs.getString("id"));
+        element(writer, "invoiceNumber", rs.getString("invoice_number"));
+        element(writer, "userId", rs.getString("user_id"));
+        element(writer, "billingDate", rs.getString("billing_date"));
+        element(writer, "dueDate", rs.getString("due_date"));
+        element(writer, "paidDate", rs.getString("paid_date"));
+        element(writer, "description", rs.getString("description"));
+        element(writer, "billingType", rs.getString("billing_type"));
+        element(writer, "status", rs.getString("status"));
+        element(writer, "amount", rs.getString("amount"));
+        element(writer, "tax", rs.getString("tax"));
+        element(writer, "totalAmount", rs.getString("total_amount"));
+        element(writer, "paymentMethod", rs.getString("payment_method"));
+        writer.writeEndElement();
+    }
+    
+    // Optional values are omitted rather than written empty, matching minOccurs="0" in the WSDL
+    private static void element(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+        writer.writeStartElement("bil", name, BILLING_NS);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+    
+    private static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Requests come from outside; no DTDs or external entities
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+}
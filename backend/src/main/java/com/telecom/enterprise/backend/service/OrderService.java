@@ -1,18 +1,24 @@
 package com.telecom.enterprise.backend.service;
 
+import com.telecom.enterprise.backend.analytics.OrderSalesEvent;
 import com.telecom.enterprise.backend.dto.*;
 import com.telecom.enterprise.backend.entity.*;
+import com.telecom.enterprise.backend.pricing.Money;
+import com.telecom.enterprise.backend.pricing.PricingPolicy;
 import com.telecom.enterprise.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,12 +27,27 @@ import java.util.stream.Collectors;
 public class OrderService {
     
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PricingPolicy pricing;
+    private final DunningScheduleWriter dunningScheduleWriter;
     
-    private static final BigDecimal TAX_RATE = new BigDecimal("0.08");
-    private static final BigDecimal SHIPPING_COST = new BigDecimal("9.99");
+    @Value("${app.orders.bulk-status.chunk-size:500}")
+    private int bulkStatusChunkSize;
+    
+    private static final String CARRIER = "Enterprise Express";
+    
+    // Guarded on the previous status so a concurrent transition makes the row report zero updates
+    private static final String BULK_STATUS_SQL =
+            "UPDATE orders SET status = ?, " +
+            "tracking_number = COALESCE(?, tracking_number), carrier = COALESCE(?, carrier), " +
+            "shipped_at = COALESCE(?, shipped_at), delivered_at = COALESCE(?, delivered_at), " +
+            "updated_at = ? WHERE id = ? AND status = ?";
     
     @Transactional
     public OrderDTO createOrder(CreateOrderRequest request) {
@@ -70,20 +91,21 @@ public class OrderService {
         }
         
         // Calculate totals
-        BigDecimal subtotal = BigDecimal.ZERO;
+        Money subtotal = pricing.zero();
         
         for (OrderItemRequest itemRequest : request.getItems()) {
             Product product = productRepository.findById(itemRequest.getProductId())
                     .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
             
-            BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            subtotal = subtotal.add(itemTotal);
+            Money unitPrice = pricing.money(product.getPrice());
+            Money itemTotal = unitPrice.times(itemRequest.getQuantity());
+            subtotal = subtotal.plus(itemTotal);
             
             OrderItem orderItem = OrderItem.builder()
                     .product(product)
                     .quantity(itemRequest.getQuantity())
-                    .unitPrice(product.getPrice())
-                    .totalPrice(itemTotal)
+                    .unitPrice(unitPrice.toBigDecimal())
+                    .totalPrice(itemTotal.toBigDecimal())
                     .productName(product.getName())
                     .productSku(product.getSku())
                     .build();
@@ -91,16 +113,18 @@ public class OrderService {
             order.addItem(orderItem);
         }
         
-        BigDecimal tax = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal total = subtotal.add(tax).add(SHIPPING_COST);
+        Money tax = pricing.tax(subtotal);
+        Money total = subtotal.plus(tax).plus(pricing.shipping());
         
-        order.setSubtotal(subtotal);
-        order.setTax(tax);
-        order.setShipping(SHIPPING_COST);
-        order.setDiscount(BigDecimal.ZERO);
-        order.setTotal(total);
+        order.setSubtotal(subtotal.toBigDecimal());
+        order.setTax(tax.toBigDecimal());
+        order.setShipping(pricing.shipping().toBigDecimal());
+        order.setDiscount(pricing.zero().toBigDecimal());
+        order.setTotal(total.toBigDecimal());
         
         order = orderRepository.save(order);
+        outboxService.recordOrderEvent(order, OutboxEvent.EventType.ORDER_CREATED);
+        eventPublisher.publishEvent(OrderSalesEvent.of(order));
         
         // Clear user's cart after order
         cartRepository.findByUserId(user.getId()).ifPresent(cart -> {
@@ -131,6 +155,45 @@ public class OrderService {
                 .orElse(List.of());
     }
     
+    // GraphQL reads orders without their items and resolves Order.items for the whole result
+    // with getItemsByOrderIds, so a list of orders costs one statement per level, not per order
+    public OrderDTO getOrderSummaryById(Long orderId) {
+        return orderRepository.findById(orderId)
+                .map(this::toSummaryDTO)
+                .orElse(null);
+    }
+    
+    public OrderDTO getOrderSummaryByNumber(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber)
+                .map(this::toSummaryDTO)
+                .orElse(null);
+    }
+    
+    public Map<Long, List<OrderDTO>> getOrderSummariesByUserIds(Collection<Long> userIds) {
+        Map<Long, List<OrderDTO>> orders = new HashMap<>();
+        for (Order order : orderRepository.findByUserIdInOrderByCreatedAtDesc(userIds)) {
+            orders.computeIfAbsent(order.getUser().getId(), id -> new ArrayList<>()).add(toSummaryDTO(order));
+        }
+        return orders;
+    }
+    
+    public Map<Long, List<OrderItemDTO>> getItemsByOrderIds(Collection<Long> orderIds) {
+        Map<Long, List<OrderItemDTO>> items = new HashMap<>();
+        for (OrderItemRepository.OrderItemView item : orderItemRepository.findViewsByOrderIdIn(orderIds)) {
+            items.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(OrderItemDTO.builder()
+                    .id(item.getId())
+                    .productId(item.getProductId())
+                    .productName(item.getProductName())
+                    .productSku(item.getProductSku())
+                    .productImage(item.getProductImage())
+                    .quantity(item.getQuantity())
+                    .unitPrice(item.getUnitPrice())
+                    .totalPrice(item.getTotalPrice())
+                    .build());
+        }
+        return items;
+    }
+    
     public OrderDTO trackOrder(String trackingNumber) {
         return orderRepository.findByTrackingNumber(trackingNumber)
                 .map(this::toDTO)
@@ -144,16 +207,202 @@ public class OrderService {
                     order.setStatus(Order.OrderStatus.valueOf(status));
                     if (status.equals("SHIPPED")) {
                         order.setShippedAt(LocalDateTime.now());
-                        order.setTrackingNumber("TRK-" + UUID.randomUUID().toString().substring(0, 10).toUpperCase());
-                        order.setCarrier("Enterprise Express");
+                        order.setTrackingNumber(generateTrackingNumber());
+                        order.setCarrier(CARRIER);
                     } else if (status.equals("DELIVERED")) {
                         order.setDeliveredAt(LocalDateTime.now());
                     }
-                    return toDTO(orderRepository.save(order));
+                    Order saved = orderRepository.save(order);
+                    outboxService.recordOrderEvent(saved, OutboxEvent.EventType.ORDER_STATUS_CHANGED);
+                    return toDTO(saved);
                 })
                 .orElse(null);
     }
     
+    @Transactional
+    public BulkOrderStatusResponse bulkUpdateOrderStatus(BulkOrderStatusRequest request) {
+        List<Long> orderIds = request.getOrderIds() != null ? request.getOrderIds() : List.of();
+        List<String> orderNumbers = request.getOrderNumbers() != null ? request.getOrderNumbers() : List.of();
+        log.info("Bulk status transition to {} for {} orders", request.getStatus(), orderIds.size() + orderNumbers.size());
+        
+        List<OrderStatusUpdateResult> results = new ArrayList<>(orderIds.size() + orderNumbers.size());
+        Order.OrderStatus target = parseStatus(request.getStatus());
+        
+        if (target == null) {
+            String message = "Unknown status: " + request.getStatus();
+            orderIds.forEach(id -> results.add(failure(id, null, null, message)));
+            orderNumbers.forEach(number -> results.add(failure(null, number, null, message)));
+            return summarize(request.getStatus(), results);
+        }
+        
+        Set<Long> seen = new HashSet<>();
+        
+        for (List<Long> chunk : partition(orderIds,
+                id -> results.add(failure(id, null, null, "Duplicate order reference, skipped")))) {
+            Map<Long, OrderRepository.OrderStatusView> found = orderRepository.findStatusViewsByIdIn(chunk).stream()
+                    .collect(Collectors.toMap(OrderRepository.OrderStatusView::getId, Function.identity()));
+            List<OrderRepository.OrderStatusView> orders = new ArrayList<>(chunk.size());
+            for (Long id : chunk) {
+                OrderRepository.OrderStatusView order = found.get(id);
+                if (order == null) {
+                    results.add(failure(id, null, null, "Order not found"));
+                } else {
+                    orders.add(order);
+                }
+            }
+            applyTransitions(orders, target, seen, results);
+        }
+        
+        for (List<String> chunk : partition(orderNumbers,
+                number -> results.add(failure(null, number, null, "Duplicate order reference, skipped")))) {
+            Map<String, OrderRepository.OrderStatusView> found = orderRepository.findStatusViewsByOrderNumberIn(chunk).stream()
+                    .collect(Collectors.toMap(OrderRepository.OrderStatusView::getOrderNumber, Function.identity()));
+            List<OrderRepository.OrderStatusView> orders = new ArrayList<>(chunk.size());
+            for (String number : chunk) {
+                OrderRepository.OrderStatusView order = found.get(number);
+                if (order == null) {
+                    results.add(failure(null, number, null, "Order not found"));
+                } else {
+                    orders.add(order);
+                }
+            }
+            applyTransitions(orders, target, seen, results);
+        }
+        
+        BulkOrderStatusResponse response = summarize(target.name(), results);
+        log.info("Bulk status transition to {} finished: {} updated, {} failed", 
+                target, response.getUpdated(), response.getFailed());
+        return response;
+    }
+    
+    private void applyTransitions(List<OrderRepository.OrderStatusView> orders, Order.OrderStatus target,
+                                  Set<Long> seen, List<OrderStatusUpdateResult> results) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatusUpdateResult> applied = new ArrayList<>(orders.size());
+        List<Object[]> batchArgs = new ArrayList<>(orders.size());
+        
+        for (OrderRepository.OrderStatusView order : orders) {
+            Order.OrderStatus current = order.getStatus();
+            if (!seen.add(order.getId())) {
+                results.add(failure(order.getId(), order.getOrderNumber(), current, "Duplicate order reference"));
+                continue;
+            }
+            if (!current.canTransitionTo(target)) {
+                results.add(failure(order.getId(), order.getOrderNumber(), current,
+                        "Transition " + current + " -> " + target + " is not allowed"));
+                continue;
+            }
+            
+            String trackingNumber = target == Order.OrderStatus.SHIPPED ? generateTrackingNumber() : null;
+            batchArgs.add(new Object[] {
+                    target.name(),
+                    trackingNumber,
+                    trackingNumber != null ? CARRIER : null,
+                    target == Order.OrderStatus.SHIPPED ? now : null,
+                    target == Order.OrderStatus.DELIVERED ? now : null,
+                    now,
+                    order.getId(),
+                    current.name()
+            });
+            applied.add(OrderStatusUpdateResult.builder()
+                    .orderId(order.getId())
+                    .orderNumber(order.getOrderNumber())
+                    .previousStatus(current.name())
+                    .status(target.name())
+                    .trackingNumber(trackingNumber)
+                    .success(true)
+                    .build());
+        }
+        
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+        
+        int[] counts = jdbcTemplate.batchUpdate(BULK_STATUS_SQL, batchArgs);
+        Map<Long, Map<String, Object>> events = new LinkedHashMap<>();
+        for (int i = 0; i < applied.size(); i++) {
+            OrderStatusUpdateResult result = applied.get(i);
+            if (counts[i] == 0) {
+                result.setSuccess(false);
+                result.setStatus(result.getPreviousStatus());
+                result.setTrackingNumber(null);
+                result.setMessage("Order status changed concurrently");
+            } else {
+                events.put(result.getOrderId(), statusChangePayload(result));
+            }
+            results.add(result);
+        }
+        outboxService.recordOrderEvents(OutboxEvent.EventType.ORDER_STATUS_CHANGED, events);
+    }
+    
+    private Map<String, Object> statusChangePayload(OrderStatusUpdateResult result) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", result.getOrderId());
+        payload.put("orderNumber", result.getOrderNumber());
+        payload.put("previousStatus", result.getPreviousStatus());
+        payload.put("status", result.getStatus());
+        payload.put("trackingNumber", result.getTrackingNumber());
+        if (result.getTrackingNumber() != null) {
+            payload.put("carrier", CARRIER);
+        }
+        return payload;
+    }
+    
+    private Order.OrderStatus parseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return Order.OrderStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    // Repeats of a value already taken are handed to onDuplicate rather than dropped, so every
+    // reference the caller sent shows up in the results
+    private <T> List<List<T>> partition(List<T> values, Consumer<T> onDuplicate) {
+        Set<T> unique = new LinkedHashSet<>();
+        for (T value : values) {
+            if (!unique.add(value)) {
+                onDuplicate.accept(value);
+            }
+        }
+        List<T> distinct = new ArrayList<>(unique);
+        int chunkSize = Math.max(1, bulkStatusChunkSize);
+        List<List<T>> chunks = new ArrayList<>((distinct.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+    
+    private OrderStatusUpdateResult failure(Long orderId, String orderNumber, Order.OrderStatus current, String message) {
+        return OrderStatusUpdateResult.builder()
+                .orderId(orderId)
+                .orderNumber(orderNumber)
+                .previousStatus(current != null ? current.name() : null)
+                .status(current != null ? current.name() : null)
+                .success(false)
+                .message(message)
+                .build();
+    }
+    
+    private BulkOrderStatusResponse summarize(String status, List<OrderStatusUpdateResult> results) {
+        int updated = (int) results.stream().filter(OrderStatusUpdateResult::isSuccess).count();
+        return BulkOrderStatusResponse.builder()
+                .status(status)
+                .requested(results.size())
+                .updated(updated)
+                .failed(results.size() - updated)
+                .results(results)
+                .build();
+    }
+    
+    private String generateTrackingNumber() {
+        return "TRK-" + UUID.randomUUID().toString().substring(0, 10).toUpperCase();
+    }
+    
     @Transactional
     public PaymentResponse processPayment(PaymentRequest request) {
         log.info("Processing payment for order: {}", request.getOrderId());
@@ -166,7 +415,7 @@ public class OrderService {
         }
         
         // In a real system, this would call a payment gateway
-        Order order = orderRepository.findByOrderNumber(request.getOrderId()).orElse(null);
+        Order order = orderRepository.lockByOrderNumber(request.getOrderId()).orElse(null);
         
         if (order == null) {
             return PaymentResponse.builder()
@@ -176,15 +425,19 @@ public class OrderService {
                     .build();
         }
         
-        // Simulate successful payment (90% success rate for demo)
-        boolean isSuccessful = Math.random() < 0.9;
+        // A client retry, or a dunning retry that settled it while the customer was paying: the
+        // payment already went through, so answer with it again instead of charging twice
+        if (order.getPaymentStatus() == Order.PaymentStatus.COMPLETED) {
+            return PaymentResponse.builder()
+                    .success(true)
+                    .transactionId(order.getTransactionId())
+                    .message("Payment processed successfully")
+                    .status("COMPLETED")
+                    .build();
+        }
         
-        if (isSuccessful) {
-            String transactionId = "TXN-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase();
-            order.setTransactionId(transactionId);
-            order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
-            order.setStatus(Order.OrderStatus.CONFIRMED);
-            orderRepository.save(order);
+        if (authorizePayment()) {
+            String transactionId = completePayment(order);
             
             return PaymentResponse.builder()
                     .success(true)
@@ -195,6 +448,8 @@ public class OrderService {
         } else {
             order.setPaymentStatus(Order.PaymentStatus.FAILED);
             orderRepository.save(order);
+            outboxService.recordOrderEvent(order, OutboxEvent.EventType.PAYMENT_FAILED);
+            dunningScheduleWriter.paymentFailed(order.getId());
             
             return PaymentResponse.builder()
                     .success(false)
@@ -204,23 +459,65 @@ public class OrderService {
         }
     }
     
+    // Re-attempts pending orders whose payment failed and returns them with their new payment
+    // status; cancelled or otherwise settled orders are left out. Dunning retries run in batches
+    // off the request path, so they skip the simulated gateway delay. The orders stay locked until
+    // the caller's transaction ends, so a concurrent customer payment waits and then sees the result.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Order> retryFailedPayments(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<Order> failed = orderRepository.lockByIdIn(orderIds).stream()
+                .filter(order -> order.getPaymentStatus() == Order.PaymentStatus.FAILED
+                        && order.getStatus() == Order.OrderStatus.PENDING)
+                .collect(Collectors.toList());
+        for (Order order : failed) {
+            if (authorizePayment()) {
+                completePayment(order);
+            }
+        }
+        return failed;
+    }
+    
+    // Simulate successful payment (90% success rate for demo)
+    private boolean authorizePayment() {
+        return Math.random() < 0.9;
+    }
+    
+    private String completePayment(Order order) {
+        String transactionId = "TXN-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase();
+        order.setTransactionId(transactionId);
+        order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        orderRepository.save(order);
+        outboxService.recordOrderEvent(order, OutboxEvent.EventType.PAYMENT_COMPLETED);
+        return transactionId;
+    }
+    
     public OrderDTO toDTO(Order order) {
+        OrderDTO dto = toSummaryDTO(order);
+        dto.setItems(order.getItems().stream()
+                .map(item -> OrderItemDTO.builder()
+                        .id(item.getId())
+                        .productId(item.getProduct().getId())
+                        .productName(item.getProductName())
+                        .productSku(item.getProductSku())
+                        .productImage(item.getProduct().getImageUrl())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .totalPrice(item.getTotalPrice())
+                        .build())
+                .collect(Collectors.toList()));
+        return dto;
+    }
+    
+    // Everything but the items; reads no lazy association
+    private OrderDTO toSummaryDTO(Order order) {
         return OrderDTO.builder()
                 .id(order.getId())
                 .orderNumber(order.getOrderNumber())
                 .userId(order.getUser().getId())
-                .items(order.getItems().stream()
-                        .map(item -> OrderItemDTO.builder()
-                                .id(item.getId())
-                                .productId(item.getProduct().getId())
-                                .productName(item.getProductName())
-                                .productSku(item.getProductSku())
-                                .productImage(item.getProduct().getImageUrl())
-                                .quantity(item.getQuantity())
-                                .unitPrice(item.getUnitPrice())
-                                .totalPrice(item.getTotalPrice())
-                                .build())
-                        .collect(Collectors.toList()))
                 .subtotal(order.getSubtotal())
                 .tax(order.getTax())
                 .shipping(order.getShipping())
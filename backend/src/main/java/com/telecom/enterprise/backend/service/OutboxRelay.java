@@ -0,0 +1,132 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.entity.OutboxEvent;
+import com.telecom.enterprise.backend.messaging.OutboxPublisher;
+import com.telecom.enterprise.backend.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+    
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.initial-backoff:PT1S}")
+    private Duration initialBackoff;
+    
+    @Value("${app.outbox.max-backoff:PT10M}")
+    private Duration maxBackoff;
+    
+    @Scheduled(fixedDelayString = "${app.outbox.flush-interval-ms:1000}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        // One pass pages through every pending event by id, so events stuck behind a failing one
+        // never hold up the rest. The blocked set spans pages: an aggregate held back on one page
+        // stays held back on the next.
+        Set<String> blockedAggregates = new HashSet<>();
+        long afterId = 0;
+        while (afterId >= 0) {
+            afterId = relayBatch(afterId, blockedAggregates);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        int purged = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.info("Purged {} published outbox events", purged);
+        }
+    }
+    
+    // Returns the id to continue after, or -1 when the pass is done
+    private long relayBatch(long afterId, Set<String> blockedAggregates) {
+        List<OutboxEvent> batch = outboxEventRepository.findPendingAfter(afterId, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return -1;
+        }
+        
+        // Events arrive in id order; once one event of an aggregate fails or is backing off, later
+        // events of the same aggregate stay unpublished so consumers never see them out of sequence
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> published = new ArrayList<>(batch.size());
+        
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blockedAggregates.contains(aggregate)) {
+                continue;
+            }
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                blockedAggregates.add(aggregate);
+                continue;
+            }
+            try {
+                outboxPublisher.publish(event);
+                published.add(event.getId());
+            } catch (Exception e) {
+                recordFailure(event, aggregate, e, now);
+                blockedAggregates.add(aggregate);
+            }
+        }
+        
+        try {
+            outboxPublisher.flush();
+        } catch (Exception e) {
+            log.warn("Failed to flush outbox publisher: {}", e.getMessage());
+            return -1;
+        }
+        
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, LocalDateTime.now());
+            log.debug("Relayed {} outbox events", published.size());
+        }
+        return batch.size() == batchSize ? batch.get(batch.size() - 1).getId() : -1;
+    }
+    
+    // Exponential backoff between attempts; after the last one the event is dead-lettered, which
+    // releases the later events of its aggregate
+    private void recordFailure(OutboxEvent event, String aggregate, Exception e, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        if (attempts >= maxAttempts) {
+            outboxEventRepository.recordFailure(event.getId(), attempts, null, now, error);
+            log.error("Dead-lettered outbox event {} for {} after {} attempts: {}",
+                    event.getId(), aggregate, attempts, error);
+            return;
+        }
+        long delayMs = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+        outboxEventRepository.recordFailure(event.getId(), attempts, now.plus(Duration.ofMillis(delayMs)), null, error);
+        log.warn("Failed to publish outbox event {} for {} (attempt {}), retrying in {} ms: {}",
+                event.getId(), aggregate, attempts, delayMs, error);
+    }
+}
@@ -0,0 +1,82 @@
+package com.telecom.enterprise.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telecom.enterprise.backend.entity.Order;
+import com.telecom.enterprise.backend.entity.OutboxEvent;
+import com.telecom.enterprise.backend.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+    
+    private static final String ORDER_AGGREGATE = "ORDER";
+    private static final String USER_AGGREGATE = "USER";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    // MANDATORY: events must commit or roll back together with the state change they describe
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderEvent(Order order, OutboxEvent.EventType type) {
+        outboxEventRepository.save(toEvent(ORDER_AGGREGATE, order.getId(), type, orderPayload(order)));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderEvents(OutboxEvent.EventType type, Map<Long, Map<String, Object>> payloadsByOrderId) {
+        if (payloadsByOrderId.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(payloadsByOrderId.size());
+        payloadsByOrderId.forEach((orderId, payload) -> events.add(toEvent(ORDER_AGGREGATE, orderId, type, payload)));
+        outboxEventRepository.saveAll(events);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserEvents(OutboxEvent.EventType type, Map<Long, Map<String, Object>> payloadsByUserId) {
+        if (payloadsByUserId.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(payloadsByUserId.size());
+        payloadsByUserId.forEach((userId, payload) -> events.add(toEvent(USER_AGGREGATE, userId, type, payload)));
+        outboxEventRepository.saveAll(events);
+    }
+    
+    private OutboxEvent toEvent(String aggregateType, Long aggregateId, OutboxEvent.EventType type, Map<String, Object> payload) {
+        try {
+            return OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(type)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event for " + aggregateType + " " + aggregateId, e);
+        }
+    }
+    
+    private Map<String, Object> orderPayload(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("orderNumber", order.getOrderNumber());
+        payload.put("userId", order.getUser().getId());
+        payload.put("status", order.getStatus().name());
+        payload.put("paymentStatus", order.getPaymentStatus().name());
+        payload.put("total", order.getTotal());
+        payload.put("transactionId", order.getTransactionId());
+        payload.put("trackingNumber", order.getTrackingNumber());
+        payload.put("carrier", order.getCarrier());
+        return payload;
+    }
+}
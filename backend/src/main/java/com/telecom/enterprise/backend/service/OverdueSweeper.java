@@ -0,0 +1,174 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.OverdueSweepDTO;
+import com.telecom.enterprise.backend.entity.BillingRecord;
+import com.telecom.enterprise.backend.entity.OutboxEvent;
+import com.telecom.enterprise.backend.repository.BillingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueSweeper {
+    
+    private final BillingRepository billingRepository;
+    private final OutboxService outboxService;
+    private final AccountBalanceService accountBalanceService;
+    private final DunningScheduleWriter dunningScheduleWriter;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.billing.overdue.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.billing.overdue.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${app.billing.overdue.notify-users:true}")
+    private boolean notifyUsers;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile OverdueSweepDTO lastSweep;
+    private TransactionTemplate transactionTemplate;
+    private Counter markedCounter;
+    private Counter notifiedCounter;
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        markedCounter = meterRegistry.counter("billing.overdue.marked");
+        notifiedCounter = meterRegistry.counter("billing.overdue.notifications");
+    }
+    
+    @Scheduled(cron = "${app.billing.overdue.cron:0 15 0 * * *}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+    
+    public OverdueSweepDTO sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Overdue sweep already in progress");
+            return lastSweep;
+        }
+        
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            LocalDate cutoff = startedAt.toLocalDate();
+            int batches = 0;
+            long marked = 0;
+            long notified = 0;
+            
+            // Marked rows leave PENDING, so each batch re-reads the head of the index range;
+            // a batch that moves nothing means the rest are being changed concurrently
+            while (true) {
+                BatchResult result = transactionTemplate.execute(status -> sweepBatch(cutoff));
+                if (result.selected == 0) {
+                    break;
+                }
+                batches++;
+                marked += result.marked;
+                notified += result.usersNotified;
+                if (result.selected < batchSize || result.marked == 0) {
+                    break;
+                }
+            }
+            
+            LocalDateTime completedAt = LocalDateTime.now();
+            lastSweep = OverdueSweepDTO.builder()
+                    .cutoffDate(cutoff)
+                    .batches(batches)
+                    .marked(marked)
+                    .usersNotified(notified)
+                    .durationMillis(Duration.between(startedAt, completedAt).toMillis())
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .build();
+            log.info("Overdue sweep marked {} billing records in {} batches, notified {} users", marked, batches, notified);
+            return lastSweep;
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    public OverdueSweepDTO getLastSweep() {
+        return lastSweep;
+    }
+    
+    private BatchResult sweepBatch(LocalDate cutoff) {
+        List<BillingRepository.DueRecordView> due = billingRepository.findDueBatch(
+                BillingRecord.BillingStatus.PENDING, cutoff, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        
+        List<Long> ids = due.stream()
+                .map(BillingRepository.DueRecordView::getId)
+                .collect(Collectors.toList());
+        int marked = billingRepository.transitionStatus(ids,
+                BillingRecord.BillingStatus.PENDING, BillingRecord.BillingStatus.OVERDUE, LocalDateTime.now());
+        markedCounter.increment(marked);
+        if (marked == 0) {
+            return new BatchResult(due.size(), 0, 0);
+        }
+        
+        // Records paid between the read and the update were skipped by the status guard
+        if (marked < ids.size()) {
+            Set<Long> overdue = new HashSet<>(billingRepository.findIdsByIdInAndStatus(ids, BillingRecord.BillingStatus.OVERDUE));
+            due = due.stream()
+                    .filter(record -> overdue.contains(record.getId()))
+                    .collect(Collectors.toList());
+        }
+        
+        accountBalanceService.invoicesOverdue(due.stream()
+                .collect(Collectors.groupingBy(BillingRepository.DueRecordView::getUserId,
+                        Collectors.reducing(BigDecimal.ZERO, BillingRepository.DueRecordView::getTotalAmount, BigDecimal::add))));
+        dunningScheduleWriter.billsOverdue(due.stream()
+                .map(BillingRepository.DueRecordView::getId)
+                .collect(Collectors.toList()));
+        if (!notifyUsers) {
+            return new BatchResult(ids.size(), marked, 0);
+        }
+        
+        Map<Long, Map<String, Object>> notifications = new LinkedHashMap<>();
+        due.stream()
+                .collect(Collectors.groupingBy(BillingRepository.DueRecordView::getUserId, LinkedHashMap::new, Collectors.toList()))
+                .forEach((userId, records) -> {
+                    Map<String, Object> payload = new LinkedHashMap<>();
+                    payload.put("userId", userId);
+                    payload.put("invoices", records.stream()
+                            .map(BillingRepository.DueRecordView::getInvoiceNumber)
+                            .collect(Collectors.toList()));
+                    payload.put("totalOverdue", records.stream()
+                            .map(BillingRepository.DueRecordView::getTotalAmount)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add));
+                    payload.put("oldestDueDate", records.get(0).getDueDate());
+                    notifications.put(userId, payload);
+                });
+        outboxService.recordUserEvents(OutboxEvent.EventType.BILLING_OVERDUE, notifications);
+        notifiedCounter.increment(notifications.size());
+        return new BatchResult(ids.size(), marked, notifications.size());
+    }
+    
+    private record BatchResult(int selected, int marked, int usersNotified) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.telecom.enterprise.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BCrypt is tens of milliseconds of CPU per call, so hashing and verification run on their own
+// pool sized to the cores with a short queue. A login storm then queues here instead of holding
+// Tomcat threads, and once the queue is full callers are turned away immediately rather than
+// waiting behind work that will not finish in time. Futures complete on a separate completion
+// pool, so whatever callers chain on a result (inserts, token issue) never occupies a hash thread.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingService {
+    
+    private static final long BULK_RETRY_MILLIS = 20;
+    
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    
+    // 0 means one thread per available processor
+    @Value("${app.security.password-hashing.threads:0}")
+    private int threads;
+    
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+    
+    // Places in the pool bulk jobs may hold at once; 0 means all threads but one
+    @Value("${app.security.password-hashing.bulk-permits:0}")
+    private int bulkPermitCount;
+    
+    // Runs the callers' follow-up work, which mostly waits on the database
+    @Value("${app.security.password-hashing.completion-threads:8}")
+    private int completionThreads;
+    
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor completionExecutor;
+    private Semaphore bulkPermits;
+    private Timer encodeTimer;
+    private Timer matchTimer;
+    private Counter rejectedCounter;
+    
+    // Surfaced to clients as 429 Too Many Requests
+    public static class HashingSaturatedException extends RuntimeException {
+        public HashingSaturatedException() {
+            super("Too many authentication requests in progress, retry shortly");
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), namedThreads("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+        // Unbounded, but never holds more than the hash pool admitted
+        completionExecutor = new ThreadPoolExecutor(completionThreads, completionThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("password-callback-"));
+        bulkPermits = new Semaphore(bulkPermitCount > 0 ? bulkPermitCount : Math.max(1, poolSize - 1));
+        
+        encodeTimer = Timer.builder("password.hash.time").tag("operation", "encode").register(meterRegistry);
+        matchTimer = Timer.builder("password.hash.time").tag("operation", "match").register(meterRegistry);
+        rejectedCounter = meterRegistry.counter("password.hash.rejected");
+        Gauge.builder("password.hash.queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        log.info("Password hashing on {} threads with a queue of {}, completions on {} threads",
+                poolSize, queueCapacity, completionThreads);
+    }
+    
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+        completionExecutor.shutdownNow();
+    }
+    
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+    
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+    
+    // Runs the lookup that precedes a hash, such as fetching the stored hash, on the completion
+    // pool. Auth requests go async before the hash is done, and a query made on the request
+    // thread would pin that request's open-in-view connection until then, so a login burst
+    // would drain the connection pool for every other request.
+    public <T> CompletableFuture<T> lookup(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, completionExecutor);
+    }
+    
+    // For bulk jobs like the user import: blocks until one of the bulk permits is free and the
+    // queue has room, rather than failing, so a large job paces itself on the shared pool and
+    // logins arriving meanwhile still find a thread
+    public CompletableFuture<String> encodeInBackground(String rawPassword) throws InterruptedException {
+        bulkPermits.acquire();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        result.whenComplete((hash, e) -> bulkPermits.release());
+        try {
+            while (!trySubmit(encodeTimer, () -> passwordEncoder.encode(rawPassword), result)) {
+                Thread.sleep(BULK_RETRY_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            throw e;
+        }
+        return result;
+    }
+    
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!trySubmit(timer, work, result)) {
+            rejectedCounter.increment();
+            result.completeExceptionally(new HashingSaturatedException());
+        }
+        return result;
+    }
+    
+    private <T> boolean trySubmit(Timer timer, Supplier<T> work, CompletableFuture<T> result) {
+        try {
+            executor.execute(() -> {
+                T value;
+                try {
+                    value = timer.record(work);
+                } catch (RuntimeException e) {
+                    completionExecutor.execute(() -> result.completeExceptionally(e));
+                    return;
+                }
+                completionExecutor.execute(() -> result.complete(value));
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+    
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
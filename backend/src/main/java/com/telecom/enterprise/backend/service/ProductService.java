@@ -8,8 +8,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -55,6 +60,16 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
     
+    // Inactive products included: orders and carts still refer to them
+    @Transactional(readOnly = true)
+    public Map<Long, ProductDTO> getProductsByIds(Collection<Long> ids) {
+        Map<Long, ProductDTO> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), toDTO(product));
+        }
+        return products;
+    }
+    
     public List<String> getAllCategories() {
         return productRepository.findAllCategories();
     }
@@ -69,8 +84,8 @@ public class ProductService {
                 .category(product.getCategory())
                 .subcategory(product.getSubcategory())
                 .imageUrl(product.getImageUrl())
-                .additionalImages(product.getAdditionalImages())
-                .features(product.getFeatures())
+                .additionalImages(copy(product.getAdditionalImages()))
+                .features(copy(product.getFeatures()))
                 .brand(product.getBrand())
                 .stock(product.getStock())
                 .sku(product.getSku())
@@ -81,4 +96,9 @@ public class ProductService {
                 .createdAt(product.getCreatedAt())
                 .build();
     }
+    
+    // Copied while the session is open, so the DTO never holds a lazy collection
+    private static List<String> copy(List<String> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
 }
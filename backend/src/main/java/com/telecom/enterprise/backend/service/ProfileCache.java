@@ -0,0 +1,140 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// UserDTOs by id and by email, read on every authenticated page. Each key holds a future, so
+// concurrent misses for one user share a single query instead of stampeding the database.
+// Profile changes publish ProfileChanged and the entries are dropped once that commits; the TTL
+// only bounds how long a change made outside UserService can go unnoticed. UserDTO is mutable,
+// so every caller gets its own copy and nothing a caller does to it reaches the cache.
+@Service
+@RequiredArgsConstructor
+public class ProfileCache {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.users.profile-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.users.profile-cache.ttl:PT10M}")
+    private Duration ttl;
+    
+    @Value("${app.users.profile-cache.max-entries:100000}")
+    private int maxEntries;
+    
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private long ttlNanos;
+    private Counter hits;
+    private Counter misses;
+    
+    public record ProfileChanged(Long userId) {
+    }
+    
+    private static class Entry {
+        final CompletableFuture<UserDTO> profile = new CompletableFuture<>();
+        final long expiresAt;
+        
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        ttlNanos = ttl.toNanos();
+        hits = meterRegistry.counter("user.profile.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("user.profile.cache.requests", "result", "miss");
+        Gauge.builder("user.profile.cache.size", byId, Map::size).register(meterRegistry);
+    }
+    
+    public UserDTO getById(Long id, Supplier<UserDTO> loader) {
+        return enabled ? get(byId, id, loader) : loader.get();
+    }
+    
+    public UserDTO getByEmail(String email, Supplier<UserDTO> loader) {
+        return enabled ? get(byEmail, email, loader) : loader.get();
+    }
+    
+    // Runs after the change commits so a concurrent miss cannot re-cache the old row. Changes
+    // are rare, so the email side is scanned rather than indexed; loads still in flight are
+    // dropped too since their user is not known yet.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileChanged(ProfileChanged event) {
+        byId.remove(event.userId());
+        byEmail.values().removeIf(entry -> {
+            UserDTO cached = entry.profile.isCompletedExceptionally() ? null : entry.profile.getNow(null);
+            return cached == null || event.userId().equals(cached.getId());
+        });
+    }
+    
+    private <K> UserDTO get(Map<K, Entry> map, K key, Supplier<UserDTO> loader) {
+        long now = System.nanoTime();
+        Entry entry = map.get(key);
+        if (entry == null || entry.expiresAt - now <= 0) {
+            Entry created = new Entry(now + ttlNanos);
+            entry = map.compute(key, (k, current) -> current != null && current.expiresAt - now > 0 ? current : created);
+            if (entry == created) {
+                misses.increment();
+                return load(map, key, created, loader);
+            }
+        }
+        hits.increment();
+        try {
+            return copy(entry.profile.join());
+        } catch (CompletionException e) {
+            // The loading caller already saw this failure; try once more on our own
+            return loader.get();
+        }
+    }
+    
+    private <K> UserDTO load(Map<K, Entry> map, K key, Entry entry, Supplier<UserDTO> loader) {
+        UserDTO profile;
+        try {
+            profile = loader.get();
+        } catch (RuntimeException e) {
+            map.remove(key, entry);
+            entry.profile.completeExceptionally(e);
+            throw e;
+        }
+        entry.profile.complete(profile);
+        if (profile == null) {
+            // Unknown users are not cached, so probing ids cannot fill the cache
+            map.remove(key, entry);
+        } else if (map.size() > maxEntries) {
+            trim(map, System.nanoTime());
+        }
+        return copy(profile);
+    }
+    
+    private static UserDTO copy(UserDTO profile) {
+        return profile == null ? null : profile.toBuilder().build();
+    }
+    
+    // Expired entries go first; if that is not enough, arbitrary ones until back under the cap
+    private <K> void trim(Map<K, Entry> map, long now) {
+        map.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        Iterator<Entry> entries = map.values().iterator();
+        while (map.size() > maxEntries && entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+    }
+}
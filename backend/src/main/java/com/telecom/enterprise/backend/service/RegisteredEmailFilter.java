@@ -0,0 +1,156 @@
+package com.telecom.enterprise.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter over the lower-cased emails of registered users, so registration can skip the
+// existence query for addresses that are certainly new. A "maybe" still goes to the database,
+// and the unique index on users.email stays the final word, so a stale or missing bit only costs
+// a query. Built once the application is ready (after the demo data is seeded) and added to on
+// every registration; until it is built every email is a "maybe". Registrations made while the
+// table is being loaded are written into it too, so none fall between the scan and the switch.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RegisteredEmailFilter {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.users.email-filter.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.users.email-filter.expected-emails:1000000}")
+    private long expectedEmails;
+    
+    @Value("${app.users.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Value("${app.users.email-filter.fetch-size:1000}")
+    private int fetchSize;
+    
+    // Answers checks once fully loaded
+    private volatile AtomicLongArray bits;
+    // Takes registrations from the moment loading starts
+    private volatile AtomicLongArray writable;
+    private long bitCount;
+    private int hashCount;
+    private final AtomicLong added = new AtomicLong();
+    private Counter definitelyNew;
+    private Counter maybeRegistered;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        definitelyNew = meterRegistry.counter("users.email-filter.checks", "result", "new");
+        maybeRegistered = meterRegistry.counter("users.email-filter.checks", "result", "maybe");
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        // Leave room to double before the false-positive rate drifts past its target
+        long capacity = Math.max(expectedEmails, existing != null ? existing * 2 : 0);
+        double ln2 = Math.log(2);
+        bitCount = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        AtomicLongArray table = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (bitCount + 63) >>> 6));
+        bitCount = (long) table.length() << 6;
+        writable = table;
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT email FROM users",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> set(table, rs.getString(1)));
+        bits = table;
+        
+        long loaded = added.get();
+        log.info("Registered email filter: {} emails loaded in {} ms; sized for {} at {} target false positives " +
+                        "-> {} bits ({} KiB), {} hashes, {} expected false positives now",
+                loaded, (System.nanoTime() - started) / 1_000_000, capacity, falsePositiveRate,
+                bitCount, (bitCount >>> 3) / 1024, hashCount, String.format("%.6f", falsePositiveRate(loaded)));
+    }
+    
+    // False means no user has this email in any letter case; true means ask the database
+    public boolean mightBeRegistered(String email) {
+        AtomicLongArray table = bits;
+        if (table == null || email == null) {
+            return true;
+        }
+        long[] hashes = hashes(email);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hashes, i);
+            if ((table.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                definitelyNew.increment();
+                return false;
+            }
+        }
+        maybeRegistered.increment();
+        return true;
+    }
+    
+    public void add(String email) {
+        AtomicLongArray table = writable;
+        if (table != null && email != null) {
+            set(table, email);
+        }
+    }
+    
+    private void set(AtomicLongArray table, String email) {
+        long[] hashes = hashes(email);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hashes, i);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((table.get(word) & mask) == 0) {
+                table.getAndUpdate(word, value -> value | mask);
+            }
+        }
+        added.incrementAndGet();
+    }
+    
+    private double falsePositiveRate(long entries) {
+        return Math.pow(1 - Math.exp(-(double) hashCount * entries / bitCount), hashCount);
+    }
+    
+    // Kirsch-Mitzenmacher: k indexes from two independent 64-bit hashes
+    private long index(long[] hashes, int i) {
+        return Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+    }
+    
+    private static long[] hashes(String email) {
+        byte[] bytes = email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        long h1 = 0x9E3779B97F4A7C15L;
+        long h2 = 0xC2B2AE3D27D4EB4FL;
+        for (byte b : bytes) {
+            h1 = (h1 ^ (b & 0xff)) * 0x100000001B3L;
+            h2 = Long.rotateLeft(h2 ^ ((b & 0xff) * 0x87C37B91114253D5L), 31) * 0x4CF5AD432745937FL;
+        }
+        return new long[]{mix(h1), mix(h2) | 1};
+    }
+    
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,185 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.analytics.OrderSalesEvent;
+import com.telecom.enterprise.backend.analytics.SalesWindowTable;
+import com.telecom.enterprise.backend.dto.SalesAggregateDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesAggregationService {
+    
+    public enum Dimension {
+        PRODUCT, CATEGORY, PAYMENT_METHOD
+    }
+    
+    private static final int MAX_DRAIN = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.sales-aggregation.queue-capacity:100000}")
+    private int queueCapacity;
+    
+    private final Queue<OrderSalesEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    private final SalesWindowTable byProduct = new SalesWindowTable(1024);
+    private final SalesWindowTable byCategory = new SalesWindowTable(64);
+    private final SalesWindowTable byPaymentMethod = new SalesWindowTable(16);
+    
+    // Labels are only written by the aggregation thread
+    private final Map<Long, String> productNames = new ConcurrentHashMap<>();
+    private final Map<String, Long> categoryIds = new ConcurrentHashMap<>();
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+    private final Map<String, Long> paymentMethodIds = new ConcurrentHashMap<>();
+    private final Map<Long, String> paymentMethodNames = new ConcurrentHashMap<>();
+    
+    private volatile boolean running;
+    private Thread aggregator;
+    
+    @PostConstruct
+    void start() {
+        running = true;
+        aggregator = new Thread(this::aggregate, "sales-aggregator");
+        aggregator.setDaemon(true);
+        aggregator.start();
+        
+        Gauge.builder("sales.aggregation.queue", queued, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("sales.aggregation.processed", processed, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("sales.aggregation.dropped", dropped, AtomicLong::get).register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void stop() {
+        running = false;
+        LockSupport.unpark(aggregator);
+    }
+    
+    // Runs on the committing thread after the order transaction, so it only enqueues
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCommitted(OrderSalesEvent event) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.offer(event);
+    }
+    
+    public List<SalesAggregateDTO> getAggregates(Dimension dimension, SalesWindowTable.Window window, int limit) {
+        // Volatile read pairs with the writer's update after each drained batch
+        processed.get();
+        long now = Instant.now().getEpochSecond();
+        SalesWindowTable table = table(dimension);
+        
+        List<SalesAggregateDTO> aggregates = new ArrayList<>();
+        table.forEachKey(key -> {
+            long[] totals = table.totals(key, window, now);
+            if (totals != null && (totals[0] != 0 || totals[1] != 0)) {
+                aggregates.add(SalesAggregateDTO.builder()
+                        .dimension(dimension.name())
+                        .key(dimension == Dimension.PRODUCT ? String.valueOf(key) : label(dimension, key))
+                        .label(label(dimension, key))
+                        .window(window.name())
+                        .units(totals[0])
+                        .revenue(BigDecimal.valueOf(totals[1], 2))
+                        .build());
+            }
+        });
+        
+        aggregates.sort(Comparator.comparing(SalesAggregateDTO::getRevenue).reversed());
+        return aggregates.size() > limit ? new ArrayList<>(aggregates.subList(0, limit)) : aggregates;
+    }
+    
+    private void aggregate() {
+        while (running) {
+            OrderSalesEvent event = queue.poll();
+            if (event == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            int drained = 0;
+            do {
+                try {
+                    apply(event);
+                } catch (RuntimeException e) {
+                    log.warn("Skipping sales event: {}", e.getMessage());
+                }
+                drained++;
+            } while (drained < MAX_DRAIN && (event = queue.poll()) != null);
+            
+            queued.addAndGet(-drained);
+            processed.addAndGet(drained);
+        }
+    }
+    
+    private void apply(OrderSalesEvent event) {
+        long second = event.getEpochSecond();
+        long units = 0;
+        
+        for (int i = 0; i < event.getLineCount(); i++) {
+            long productId = event.getProductIds()[i];
+            int quantity = event.getQuantities()[i];
+            long revenue = event.getRevenueMinor()[i];
+            
+            if (!productNames.containsKey(productId)) {
+                productNames.put(productId, event.getProductNames()[i]);
+            }
+            byProduct.add(productId, second, quantity, revenue);
+            byCategory.add(intern(categoryIds, categoryNames, event.getCategories()[i]), second, quantity, revenue);
+            units += quantity;
+        }
+        
+        byPaymentMethod.add(intern(paymentMethodIds, paymentMethodNames, event.getPaymentMethod()),
+                second, units, event.getTotalMinor());
+    }
+    
+    private long intern(Map<String, Long> ids, Map<Long, String> names, String value) {
+        Long id = ids.get(value);
+        if (id == null) {
+            id = (long) ids.size() + 1;
+            names.put(id, value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+    
+    private SalesWindowTable table(Dimension dimension) {
+        return switch (dimension) {
+            case PRODUCT -> byProduct;
+            case CATEGORY -> byCategory;
+            case PAYMENT_METHOD -> byPaymentMethod;
+        };
+    }
+    
+    private String label(Dimension dimension, long key) {
+        return switch (dimension) {
+            case PRODUCT -> productNames.get(key);
+            case CATEGORY -> categoryNames.get(key);
+            case PAYMENT_METHOD -> paymentMethodNames.get(key);
+        };
+    }
+}
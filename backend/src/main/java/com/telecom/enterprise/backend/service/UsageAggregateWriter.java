@@ -0,0 +1,73 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.usage.UsageTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Stores parsed usage in usage_aggregates with JDBC batches: an UPDATE adding to the rows that
+// exist, then an INSERT of those it did not find. Only the ingest, which is serialised, writes
+// here, so no other writer can insert a row between the two.
+@Service
+@RequiredArgsConstructor
+public class UsageAggregateWriter {
+    
+    private static final String UPDATE_SQL =
+            "UPDATE usage_aggregates SET voice_seconds = voice_seconds + ?, data_bytes = data_bytes + ?, " +
+            "sms_count = sms_count + ?, record_count = record_count + ? WHERE billing_period = ? AND user_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO usage_aggregates (voice_seconds, data_bytes, sms_count, record_count, billing_period, user_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM usage_aggregates WHERE billing_period = ?";
+    private static final String SELECT_SQL =
+            "SELECT billing_period, user_id, voice_seconds, data_bytes, sms_count, record_count FROM usage_aggregates";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${app.usage.invoice-chunk-size:1000}")
+    private int batchSize;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Map<YearMonth, UsageTable> usage) {
+        List<Object[]> rows = new ArrayList<>();
+        usage.forEach((period, table) -> table.forEach((userId, voice, data, sms, records) ->
+                rows.add(new Object[]{voice, data, sms, records, period.toString(), userId})));
+        
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, chunk);
+            List<Object[]> missing = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    missing.add(chunk.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, missing);
+            }
+        }
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(YearMonth period) {
+        jdbcTemplate.update(DELETE_SQL, period.toString());
+    }
+    
+    public Map<YearMonth, UsageTable> load(int expectedSubscribers) {
+        Map<YearMonth, UsageTable> periods = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            periods.computeIfAbsent(YearMonth.parse(rs.getString(1)), period -> new UsageTable(expectedSubscribers))
+                    .addTotals(rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6));
+        });
+        return periods;
+    }
+}
@@ -0,0 +1,492 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.UsageIngestDTO;
+import com.telecom.enterprise.backend.dto.UsagePeriodCloseDTO;
+import com.telecom.enterprise.backend.dto.UsageSummaryDTO;
+import com.telecom.enterprise.backend.entity.BillingRecord;
+import com.telecom.enterprise.backend.entity.UsageFile;
+import com.telecom.enterprise.backend.entity.UsagePeriod;
+import com.telecom.enterprise.backend.repository.BillingRepository;
+import com.telecom.enterprise.backend.repository.UsageFileRepository;
+import com.telecom.enterprise.backend.repository.UsagePeriodRepository;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import com.telecom.enterprise.backend.usage.CdrGenerator;
+import com.telecom.enterprise.backend.usage.MappedCdrReader;
+import com.telecom.enterprise.backend.usage.RateTable;
+import com.telecom.enterprise.backend.usage.UsageTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UsageRatingService {
+    
+    private static final DateTimeFormatter INVOICE_PERIOD = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    
+    private final UserRepository userRepository;
+    private final BillingRepository billingRepository;
+    private final BillingRecordBatchWriter invoiceWriter;
+    private final UsageAggregateWriter aggregateWriter;
+    private final UsageFileRepository usageFileRepository;
+    private final UsagePeriodRepository usagePeriodRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.usage.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.usage.inbox-dir:usage/inbox}")
+    private String inboxDir;
+    
+    @Value("${app.usage.archive-dir:usage/archive}")
+    private String archiveDir;
+    
+    @Value("${app.usage.file-pattern:*.cdr}")
+    private String filePattern;
+    
+    @Value("${app.usage.parser-threads:0}")
+    private int parserThreads;
+    
+    @Value("${app.usage.generator.enabled:false}")
+    private boolean generatorEnabled;
+    
+    @Value("${app.usage.expected-subscribers:100000}")
+    private int expectedSubscribers;
+    
+    @Value("${app.usage.invoice-chunk-size:1000}")
+    private int invoiceChunkSize;
+    
+    @Value("${app.usage.due-days:30}")
+    private int dueDays;
+    
+    @Value("${app.usage.rates.voice-per-minute:0.05}")
+    private BigDecimal voicePerMinute;
+    
+    @Value("${app.usage.rates.data-per-mb:0.01}")
+    private BigDecimal dataPerMb;
+    
+    @Value("${app.usage.rates.sms:0.10}")
+    private BigDecimal smsRate;
+    
+    // Open periods by month, a copy of usage_aggregates; guarded by its own monitor, parsers
+    // never touch it
+    private final Map<YearMonth, UsageTable> periods = new HashMap<>();
+    // Months already invoiced; guarded by the periods monitor
+    private final Set<YearMonth> closedPeriods = new HashSet<>();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private RateTable rateTable;
+    private ExecutorService parserPool;
+    private MappedCdrReader cdrReader;
+    private TransactionTemplate transactionTemplate;
+    private Counter acceptedCounter;
+    private Counter rejectedCounter;
+    private Counter lateCounter;
+    private Counter invoicesCounter;
+    
+    @PostConstruct
+    void init() {
+        rateTable = new RateTable(voicePerMinute, dataPerMb, smsRate);
+        int threads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+        parserPool = Executors.newFixedThreadPool(threads, namedThreads("cdr-parser-"));
+        cdrReader = new MappedCdrReader(parserPool, threads, zone, expectedSubscribers);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        acceptedCounter = meterRegistry.counter("usage.cdr", "outcome", "accepted");
+        rejectedCounter = meterRegistry.counter("usage.cdr", "outcome", "rejected");
+        lateCounter = meterRegistry.counter("usage.cdr", "outcome", "late");
+        invoicesCounter = meterRegistry.counter("usage.invoices");
+        Gauge.builder("usage.subscribers.open", this, service -> service.openSubscribers())
+                .description("Subscribers with unbilled usage across open periods")
+                .register(meterRegistry);
+        restore();
+    }
+    
+    // Usage ingested before a restart is reloaded from the stored aggregates
+    private void restore() {
+        Map<YearMonth, UsageTable> stored = aggregateWriter.load(expectedSubscribers);
+        synchronized (periods) {
+            usagePeriodRepository.findAll()
+                    .forEach(period -> closedPeriods.add(YearMonth.parse(period.getBillingPeriod())));
+            periods.putAll(stored);
+        }
+        if (!stored.isEmpty()) {
+            log.info("Restored unbilled usage for {} open periods: {}", stored.size(), stored.keySet());
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        parserPool.shutdownNow();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.usage.ingest-interval-ms:10000}")
+    public void scheduledIngest() {
+        if (enabled) {
+            ingest();
+        }
+    }
+    
+    // Closes every month before the current one
+    @Scheduled(cron = "${app.usage.close-cron:0 30 0 1 * *}")
+    public void scheduledClose() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth current = YearMonth.now(zone);
+        List<YearMonth> closable;
+        synchronized (periods) {
+            closable = periods.keySet().stream()
+                    .filter(period -> period.isBefore(current))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        closable.forEach(this::closePeriod);
+    }
+    
+    // A file's usage is stored together with a record of the file in one transaction, then the
+    // file is archived. A crash before the commit leaves the file to be read again; one after it
+    // leaves a file that is recognised by name and only archived.
+    public synchronized UsageIngestDTO ingest() {
+        long started = System.nanoTime();
+        List<String> files = new ArrayList<>();
+        long accepted = 0;
+        long rejected = 0;
+        long late = 0;
+        
+        for (Path file : listInbox()) {
+            String name = file.getFileName().toString();
+            if (usageFileRepository.existsById(name)) {
+                log.info("CDR file {} was already ingested, archiving it", name);
+                archive(file);
+                continue;
+            }
+            
+            List<MappedCdrReader.Segment> segments;
+            try {
+                segments = cdrReader.read(file);
+            } catch (IOException e) {
+                log.error("Could not read CDR file {}: {}", file, e.getMessage());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("CDR ingest interrupted while reading {}", file);
+                break;
+            }
+            
+            Map<YearMonth, UsageTable> usage = new HashMap<>();
+            long fileAccepted = 0;
+            long fileRejected = 0;
+            for (MappedCdrReader.Segment segment : segments) {
+                merge(usage, segment.usage().getPeriods());
+                fileAccepted += segment.accepted();
+                fileRejected += segment.rejected();
+            }
+            long fileLate = removeClosedPeriods(name, usage);
+            
+            UsageFile record = UsageFile.builder()
+                    .fileName(name)
+                    .accepted(fileAccepted - fileLate)
+                    .rejected(fileRejected)
+                    .late(fileLate)
+                    .build();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    aggregateWriter.add(usage);
+                    usageFileRepository.save(record);
+                });
+            } catch (RuntimeException e) {
+                log.error("Could not store usage from CDR file {}, leaving it in the inbox: {}", name, e.getMessage());
+                continue;
+            }
+            synchronized (periods) {
+                merge(periods, usage);
+            }
+            archive(file);
+            
+            files.add(name);
+            accepted += record.getAccepted();
+            rejected += fileRejected;
+            late += fileLate;
+            log.info("Ingested {} in {} segments: {} CDRs accepted, {} rejected, {} for closed periods", 
+                    name, segments.size(), record.getAccepted(), fileRejected, fileLate);
+        }
+        
+        acceptedCounter.increment(accepted);
+        rejectedCounter.increment(rejected);
+        lateCounter.increment(late);
+        long elapsedNanos = System.nanoTime() - started;
+        return UsageIngestDTO.builder()
+                .files(files)
+                .accepted(accepted)
+                .rejected(rejected)
+                .late(late)
+                .durationMillis(Duration.ofNanos(elapsedNanos).toMillis())
+                .recordsPerSecond(elapsedNanos > 0 ? (accepted + rejected + late) * 1e9 / elapsedNanos : 0)
+                .build();
+    }
+    
+    // CDRs for a month that is already invoiced are refused rather than billed twice or lost in a
+    // table nobody closes; they are counted and logged per subscriber for a manual adjustment
+    private long removeClosedPeriods(String file, Map<YearMonth, UsageTable> usage) {
+        long late = 0;
+        synchronized (periods) {
+            Iterator<Map.Entry<YearMonth, UsageTable>> entries = usage.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<YearMonth, UsageTable> entry = entries.next();
+                if (!closedPeriods.contains(entry.getKey())) {
+                    continue;
+                }
+                long[] records = new long[1];
+                YearMonth period = entry.getKey();
+                entry.getValue().forEach((userId, voice, data, sms, count) -> {
+                    records[0] += count;
+                    log.warn("Late usage in {} for closed period {}, user {}: {} s voice, {} bytes data, {} SMS",
+                            file, period, userId, voice, data, sms);
+                });
+                late += records[0];
+                entries.remove();
+            }
+        }
+        return late;
+    }
+    
+    // Writes a synthetic CDR file into the inbox for local load testing
+    public UsageIngestDTO generate(long records, int subscribers, YearMonth period, long seed) throws IOException {
+        if (!generatorEnabled) {
+            throw new IllegalStateException("CDR generator is disabled");
+        }
+        long started = System.nanoTime();
+        Path inbox = Files.createDirectories(Paths.get(inboxDir));
+        String name = "synthetic-" + period + "-" + seed + ".cdr";
+        new CdrGenerator().generate(inbox.resolve(name), records, 1, subscribers, period, zone, seed);
+        long elapsedNanos = System.nanoTime() - started;
+        return UsageIngestDTO.builder()
+                .files(List.of(name))
+                .accepted(records)
+                .durationMillis(Duration.ofNanos(elapsedNanos).toMillis())
+                .recordsPerSecond(elapsedNanos > 0 ? records * 1e9 / elapsedNanos : 0)
+                .build();
+    }
+    
+    public synchronized UsagePeriodCloseDTO closePeriod(YearMonth period) {
+        long started = System.nanoTime();
+        UsageTable table;
+        synchronized (periods) {
+            table = periods.remove(period);
+        }
+        if (table == null) {
+            return UsagePeriodCloseDTO.builder().period(period.toString()).build();
+        }
+        
+        long[] userIds = new long[table.size()];
+        int[] count = new int[1];
+        table.forEach((userId, voice, data, sms, records) -> userIds[count[0]++] = userId);
+        Arrays.sort(userIds);
+        
+        int created = 0;
+        int alreadyInvoiced = 0;
+        int unknown = 0;
+        try {
+            for (int from = 0; from < userIds.length; from += invoiceChunkSize) {
+                int[] result = closeChunk(period, table, Arrays.copyOfRange(userIds, from, Math.min(userIds.length, from + invoiceChunkSize)));
+                created += result[0];
+                alreadyInvoiced += result[1];
+                unknown += result[2];
+            }
+        } catch (RuntimeException e) {
+            // Committed chunks are recognised by invoice number, so the whole period can be retried
+            mergeOpenPeriods(Map.of(period, table));
+            throw e;
+        }
+        
+        // The invoices are committed, so the stored usage goes and the month stays closed
+        int invoicesCreated = created;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                aggregateWriter.delete(period);
+                usagePeriodRepository.save(UsagePeriod.builder()
+                        .billingPeriod(period.toString())
+                        .closedAt(LocalDateTime.now())
+                        .invoicesCreated(invoicesCreated)
+                        .build());
+            });
+        } catch (RuntimeException e) {
+            // Closing again finds the invoices by number and only finishes this step
+            mergeOpenPeriods(Map.of(period, table));
+            throw e;
+        }
+        synchronized (periods) {
+            closedPeriods.add(period);
+        }
+        
+        invoicesCounter.increment(created);
+        log.info("Closed usage period {}: {} invoices for {} subscribers ({} already invoiced, {} unknown)",
+                period, created, userIds.length, alreadyInvoiced, unknown);
+        return UsagePeriodCloseDTO.builder()
+                .period(period.toString())
+                .subscribers(userIds.length)
+                .invoicesCreated(created)
+                .alreadyInvoiced(alreadyInvoiced)
+                .unknownUsers(unknown)
+                .durationMillis(Duration.ofNanos(System.nanoTime() - started).toMillis())
+                .build();
+    }
+    
+    public UsageSummaryDTO getUsage(Long userId, YearMonth period) {
+        long[] counters;
+        synchronized (periods) {
+            UsageTable table = periods.get(period);
+            counters = table != null ? table.get(userId) : null;
+        }
+        if (counters == null) {
+            return null;
+        }
+        return UsageSummaryDTO.builder()
+                .userId(userId)
+                .period(period.toString())
+                .voiceSeconds(counters[UsageTable.VOICE])
+                .dataBytes(counters[UsageTable.DATA])
+                .smsCount(counters[UsageTable.SMS])
+                .records(counters[UsageTable.RECORDS])
+                .estimatedCharge(rateTable.rate(counters[UsageTable.VOICE], counters[UsageTable.DATA], counters[UsageTable.SMS]))
+                .build();
+    }
+    
+    // Returns {created, alreadyInvoiced, unknownUsers}
+    private int[] closeChunk(YearMonth period, UsageTable table, long[] userIds) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = Arrays.stream(userIds).boxed().collect(Collectors.toList());
+            Set<Long> known = new HashSet<>(userRepository.findExistingIds(ids));
+            Map<String, Long> invoiceNumbers = new LinkedHashMap<>();
+            for (long userId : userIds) {
+                if (known.contains(userId)) {
+                    invoiceNumbers.put(invoiceNumber(period, userId), userId);
+                }
+            }
+            Set<String> existing = new HashSet<>(billingRepository.findExistingInvoiceNumbers(invoiceNumbers.keySet()));
+            
+            LocalDate billingDate = period.plusMonths(1).atDay(1);
+            List<BillingRecordBatchWriter.NewInvoice> invoices = new ArrayList<>();
+            invoiceNumbers.forEach((invoiceNumber, userId) -> {
+                if (existing.contains(invoiceNumber)) {
+                    return;
+                }
+                long[] counters = table.get(userId);
+                BigDecimal amount = rateTable.rate(counters[UsageTable.VOICE], counters[UsageTable.DATA], counters[UsageTable.SMS]);
+                if (amount.signum() == 0) {
+                    return;
+                }
+                invoices.add(BillingRecordBatchWriter.NewInvoice.builder()
+                        .userId(userId)
+                        .invoiceNumber(invoiceNumber)
+                        .amount(amount)
+                        .description(describe(period, counters))
+                        .billingType(BillingRecord.BillingType.USAGE_BASED)
+                        .billingDate(billingDate)
+                        .dueDate(billingDate.plusDays(dueDays))
+                        .build());
+            });
+            
+            int created = invoiceWriter.insert(invoices);
+            return new int[]{created, existing.size(), userIds.length - known.size()};
+        });
+    }
+    
+    private void mergeOpenPeriods(Map<YearMonth, UsageTable> parsed) {
+        synchronized (periods) {
+            merge(periods, parsed);
+        }
+    }
+    
+    private static void merge(Map<YearMonth, UsageTable> into, Map<YearMonth, UsageTable> parsed) {
+        parsed.forEach((period, table) -> {
+            UsageTable open = into.get(period);
+            if (open == null) {
+                into.put(period, table);
+            } else {
+                open.merge(table);
+            }
+        });
+    }
+    
+    private List<Path> listInbox() {
+        Path inbox = Paths.get(inboxDir);
+        if (!Files.isDirectory(inbox)) {
+            return List.of();
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(inbox, filePattern)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.error("Could not list CDR inbox {}: {}", inbox, e.getMessage());
+        }
+        files.sort(Comparator.naturalOrder());
+        return files;
+    }
+    
+    // A file left in the inbox after its usage is stored is archived on the next run
+    private void archive(Path file) {
+        try {
+            Path archive = Files.createDirectories(Paths.get(archiveDir));
+            Files.move(file, archive.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Could not archive CDR file {}: {}", file, e.getMessage());
+        }
+    }
+    
+    private int openSubscribers() {
+        synchronized (periods) {
+            return periods.values().stream().mapToInt(UsageTable::size).sum();
+        }
+    }
+    
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static String invoiceNumber(YearMonth period, long userId) {
+        return "USG-" + period.format(INVOICE_PERIOD) + "-" + userId;
+    }
+    
+    private static String describe(YearMonth period, long[] counters) {
+        return String.format("Usage %s: %d min voice, %d MB data, %d SMS",
+                period, (counters[UsageTable.VOICE] + 59) / 60,
+                (counters[UsageTable.DATA] + BYTES_PER_MB - 1) / BYTES_PER_MB, counters[UsageTable.SMS]);
+    }
+}
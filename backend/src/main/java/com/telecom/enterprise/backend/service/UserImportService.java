@@ -0,0 +1,381 @@
+package com.telecom.enterprise.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.telecom.enterprise.backend.dto.UserImportResponse;
+import com.telecom.enterprise.backend.dto.UserImportResult;
+import com.telecom.enterprise.backend.dto.UserImportRow;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+// Bulk onboarding of users from CSV (with a header row) or NDJSON. Rows are read as a stream and
+// handled a chunk at a time: emails are deduped within the file in memory and against the users
+// table with one IN query per chunk (skipped for emails the registration Bloom filter has never
+// seen), passwords are hashed in parallel on the shared password pool as a bulk job that leaves
+// room for logins, and the survivors go in with one JDBC batch in their own transaction. Every row
+// gets a line in the report.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+    
+    public static final String IMPORTED = "IMPORTED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+    
+    private final UserRepository userRepository;
+    private final UserBatchWriter userBatchWriter;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final PasswordHashingService passwordHashingService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.users.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${app.users.import.max-concurrent:1}")
+    private int maxConcurrent;
+    
+    @Value("${app.users.import.max-rows:100000}")
+    private int maxRows;
+    
+    private Semaphore running;
+    private ObjectReader rowReader;
+    private TransactionTemplate transactionTemplate;
+    private Counter importedCounter;
+    private Counter rejectedCounter;
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    // Surfaced to clients as 429 Too Many Requests
+    public static class ImportBusyException extends RuntimeException {
+        public ImportBusyException() {
+            super("Another user import is in progress, retry when it finishes");
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        running = new Semaphore(Math.max(1, maxConcurrent));
+        rowReader = objectMapper.readerFor(UserImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        importedCounter = meterRegistry.counter("users.import.rows", "outcome", "imported");
+        rejectedCounter = meterRegistry.counter("users.import.rows", "outcome", "rejected");
+    }
+    
+    public UserImportResponse importUsers(InputStream body, Format format) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new ImportBusyException();
+        }
+        try {
+            return run(body, format);
+        } finally {
+            running.release();
+        }
+    }
+    
+    private UserImportResponse run(InputStream body, Format format) throws IOException {
+        long started = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        Import job = new Import();
+        
+        Map<String, Integer> columns = null;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                return job.response(format, started);
+            }
+            columns = csvColumns(header);
+        }
+        
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (job.results.size() >= maxRows) {
+                job.results.add(UserImportResult.builder()
+                        .row(job.results.size() + 1)
+                        .status(INVALID)
+                        .message("Import is limited to " + maxRows + " rows; the rest was not read")
+                        .build());
+                break;
+            }
+            UserImportResult result = UserImportResult.builder().row(job.results.size() + 1).build();
+            job.results.add(result);
+            
+            UserImportRow row;
+            try {
+                row = format == Format.CSV ? csvRow(line, columns) : rowReader.readValue(line);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                row = null;
+            }
+            if (row == null) {
+                reject(result, INVALID, "Unreadable row");
+                continue;
+            }
+            result.setEmail(row.getEmail());
+            String problem = validate(row);
+            if (problem != null) {
+                reject(result, INVALID, problem);
+                continue;
+            }
+            row.setEmail(row.getEmail().trim());
+            if (!job.seenEmails.add(row.getEmail().toLowerCase(Locale.ROOT))) {
+                reject(result, DUPLICATE, "Email appears earlier in the file");
+                continue;
+            }
+            
+            job.chunkRows.add(row);
+            job.chunkResults.add(result);
+            if (job.chunkRows.size() >= chunkSize) {
+                processChunk(job);
+            }
+        }
+        processChunk(job);
+        
+        UserImportResponse response = job.response(format, started);
+        log.info("User import: {} rows, {} imported, {} duplicates, {} invalid, {} failed in {} ms",
+                response.getRows(), response.getImported(), response.getDuplicates(),
+                response.getInvalid(), response.getFailed(), response.getElapsedMillis());
+        return response;
+    }
+    
+    private void processChunk(Import job) {
+        List<UserImportRow> rows = new ArrayList<>(job.chunkRows);
+        List<UserImportResult> results = new ArrayList<>(job.chunkResults);
+        job.chunkRows.clear();
+        job.chunkResults.clear();
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        // Only emails the filter cannot rule out need the database
+        List<String> candidates = new ArrayList<>();
+        for (UserImportRow row : rows) {
+            if (registeredEmailFilter.mightBeRegistered(row.getEmail())) {
+                candidates.add(row.getEmail().toLowerCase(Locale.ROOT));
+            }
+        }
+        Set<String> existing = candidates.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingEmails(candidates));
+        
+        List<UserImportRow> fresh = new ArrayList<>(rows.size());
+        List<UserImportResult> freshResults = new ArrayList<>(rows.size());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+        List<String> passwordHashes = new ArrayList<>(rows.size());
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                UserImportRow row = rows.get(i);
+                if (existing.contains(row.getEmail().toLowerCase(Locale.ROOT))) {
+                    reject(results.get(i), DUPLICATE, "Email already registered");
+                    continue;
+                }
+                fresh.add(row);
+                freshResults.add(results.get(i));
+                hashes.add(passwordHashingService.encodeInBackground(row.getPassword()));
+            }
+            if (fresh.isEmpty()) {
+                return;
+            }
+            for (CompletableFuture<String> hash : hashes) {
+                passwordHashes.add(hash.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hashes.forEach(hash -> hash.cancel(true));
+            // Includes rows not yet handed to the pool
+            results.stream()
+                    .filter(result -> result.getStatus() == null)
+                    .forEach(result -> reject(result, FAILED, "Import interrupted"));
+            return;
+        } catch (ExecutionException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            freshResults.forEach(result -> reject(result, FAILED, "Password hashing failed"));
+            return;
+        }
+        
+        Long[] ids;
+        try {
+            ids = insert(fresh, passwordHashes);
+        } catch (DataAccessException e) {
+            log.warn("User import chunk of {} rows failed: {}", fresh.size(), e.getMessage());
+            freshResults.forEach(result -> reject(result, FAILED, "Could not be saved"));
+            return;
+        }
+        for (int i = 0; i < fresh.size(); i++) {
+            UserImportResult result = freshResults.get(i);
+            if (ids[i] == null) {
+                reject(result, DUPLICATE, "Email registered while the import was running");
+            } else {
+                result.setStatus(IMPORTED);
+                result.setUserId(ids[i]);
+                registeredEmailFilter.add(fresh.get(i).getEmail());
+                importedCounter.increment();
+            }
+        }
+    }
+    
+    // A registration committing between the NOT EXISTS check and the insert trips the unique
+    // index and rolls back the whole batch; the second attempt sees that row and skips it
+    private Long[] insert(List<UserImportRow> rows, List<String> passwordHashes) {
+        try {
+            return transactionTemplate.execute(status -> userBatchWriter.insert(rows, passwordHashes));
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate.execute(status -> userBatchWriter.insert(rows, passwordHashes));
+        }
+    }
+    
+    private void reject(UserImportResult result, String status, String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+        rejectedCounter.increment();
+    }
+    
+    private static String validate(UserImportRow row) {
+        if (row.getEmail() == null || row.getEmail().isBlank() || row.getEmail().indexOf('@') < 1) {
+            return "A valid email is required";
+        }
+        if (row.getPassword() == null || row.getPassword().isEmpty()) {
+            return "Password is required";
+        }
+        if (row.getFirstName() == null || row.getFirstName().isBlank()
+                || row.getLastName() == null || row.getLastName().isBlank()) {
+            return "First and last name are required";
+        }
+        return null;
+    }
+    
+    private static Map<String, Integer> csvColumns(String header) {
+        List<String> names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+    
+    private static UserImportRow csvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        return UserImportRow.builder()
+                .email(column(values, columns, "email"))
+                .password(column(values, columns, "password"))
+                .firstName(column(values, columns, "firstname"))
+                .lastName(column(values, columns, "lastname"))
+                .phone(column(values, columns, "phone"))
+                .address(column(values, columns, "address"))
+                .city(column(values, columns, "city"))
+                .state(column(values, columns, "state"))
+                .zipCode(column(values, columns, "zipcode"))
+                .country(column(values, columns, "country"))
+                .build();
+    }
+    
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+    
+    // RFC 4180 fields on a single line: quoted fields may hold commas and doubled quotes
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    // Per-request state; rows wait in the chunk lists until they are checked, hashed and inserted
+    private static class Import {
+        final List<UserImportResult> results = new ArrayList<>();
+        final Set<String> seenEmails = new HashSet<>();
+        final List<UserImportRow> chunkRows = new ArrayList<>();
+        final List<UserImportResult> chunkResults = new ArrayList<>();
+        
+        UserImportResponse response(Format format, long started) {
+            long imported = 0;
+            long duplicates = 0;
+            long invalid = 0;
+            long failed = 0;
+            for (UserImportResult result : results) {
+                switch (result.getStatus()) {
+                    case IMPORTED -> imported++;
+                    case DUPLICATE -> duplicates++;
+                    case INVALID -> invalid++;
+                    default -> failed++;
+                }
+            }
+            return UserImportResponse.builder()
+                    .format(format.name())
+                    .rows(results.size())
+                    .imported(imported)
+                    .duplicates(duplicates)
+                    .invalid(invalid)
+                    .failed(failed)
+                    .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                    .results(results)
+                    .build();
+        }
+    }
+}
@@ -3,13 +3,19 @@ package com.telecom.enterprise.backend.service;
 import com.telecom.enterprise.backend.dto.*;
 import com.telecom.enterprise.backend.entity.User;
 import com.telecom.enterprise.backend.repository.UserRepository;
+import com.telecom.enterprise.backend.session.SessionRegistry;
+import com.telecom.enterprise.backend.throttle.LoginThrottle;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -17,69 +23,93 @@ import java.util.UUID;
 public class UserService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final AccessTokenService accessTokenService;
+    private final LoginThrottle loginThrottle;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final ProfileCache profileCache;
+    private final SessionRegistry sessionRegistry;
+    private final ApplicationEventPublisher eventPublisher;
     
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    // Hashing runs on the password pool; the lookup and the insert run on its completion pool,
+    // so the request thread never touches the database
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         log.info("Registering new user: {}", request.getEmail());
         
-        if (userRepository.existsByEmail(request.getEmail())) {
-            return AuthResponse.builder()
-                    .success(false)
-                    .message("Email already registered")
-                    .build();
-        }
-        
-        User user = User.builder()
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .phone(request.getPhone())
-                .role(User.UserRole.CUSTOMER)
-                .active(true)
-                .build();
-        
-        user = userRepository.save(user);
-        
-        String token = generateToken(user);
-        
-        return AuthResponse.builder()
-                .success(true)
-                .token(token)
-                .user(toDTO(user))
-                .message("Registration successful")
-                .build();
+        // Most registrations are for new emails, which the filter settles without a query
+        CompletableFuture<Boolean> taken = registeredEmailFilter.mightBeRegistered(request.getEmail())
+                ? passwordHashingService.lookup(() -> userRepository.existsByEmail(request.getEmail()))
+                : CompletableFuture.completedFuture(false);
+        return taken.thenCompose(exists -> exists
+                ? CompletableFuture.completedFuture(emailTaken())
+                : passwordHashingService.encode(request.getPassword()).thenApply(hash -> {
+                    User user = User.builder()
+                            .email(request.getEmail())
+                            .password(hash)
+                            .firstName(request.getFirstName())
+                            .lastName(request.getLastName())
+                            .phone(request.getPhone())
+                            .role(User.UserRole.CUSTOMER)
+                            .active(true)
+                            .build();
+                    try {
+                        user = userRepository.save(user);
+                        registeredEmailFilter.add(user.getEmail());
+                    } catch (DataIntegrityViolationException e) {
+                        // Lost a race with another registration for the same email
+                        return emailTaken();
+                    }
+                    
+                    return AuthResponse.builder()
+                            .success(true)
+                            .token(generateToken(user))
+                            .user(toDTO(user))
+                            .message("Registration successful")
+                            .build();
+                }));
     }
     
-    public AuthResponse login(LoginRequest request) {
+    // Throttled attempts are turned away before the user lookup and the hash
+    public CompletableFuture<AuthResponse> login(LoginRequest request, String clientAddress) {
         log.info("Login attempt for user: {}", request.getEmail());
         
-        return userRepository.findByEmail(request.getEmail())
-                .filter(user -> passwordEncoder.matches(request.getPassword(), user.getPassword()))
-                .filter(User::isActive)
-                .map(user -> AuthResponse.builder()
-                        .success(true)
-                        .token(generateToken(user))
-                        .user(toDTO(user))
-                        .message("Login successful")
-                        .build())
-                .orElse(AuthResponse.builder()
-                        .success(false)
-                        .message("Invalid credentials")
-                        .build());
+        if (!loginThrottle.tryAcquire(request.getEmail(), clientAddress)) {
+            return CompletableFuture.failedFuture(new LoginThrottle.LoginThrottledException());
+        }
+        return passwordHashingService.lookup(() -> userRepository.findByEmail(request.getEmail())
+                        .filter(User::isActive)
+                        .orElse(null))
+                .thenCompose(user -> user == null
+                        ? CompletableFuture.completedFuture(invalidCredentials())
+                        : passwordHashingService.matches(request.getPassword(), user.getPassword())
+                                .thenApply(matches -> matches
+                                        ? AuthResponse.builder()
+                                                .success(true)
+                                                .token(generateToken(user))
+                                                .user(toDTO(user))
+                                                .message("Login successful")
+                                                .build()
+                                        : invalidCredentials()));
     }
     
     public UserDTO getUserById(Long id) {
-        return userRepository.findById(id)
+        return profileCache.getById(id, () -> userRepository.findById(id)
                 .map(this::toDTO)
-                .orElse(null);
+                .orElse(null));
+    }
+    
+    public Map<Long, UserDTO> getUsersByIds(Collection<Long> ids) {
+        Map<Long, UserDTO> users = new HashMap<>();
+        for (User user : userRepository.findAllById(ids)) {
+            users.put(user.getId(), toDTO(user));
+        }
+        return users;
     }
     
     public UserDTO getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return profileCache.getByEmail(email, () -> userRepository.findByEmail(email)
                 .map(this::toDTO)
-                .orElse(null);
+                .orElse(null));
     }
     
     @Transactional
@@ -94,26 +124,49 @@ public class UserService {
                     if (updates.getState() != null) user.setState(updates.getState());
                     if (updates.getZipCode() != null) user.setZipCode(updates.getZipCode());
                     if (updates.getCountry() != null) user.setCountry(updates.getCountry());
+                    eventPublisher.publishEvent(new ProfileCache.ProfileChanged(userId));
                     return toDTO(userRepository.save(user));
                 })
                 .orElse(null);
     }
     
-    @Transactional
-    public boolean updatePassword(Long userId, String currentPassword, String newPassword) {
-        return userRepository.findById(userId)
-                .filter(user -> passwordEncoder.matches(currentPassword, user.getPassword()))
-                .map(user -> {
-                    user.setPassword(passwordEncoder.encode(newPassword));
-                    userRepository.save(user);
-                    return true;
-                })
-                .orElse(false);
+    public CompletableFuture<Boolean> updatePassword(Long userId, String currentPassword, String newPassword) {
+        return passwordHashingService.lookup(() -> userRepository.findById(userId).orElse(null))
+                .thenCompose(user -> user == null
+                        ? CompletableFuture.completedFuture(false)
+                        : passwordHashingService.matches(currentPassword, user.getPassword())
+                                .thenCompose(matches -> matches
+                                        ? passwordHashingService.encode(newPassword).thenApply(hash -> {
+                                            user.setPassword(hash);
+                                            userRepository.save(user);
+                                            // Sessions opened with the old password end everywhere, this one included
+                                            sessionRegistry.revokeUser(userId);
+                                            eventPublisher.publishEvent(new ProfileCache.ProfileChanged(userId));
+                                            return true;
+                                        })
+                                        : CompletableFuture.completedFuture(false)));
+    }
+    
+    public void logout(AccessTokenService.AccessToken token) {
+        sessionRegistry.revokeToken(token.tokenId(), token.expiresAt());
+    }
+    
+    private AuthResponse emailTaken() {
+        return AuthResponse.builder()
+                .success(false)
+                .message("Email already registered")
+                .build();
+    }
+    
+    private AuthResponse invalidCredentials() {
+        return AuthResponse.builder()
+                .success(false)
+                .message("Invalid credentials")
+                .build();
     }
     
     private String generateToken(User user) {
-        // Simple token generation - in production use JWT
-        return UUID.randomUUID().toString() + "-" + user.getId();
+        return accessTokenService.issue(user);
     }
     
     public UserDTO toDTO(User user) {
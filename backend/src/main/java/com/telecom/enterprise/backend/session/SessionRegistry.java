@@ -0,0 +1,246 @@
+package com.telecom.enterprise.backend.session;
+
+import com.telecom.enterprise.backend.dto.RevocationDeltaDTO;
+import com.telecom.enterprise.backend.dunning.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.StampedLock;
+
+// Issued access tokens and their revocations. Tokens stay stateless and self-verifying; this
+// only answers "has this one been revoked", with two primitive-map probes under an optimistic
+// read so verification never blocks on a writer. A single token is revoked by id until it
+// expires (logout). A user is revoked by a cutoff (password change): every token of theirs
+// expiring at or before it was issued before the change, and new tokens are issued past it.
+//
+// Entries are dropped when they can no longer match anything, driven by timing wheels keyed
+// by token id and by user id, so the tables hold only live sessions and live revocations.
+// Revocations are also appended to a bounded log that the BFFs replicate from by sequence
+// number; a replica that fell behind the log, or saw another epoch, gets a full snapshot.
+// State is in memory only, so a restart forgets revocations made before it.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionRegistry {
+    
+    private static final long NO_CUTOFF = Long.MIN_VALUE;
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.security.token.ttl:PT12H}")
+    private Duration ttl;
+    
+    @Value("${app.security.sessions.expected-sessions:100000}")
+    private int expectedSessions;
+    
+    @Value("${app.security.sessions.revocation-log-size:65536}")
+    private int revocationLogSize;
+    
+    @Value("${app.security.sessions.tick-ms:1000}")
+    private long tickMillis;
+    
+    private final StampedLock lock = new StampedLock();
+    // Token id -> user id
+    private LongLongMap sessions;
+    // Token id -> expiry (epoch seconds)
+    private LongLongMap revokedTokens;
+    // User id -> cutoff (epoch seconds)
+    private LongLongMap userCutoffs;
+    private TimingWheel tokenExpiry;
+    private TimingWheel cutoffExpiry;
+    
+    // Ring of the latest revocations; sequence numbers start at 1
+    private long[] logIds;
+    private long[] logValues;
+    private boolean[] logUsers;
+    private long sequence;
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+    
+    private Counter tokenRevocations;
+    private Counter userRevocations;
+    
+    @PostConstruct
+    void init() {
+        long now = System.currentTimeMillis();
+        sessions = new LongLongMap(expectedSessions);
+        revokedTokens = new LongLongMap(1024);
+        userCutoffs = new LongLongMap(1024);
+        tokenExpiry = new TimingWheel(tickMillis, now, expectedSessions);
+        cutoffExpiry = new TimingWheel(tickMillis, now, 1024);
+        logIds = new long[Math.max(16, revocationLogSize)];
+        logValues = new long[logIds.length];
+        logUsers = new boolean[logIds.length];
+        
+        tokenRevocations = meterRegistry.counter("sessions.revocations", "scope", "token");
+        userRevocations = meterRegistry.counter("sessions.revocations", "scope", "user");
+        Gauge.builder("sessions.active", this, registry -> registry.sessions.size()).register(meterRegistry);
+        Gauge.builder("sessions.revoked", this, registry -> registry.revokedTokens.size() + registry.userCutoffs.size())
+                .register(meterRegistry);
+    }
+    
+    public void register(long tokenId, long userId, long expiresAt) {
+        long stamp = lock.writeLock();
+        try {
+            sessions.put(tokenId, userId);
+            tokenExpiry.schedule(tokenId, expiresAt * 1000);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    // Earliest expiry a new token for this user may carry so that it outlives their cutoff
+    public long minimumExpiry(long userId) {
+        long stamp = lock.readLock();
+        try {
+            long cutoff = userCutoffs.get(userId, NO_CUTOFF);
+            return cutoff == NO_CUTOFF ? NO_CUTOFF : cutoff + 1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public boolean isRevoked(long tokenId, long userId, long expiresAt) {
+        long stamp = lock.tryOptimisticRead();
+        boolean revoked = revoked(tokenId, userId, expiresAt);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                revoked = revoked(tokenId, userId, expiresAt);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return revoked;
+    }
+    
+    private boolean revoked(long tokenId, long userId, long expiresAt) {
+        return revokedTokens.containsKey(tokenId) || expiresAt <= userCutoffs.get(userId, NO_CUTOFF);
+    }
+    
+    public void revokeToken(long tokenId, long expiresAt) {
+        long stamp = lock.writeLock();
+        try {
+            if (revokedTokens.containsKey(tokenId)) {
+                return;
+            }
+            sessions.remove(tokenId);
+            revokedTokens.put(tokenId, expiresAt);
+            // Already scheduled when this process issued the token; not after a restart
+            tokenExpiry.schedule(tokenId, expiresAt * 1000);
+            append(tokenId, expiresAt, false);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        tokenRevocations.increment();
+    }
+    
+    // Revokes every token the user holds now; tokens issued afterwards are unaffected
+    public void revokeUser(long userId) {
+        long cutoff = Instant.now().getEpochSecond() + ttl.toSeconds();
+        long stamp = lock.writeLock();
+        try {
+            cutoff = Math.max(cutoff, userCutoffs.get(userId, NO_CUTOFF));
+            userCutoffs.put(userId, cutoff);
+            cutoffExpiry.schedule(userId, (cutoff + 1) * 1000);
+            // Password changes are rare enough to scan for the sessions they end
+            sessions.removeIf((tokenId, owner) -> owner == userId);
+            append(userId, cutoff, true);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        userRevocations.increment();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.security.sessions.tick-ms:1000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        long stamp = lock.writeLock();
+        try {
+            tokenExpiry.advance(now, tokenId -> {
+                sessions.remove(tokenId);
+                revokedTokens.remove(tokenId);
+            });
+            cutoffExpiry.advance(now, userCutoffs::remove);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public RevocationDeltaDTO revocationsSince(String replicaEpoch, long since) {
+        long stamp = lock.readLock();
+        try {
+            long retained = Math.min(sequence, logIds.length);
+            if (!epoch.equals(replicaEpoch) || since < sequence - retained || since > sequence) {
+                return snapshot();
+            }
+            int users = 0;
+            for (long s = since + 1; s <= sequence; s++) {
+                users += logUsers[slot(s)] ? 1 : 0;
+            }
+            int tokens = (int) (sequence - since) - users;
+            RevocationDeltaDTO delta = empty(false, tokens, users);
+            int t = 0;
+            int u = 0;
+            for (long s = since + 1; s <= sequence; s++) {
+                int slot = slot(s);
+                if (logUsers[slot]) {
+                    delta.getUserIds()[u] = logIds[slot];
+                    delta.getUserCutoffs()[u++] = logValues[slot];
+                } else {
+                    delta.getTokenIds()[t] = logIds[slot];
+                    delta.getTokenExpiries()[t++] = logValues[slot];
+                }
+            }
+            return delta;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    private RevocationDeltaDTO snapshot() {
+        RevocationDeltaDTO snapshot = empty(true, revokedTokens.size(), userCutoffs.size());
+        int[] filled = new int[2];
+        revokedTokens.forEach((tokenId, expiresAt) -> {
+            snapshot.getTokenIds()[filled[0]] = tokenId;
+            snapshot.getTokenExpiries()[filled[0]++] = expiresAt;
+        });
+        userCutoffs.forEach((userId, cutoff) -> {
+            snapshot.getUserIds()[filled[1]] = userId;
+            snapshot.getUserCutoffs()[filled[1]++] = cutoff;
+        });
+        return snapshot;
+    }
+    
+    private RevocationDeltaDTO empty(boolean full, int tokens, int users) {
+        return RevocationDeltaDTO.builder()
+                .epoch(epoch)
+                .sequence(sequence)
+                .full(full)
+                .tokenIds(new long[tokens])
+                .tokenExpiries(new long[tokens])
+                .userIds(new long[users])
+                .userCutoffs(new long[users])
+                .build();
+    }
+    
+    private void append(long id, long value, boolean user) {
+        int slot = slot(++sequence);
+        logIds[slot] = id;
+        logValues[slot] = value;
+        logUsers[slot] = user;
+    }
+    
+    private int slot(long sequenceNumber) {
+        return (int) ((sequenceNumber - 1) % logIds.length);
+    }
+}
@@ -0,0 +1,32 @@
+package com.telecom.enterprise.backend.throttle;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// The end user's address for per-client limits: the login throttle and GraphQL cost budgets.
+// X-Forwarded-For is whatever the client sends plus one entry per proxy it passed, so only the
+// entries appended by our own proxies (the BFFs, the gateway) can be trusted. With trust on,
+// the client is the entry the outermost of those proxies added, counted from the right; any
+// entries to its left are the client's own and are ignored. With trust off it is the peer.
+@Component
+public class ClientAddressResolver {
+    
+    @Value("${app.security.login-throttle.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+    
+    // Proxies in front of the backend that append to X-Forwarded-For
+    @Value("${app.security.login-throttle.trusted-proxies:1}")
+    private int trustedProxies;
+    
+    public String resolve(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (!trustForwardedFor || trustedProxies < 1 || forwarded == null || forwarded.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        String[] hops = forwarded.split(",");
+        // Fewer entries than proxies means every entry came from one of them
+        String client = hops[Math.max(0, hops.length - trustedProxies)].trim();
+        return client.isEmpty() ? request.getRemoteAddr() : client;
+    }
+}
@@ -0,0 +1,66 @@
+package com.telecom.enterprise.backend.throttle;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Login attempts allowed per email and per client address. Checked before the user lookup and
+// the BCrypt verification, so a credential-stuffing burst costs a few CAS operations per attempt.
+@Component
+@Slf4j
+public class LoginThrottle {
+    
+    @Value("${app.security.login-throttle.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.security.login-throttle.expected-identities:65536}")
+    private int expectedIdentities;
+    
+    @Value("${app.security.login-throttle.email.burst:5}")
+    private int emailBurst;
+    
+    // One attempt is regained per interval
+    @Value("${app.security.login-throttle.email.interval:PT1M}")
+    private Duration emailInterval;
+    
+    @Value("${app.security.login-throttle.address.burst:30}")
+    private int addressBurst;
+    
+    @Value("${app.security.login-throttle.address.interval:PT2S}")
+    private Duration addressInterval;
+    
+    private TokenBucketTable emails;
+    private TokenBucketTable addresses;
+    
+    // Surfaced to clients as 429 Too Many Requests
+    public static class LoginThrottledException extends RuntimeException {
+        public LoginThrottledException() {
+            super("Too many login attempts, try again later");
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        emails = new TokenBucketTable(expectedIdentities, emailBurst, emailInterval.toNanos());
+        addresses = new TokenBucketTable(expectedIdentities, addressBurst, addressInterval.toNanos());
+        log.info("Login throttle {}: {} per email every {}, {} per address every {}, {} slots each",
+                enabled ? "on" : "off", emailBurst, emailInterval, addressBurst, addressInterval, emails.capacity());
+    }
+    
+    // The address is checked first so a blocked address does not use up its targets' allowance.
+    // Either argument may be null when the caller cannot supply it.
+    public boolean tryAcquire(String email, String clientAddress) {
+        if (!enabled) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (clientAddress != null && !addresses.tryAcquire(clientAddress, now)) {
+            return false;
+        }
+        return email == null || emails.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+    }
+}
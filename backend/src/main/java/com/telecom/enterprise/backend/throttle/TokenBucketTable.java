@@ -0,0 +1,126 @@
+package com.telecom.enterprise.backend.throttle;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size table of token buckets keyed by string, updated with CAS only. Each bucket is the
+// single long of the generic cell rate algorithm: the time at which it will be full again. A
+// request is allowed when that time, pushed one interval further, is no more than a burst's worth
+// of intervals ahead of now. A bucket whose time has passed is full, which is the same as having
+// no entry, so slots expire on their own and are reclaimed by the next key that needs one.
+//
+// Keys hash to a set of WAYS slots holding 64-bit fingerprints. A new key takes an empty or
+// expired slot in its set, or failing that the one closest to full, so the table never grows and
+// an attacker cycling through identities can only evict buckets that are nearly refilled anyway.
+// A slot changing owner between the fingerprint check and the CAS can let one request see the
+// previous owner's bucket; throttling tolerates that.
+public class TokenBucketTable {
+    
+    private static final int WAYS = 4;
+    private static final long EMPTY = 0;
+    
+    private final AtomicLongArray fingerprints;
+    private final AtomicLongArray fullAt;
+    private final int setMask;
+    private final long intervalNanos;
+    private final long burstNanos;
+    // Per-process seed so identities cannot be chosen to collide
+    private final long seed = ThreadLocalRandom.current().nextLong() | 1;
+    
+    public TokenBucketTable(int expectedKeys, int burst, long intervalNanos) {
+        int slots = Integer.highestOneBit(Math.max(WAYS, expectedKeys) * 2 - 1);
+        this.fingerprints = new AtomicLongArray(slots);
+        this.fullAt = new AtomicLongArray(slots);
+        this.setMask = (slots - 1) & ~(WAYS - 1);
+        this.intervalNanos = Math.max(1, intervalNanos);
+        this.burstNanos = this.intervalNanos * Math.max(1, burst);
+    }
+    
+    public boolean tryAcquire(String key, long nowNanos) {
+        return tryAcquire(key, 1, nowNanos);
+    }
+    
+    // Takes several tokens at once; more than the burst can never be granted
+    public boolean tryAcquire(String key, long tokens, long nowNanos) {
+        long fingerprint = fingerprint(key);
+        int set = (int) (fingerprint ^ (fingerprint >>> 32)) & setMask;
+        int slot = find(set, fingerprint);
+        if (slot < 0) {
+            slot = claim(set, fingerprint, nowNanos);
+            if (slot < 0) {
+                // Lost every race for a slot; fail open rather than spin
+                return true;
+            }
+        }
+        while (true) {
+            long current = fullAt.get(slot);
+            long next = Math.max(current, nowNanos) + intervalNanos * tokens;
+            if (next - nowNanos > burstNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(slot, current, next)) {
+                return true;
+            }
+        }
+    }
+    
+    public int capacity() {
+        return fingerprints.length();
+    }
+    
+    private int find(int set, long fingerprint) {
+        for (int i = set; i < set + WAYS; i++) {
+            if (fingerprints.get(i) == fingerprint) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private int claim(int set, long fingerprint, long nowNanos) {
+        for (int attempt = 0; attempt < WAYS; attempt++) {
+            int victim = set;
+            long victimOwner = fingerprints.get(set);
+            long victimFullAt = Long.MAX_VALUE;
+            for (int i = set; i < set + WAYS; i++) {
+                long owner = fingerprints.get(i);
+                if (owner == fingerprint) {
+                    return i;
+                }
+                if (owner == EMPTY) {
+                    victim = i;
+                    victimOwner = owner;
+                    break;
+                }
+                long slotFullAt = fullAt.get(i);
+                if (slotFullAt < victimFullAt) {
+                    victim = i;
+                    victimOwner = owner;
+                    victimFullAt = slotFullAt;
+                }
+            }
+            // Fails if another key took the slot since the scan; rescan then
+            if (fingerprints.compareAndSet(victim, victimOwner, fingerprint)) {
+                // Start the new owner with a full bucket
+                fullAt.set(victim, nowNanos);
+                return victim;
+            }
+        }
+        return -1;
+    }
+    
+    private long fingerprint(String key) {
+        long h = seed;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xff)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+}
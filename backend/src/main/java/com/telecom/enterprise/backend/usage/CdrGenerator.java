@@ -0,0 +1,68 @@
+package com.telecom.enterprise.backend.usage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+
+// Writes synthetic CDR files in the layout CdrParser reads, for local load testing.
+// Records are time-ordered across the month with a 60/30/10 voice/data/SMS mix;
+// the same seed always produces the same file.
+public class CdrGenerator {
+    
+    private static final int MAX_CALL_SECONDS = 1800;
+    private static final long MAX_SESSION_BYTES = 50L * 1024 * 1024;
+    
+    private final byte[] digits = new byte[20];
+    
+    public long generate(Path target, long records, long firstUserId, int subscribers,
+                         YearMonth period, ZoneId zone, long seed) throws IOException {
+        long start = period.atDay(1).atStartOfDay(zone).toEpochSecond();
+        long span = period.plusMonths(1).atDay(1).atStartOfDay(zone).toEpochSecond() - start;
+        SplittableRandom random = new SplittableRandom(seed);
+        
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 20)) {
+            for (long i = 0; i < records; i++) {
+                int mix = random.nextInt(10);
+                byte type;
+                long quantity;
+                if (mix < 6) {
+                    type = 'V';
+                    quantity = 1 + random.nextInt(MAX_CALL_SECONDS);
+                } else if (mix < 9) {
+                    type = 'D';
+                    quantity = 1024 + random.nextLong(MAX_SESSION_BYTES);
+                } else {
+                    type = 'S';
+                    quantity = 1;
+                }
+                
+                writeLong(out, firstUserId + random.nextInt(subscribers));
+                out.write(',');
+                out.write(type);
+                out.write(',');
+                writeLong(out, quantity);
+                out.write(',');
+                writeLong(out, start + span * i / records);
+                out.write('\n');
+            }
+        }
+        // Renamed into place only when complete so an inbox poller never sees a partial file
+        Files.move(temp, target);
+        return records;
+    }
+    
+    private void writeLong(OutputStream out, long value) throws IOException {
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, pos, digits.length - pos);
+    }
+}
@@ -0,0 +1,102 @@
+package com.telecom.enterprise.backend.usage;
+
+// Decodes CDR lines of the form "userId,type,quantity,epochSecond" where type is
+// V (voice seconds), D (data bytes) or S (SMS count). Works byte by byte on raw
+// buffers so no String or boxed value is created per record; a parser instance is
+// confined to one thread.
+public class CdrParser {
+    
+    private static final int FIELD_COUNT = 4;
+    
+    private final CdrSink sink;
+    private long accepted;
+    private long rejected;
+    
+    private int field;
+    private long value;
+    private boolean digits;
+    private boolean malformed;
+    private long userId;
+    private int usageType = -1;
+    private long quantity;
+    
+    public CdrParser(CdrSink sink) {
+        this.sink = sink;
+    }
+    
+    // Flushes a trailing line that has no newline
+    public void finish() {
+        if (field > 0 || digits || malformed) {
+            endLine();
+        }
+    }
+    
+    public long getAccepted() {
+        return accepted;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public static int usageType(byte code) {
+        return switch (code) {
+            case 'V' -> UsageTable.VOICE;
+            case 'D' -> UsageTable.DATA;
+            case 'S' -> UsageTable.SMS;
+            default -> -1;
+        };
+    }
+    
+    public void consume(byte b) {
+        if (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            digits = true;
+        } else if (b == ',') {
+            endField();
+        } else if (b == '\n') {
+            endLine();
+        } else if (b != '\r') {
+            if (field == 1 && usageType < 0 && !digits) {
+                usageType = usageType(b);
+                malformed |= usageType < 0;
+            } else {
+                malformed = true;
+            }
+        }
+    }
+    
+    private void endField() {
+        switch (field) {
+            case 0 -> {
+                userId = value;
+                malformed |= !digits;
+            }
+            case 2 -> {
+                quantity = value;
+                malformed |= !digits;
+            }
+            default -> {
+                // type was captured as it was read; the timestamp ends the line
+            }
+        }
+        field++;
+        value = 0;
+        digits = false;
+    }
+    
+    private void endLine() {
+        long epochSecond = value;
+        boolean hasTimestamp = digits;
+        endField();
+        if (!malformed && hasTimestamp && field == FIELD_COUNT && usageType >= 0) {
+            sink.accept(userId, usageType, quantity, epochSecond);
+            accepted++;
+        } else if (field > 1 || hasTimestamp || malformed) {
+            rejected++;
+        }
+        field = 0;
+        malformed = false;
+        usageType = -1;
+    }
+}
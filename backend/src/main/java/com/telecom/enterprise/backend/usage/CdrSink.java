@@ -0,0 +1,6 @@
+package com.telecom.enterprise.backend.usage;
+
+public interface CdrSink {
+    
+    void accept(long userId, int usageType, long quantity, long epochSecond);
+}
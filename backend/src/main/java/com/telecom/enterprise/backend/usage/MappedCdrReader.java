@@ -0,0 +1,107 @@
+package com.telecom.enterprise.backend.usage;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Memory-maps a CDR file and parses it in parallel segments straight from the page
+// cache. Segment boundaries are nominal byte offsets; a segment owns every line that
+// starts inside it, so it skips the partial line at its head and reads past its tail
+// to finish the last line it owns. Each segment fills its own accumulator, which the
+// caller merges, so parsing threads share nothing.
+public class MappedCdrReader {
+    
+    // Longest line a segment may read past its end to complete; longer lines are rejected
+    private static final int MAX_LINE_LENGTH = 4096;
+    // A single mapping is limited to 2 GB
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE - MAX_LINE_LENGTH - 1;
+    
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final ZoneId zone;
+    private final int expectedSubscribers;
+    
+    public MappedCdrReader(ExecutorService executor, int parallelism, ZoneId zone, int expectedSubscribers) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.zone = zone;
+        this.expectedSubscribers = expectedSubscribers;
+    }
+    
+    public List<Segment> read(Path file) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return List.of();
+            }
+            
+            int segments = (int) Math.max(parallelism, (size + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES);
+            segments = (int) Math.min(segments, Math.max(1, size / MAX_LINE_LENGTH));
+            long segmentSize = (size + segments - 1) / segments;
+            
+            List<Future<Segment>> futures = new ArrayList<>(segments);
+            for (long start = 0; start < size; start += segmentSize) {
+                long begin = start;
+                long end = Math.min(size, start + segmentSize);
+                futures.add(executor.submit(() -> parseSegment(channel, size, begin, end)));
+            }
+            
+            List<Segment> results = new ArrayList<>(futures.size());
+            try {
+                for (Future<Segment> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("CDR segment parse failed for " + file, cause);
+            }
+            return results;
+        }
+    }
+    
+    private Segment parseSegment(FileChannel channel, long fileSize, long start, long end) throws IOException {
+        // Map one byte before the segment to see whether it begins on a line boundary
+        long mapStart = Math.max(0, start - 1);
+        long mapEnd = Math.min(fileSize, end + MAX_LINE_LENGTH);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        
+        int limit = buffer.limit();
+        int ownedEnd = (int) (end - mapStart);
+        int pos = (int) (start - mapStart);
+        if (start > 0 && buffer.get(pos - 1) != '\n') {
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+        
+        PeriodUsageAccumulator accumulator = new PeriodUsageAccumulator(zone, expectedSubscribers);
+        CdrParser parser = new CdrParser(accumulator);
+        if (pos < ownedEnd) {
+            while (pos < limit) {
+                byte b = buffer.get(pos++);
+                parser.consume(b);
+                if (b == '\n' && pos >= ownedEnd) {
+                    break;
+                }
+            }
+            parser.finish();
+        }
+        return new Segment(accumulator, parser.getAccepted(), parser.getRejected());
+    }
+    
+    public record Segment(PeriodUsageAccumulator usage, long accepted, long rejected) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.telecom.enterprise.backend.usage;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+// Routes CDRs to one UsageTable per billing month. Files are almost always
+// time-ordered, so the bounds of the last period are cached and the calendar
+// is only consulted when a record falls outside them.
+public class PeriodUsageAccumulator implements CdrSink {
+    
+    private final ZoneId zone;
+    private final int expectedSubscribers;
+    private final Map<YearMonth, UsageTable> periods = new HashMap<>();
+    
+    private UsageTable currentTable;
+    private long currentStart = Long.MAX_VALUE;
+    private long currentEnd = Long.MIN_VALUE;
+    
+    public PeriodUsageAccumulator(ZoneId zone, int expectedSubscribers) {
+        this.zone = zone;
+        this.expectedSubscribers = expectedSubscribers;
+    }
+    
+    @Override
+    public void accept(long userId, int usageType, long quantity, long epochSecond) {
+        if (epochSecond < currentStart || epochSecond >= currentEnd) {
+            switchPeriod(epochSecond);
+        }
+        currentTable.add(userId, usageType, quantity);
+    }
+    
+    public Map<YearMonth, UsageTable> getPeriods() {
+        return periods;
+    }
+    
+    private void switchPeriod(long epochSecond) {
+        YearMonth period = YearMonth.from(Instant.ofEpochSecond(epochSecond).atZone(zone));
+        currentTable = periods.computeIfAbsent(period, p -> new UsageTable(expectedSubscribers));
+        currentStart = period.atDay(1).atStartOfDay(zone).toEpochSecond();
+        currentEnd = period.plusMonths(1).atDay(1).atStartOfDay(zone).toEpochSecond();
+    }
+}
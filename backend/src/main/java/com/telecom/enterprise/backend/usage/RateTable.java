@@ -0,0 +1,38 @@
+package com.telecom.enterprise.backend.usage;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Unit prices held in ten-thousandths of the currency unit so sub-cent rates
+// (per second, per megabyte) rate exactly in long arithmetic; only the final
+// charge is rounded to cents.
+public class RateTable {
+    
+    private static final int RATE_SCALE = 4;
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    
+    private final long voicePerMinute;
+    private final long dataPerMb;
+    private final long smsEach;
+    
+    public RateTable(BigDecimal voicePerMinute, BigDecimal dataPerMb, BigDecimal smsEach) {
+        this.voicePerMinute = toRateUnits(voicePerMinute);
+        this.dataPerMb = toRateUnits(dataPerMb);
+        this.smsEach = toRateUnits(smsEach);
+    }
+    
+    public BigDecimal rate(long voiceSeconds, long dataBytes, long smsCount) {
+        long charge = ceilDiv(voiceSeconds * voicePerMinute, 60)
+                + ceilDiv(dataBytes * dataPerMb, BYTES_PER_MB)
+                + smsCount * smsEach;
+        return BigDecimal.valueOf(charge, RATE_SCALE).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+    
+    private static long toRateUnits(BigDecimal rate) {
+        return rate.setScale(RATE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,140 @@
+package com.telecom.enterprise.backend.usage;
+
+import java.util.Arrays;
+
+// Open-addressing table from a primitive long subscriber id to four long counters
+// (voice seconds, data bytes, SMS count, CDR count) stored inline, so aggregating a
+// CDR never boxes or allocates. Not thread-safe: each parser thread fills its own
+// table and the owner merges them under its own lock.
+public class UsageTable {
+    
+    public static final int VOICE = 0;
+    public static final int DATA = 1;
+    public static final int SMS = 2;
+    public static final int RECORDS = 3;
+    
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int FIELDS = 4;
+    
+    private long[] keys;
+    private long[] counters;
+    private int mask;
+    private int size;
+    
+    public interface Visitor {
+        void visit(long userId, long voiceSeconds, long dataBytes, long smsCount, long records);
+    }
+    
+    public UsageTable(int expectedKeys) {
+        allocate(Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1);
+    }
+    
+    public void add(long userId, int type, long quantity) {
+        int base = slotFor(userId) * FIELDS;
+        counters[base + type] += quantity;
+        counters[base + RECORDS]++;
+    }
+    
+    // Adds counters already summed elsewhere, such as stored aggregates
+    public void addTotals(long userId, long voiceSeconds, long dataBytes, long smsCount, long records) {
+        int base = slotFor(userId) * FIELDS;
+        counters[base + VOICE] += voiceSeconds;
+        counters[base + DATA] += dataBytes;
+        counters[base + SMS] += smsCount;
+        counters[base + RECORDS] += records;
+    }
+    
+    public void merge(UsageTable other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                int base = slotFor(other.keys[i]) * FIELDS;
+                int from = i * FIELDS;
+                for (int f = 0; f < FIELDS; f++) {
+                    counters[base + f] += other.counters[from + f];
+                }
+            }
+        }
+    }
+    
+    // Returns {voiceSeconds, dataBytes, smsCount, records}, or null for an unknown subscriber
+    public long[] get(long userId) {
+        int slot = indexOf(userId);
+        return slot < 0 ? null : Arrays.copyOfRange(counters, slot * FIELDS, slot * FIELDS + FIELDS);
+    }
+    
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                int base = i * FIELDS;
+                visitor.visit(keys[i], counters[base + VOICE], counters[base + DATA],
+                        counters[base + SMS], counters[base + RECORDS]);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private int slotFor(long key) {
+        int i = mix(key) & mask;
+        while (true) {
+            long candidate = keys[i];
+            if (candidate == key) {
+                return i;
+            }
+            if (candidate == EMPTY) {
+                if ((size + 1) * 2 > keys.length) {
+                    resize();
+                    return slotFor(key);
+                }
+                keys[i] = key;
+                size++;
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+    
+    private int indexOf(long key) {
+        int i = mix(key) & mask;
+        while (true) {
+            long candidate = keys[i];
+            if (candidate == key) {
+                return i;
+            }
+            if (candidate == EMPTY) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+    
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldCounters = counters;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = mix(oldKeys[i]) & mask;
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                System.arraycopy(oldCounters, i * FIELDS, counters, j * FIELDS, FIELDS);
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        counters = new long[capacity * FIELDS];
+        mask = capacity - 1;
+    }
+    
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,100 @@
+package com.telecom.enterprise.backend.benchmark;
+
+import com.telecom.enterprise.backend.entity.User;
+import com.telecom.enterprise.backend.service.AccessTokenService;
+import com.telecom.enterprise.backend.session.SessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Cost per request of AccessTokenService.verify, which every /api call pays once
+// app.security.token.required is on: a valid token, one with a forged signature, and valid
+// tokens verified from four threads at once to show the per-thread Macs and the session
+// registry's read lock do not serialize requests. Run main for the figures.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessTokenBenchmark {
+    
+    private static final int USERS = 1024;
+    
+    private AccessTokenService accessTokenService;
+    private String[] tokens;
+    private String forged;
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+    
+    @Setup
+    public void setUp() {
+        SessionRegistry sessionRegistry = new SessionRegistry(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sessionRegistry, "ttl", Duration.ofHours(12));
+        ReflectionTestUtils.setField(sessionRegistry, "expectedSessions", USERS * 2);
+        ReflectionTestUtils.setField(sessionRegistry, "revocationLogSize", 65536);
+        ReflectionTestUtils.setField(sessionRegistry, "tickMillis", 1000L);
+        ReflectionTestUtils.invokeMethod(sessionRegistry, "init");
+        
+        accessTokenService = new AccessTokenService(sessionRegistry);
+        ReflectionTestUtils.setField(accessTokenService, "keyConfig",
+                "bench1=benchmark-token-signing-key-0000000001,bench0=benchmark-token-signing-key-0000000000");
+        ReflectionTestUtils.setField(accessTokenService, "ttl", Duration.ofHours(12));
+        ReflectionTestUtils.invokeMethod(accessTokenService, "init");
+        
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = accessTokenService.issue(User.builder().id(i + 1L).role(User.UserRole.CUSTOMER).build());
+        }
+        // Revoke some users so the registry has cutoffs to consult, as it would in production
+        for (int i = 0; i < USERS; i += 16) {
+            sessionRegistry.revokeUser(i + 1L);
+        }
+        String valid = tokens[1];
+        forged = valid.substring(0, valid.lastIndexOf('.') + 1) + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+    }
+    
+    @Benchmark
+    public AccessTokenService.AccessToken verify(Cursor cursor) {
+        return accessTokenService.verify(tokens[cursor.next++ & (USERS - 1)]);
+    }
+    
+    @Benchmark
+    public AccessTokenService.AccessToken verifyForged() {
+        return accessTokenService.verify(forged);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public AccessTokenService.AccessToken verifyConcurrent(Cursor cursor) {
+        return accessTokenService.verify(tokens[cursor.next++ & (USERS - 1)]);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AccessTokenBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,130 @@
+package com.telecom.enterprise.backend.benchmark;
+
+import com.telecom.enterprise.backend.usage.CdrGenerator;
+import com.telecom.enterprise.backend.usage.CdrParser;
+import com.telecom.enterprise.backend.usage.MappedCdrReader;
+import com.telecom.enterprise.backend.usage.PeriodUsageAccumulator;
+import com.telecom.enterprise.backend.usage.UsageTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// CDRs per second through each stage of usage ingest, over a file from CdrGenerator: CdrParser
+// alone on the bytes in memory, UsageTable aggregation alone on pre-decoded records, and
+// MappedCdrReader parsing the mapped file on every core and merging the segments as
+// UsageRatingService does. The score is records per second; the GC profiler should show next
+// to no allocation per record. UsageIngestBenchmark covers the whole service, database included.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CdrIngestBenchmark {
+    
+    private static final int RECORDS = 2_000_000;
+    private static final int SUBSCRIBERS = 100_000;
+    private static final YearMonth PERIOD = YearMonth.of(2024, 1);
+    
+    private final ZoneId zone = ZoneId.of("UTC");
+    private Path directory;
+    private Path file;
+    private byte[] bytes;
+    private long[] userIds;
+    private int[] types;
+    private long[] quantities;
+    private ExecutorService executor;
+    private MappedCdrReader reader;
+    
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cdr-bench");
+        file = directory.resolve("bench.cdr");
+        new CdrGenerator().generate(file, RECORDS, 1, SUBSCRIBERS, PERIOD, zone, 42);
+        bytes = Files.readAllBytes(file);
+        
+        userIds = new long[RECORDS];
+        types = new int[RECORDS];
+        quantities = new long[RECORDS];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < RECORDS; i++) {
+            userIds[i] = 1 + random.nextInt(SUBSCRIBERS);
+            types[i] = random.nextInt(3);
+            quantities[i] = 1 + random.nextInt(1800);
+        }
+        
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads);
+        reader = new MappedCdrReader(executor, threads, zone, SUBSCRIBERS);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public PeriodUsageAccumulator parse() {
+        PeriodUsageAccumulator usage = new PeriodUsageAccumulator(zone, SUBSCRIBERS);
+        CdrParser parser = new CdrParser(usage);
+        for (byte b : bytes) {
+            parser.consume(b);
+        }
+        parser.finish();
+        return usage;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public UsageTable aggregate() {
+        UsageTable table = new UsageTable(SUBSCRIBERS);
+        for (int i = 0; i < RECORDS; i++) {
+            table.add(userIds[i], types[i], quantities[i]);
+        }
+        return table;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public UsageTable mappedRead() throws IOException, InterruptedException {
+        UsageTable merged = new UsageTable(SUBSCRIBERS);
+        for (MappedCdrReader.Segment segment : reader.read(file)) {
+            segment.usage().getPeriods().values().forEach(merged::merge);
+        }
+        return merged;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CdrIngestBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.telecom.enterprise.backend.benchmark;
+
+import com.telecom.enterprise.backend.service.InvoiceSoapService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// GetInvoices responses written by InvoiceSoapService.writeInvoices (StAX off a forward-only
+// cursor) against the same envelope built as a DOM tree and serialized with a Transformer,
+// both reading from an in-memory H2 billing_records table and writing to a null stream. Run
+// main for throughput; the GC profiler's alloc rate per operation shows the DOM tree's cost
+// growing with the row count while the streaming writer's stays flat.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class InvoiceSoapBenchmark {
+    
+    private static final String SELECT_SQL =
+            "SELECT id, invoice_number, user_id, billing_date, due_date, paid_date, description, billing_type, " +
+            "status, amount, tax, total_amount, payment_method FROM billing_records ORDER BY id";
+    
+    private static final String[][] COLUMNS = {
+            {"id", "id"}, {"invoiceNumber", "invoice_number"}, {"userId", "user_id"},
+            {"billingDate", "billing_date"}, {"dueDate", "due_date"}, {"paidDate", "paid_date"},
+            {"description", "description"}, {"billingType", "billing_type"}, {"status", "status"},
+            {"amount", "amount"}, {"tax", "tax"}, {"totalAmount", "total_amount"},
+            {"paymentMethod", "payment_method"}};
+    
+    @Param({"1000", "100000"})
+    private int rows;
+    
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private InvoiceSoapService service;
+    private InvoiceSoapService.InvoiceQuery query;
+    private DocumentBuilderFactory documentBuilderFactory;
+    private TransformerFactory transformerFactory;
+    
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:soapbench;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS billing_records");
+        jdbcTemplate.execute("CREATE TABLE billing_records (id BIGINT PRIMARY KEY, invoice_number VARCHAR(64), " +
+                "user_id BIGINT, billing_date DATE, due_date DATE, paid_date DATE, description VARCHAR(255), " +
+                "billing_type VARCHAR(32), status VARCHAR(32), amount DECIMAL(10,2), tax DECIMAL(10,2), " +
+                "total_amount DECIMAL(10,2), payment_method VARCHAR(32))");
+        
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            LocalDate billed = start.plusDays(i % 365);
+            BigDecimal amount = BigDecimal.valueOf(1000 + i % 9000, 2);
+            BigDecimal tax = BigDecimal.valueOf((1000 + i % 9000) * 8L / 100, 2);
+            batch.add(new Object[]{i, "INV-" + i, 1 + i % 500, Date.valueOf(billed), Date.valueOf(billed.plusDays(30)),
+                    i % 3 == 0 ? Date.valueOf(billed.plusDays(10)) : null, "Monthly service charge",
+                    "MONTHLY_SUBSCRIPTION", i % 3 == 0 ? "PAID" : "PENDING", amount, tax, amount.add(tax),
+                    i % 3 == 0 ? "CREDIT_CARD" : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO billing_records VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        
+        service = new InvoiceSoapService(jdbcTemplate);
+        ReflectionTestUtils.setField(service, "fetchSize", 500);
+        ReflectionTestUtils.setField(service, "maxResults", rows);
+        query = new InvoiceSoapService.InvoiceQuery(null, null, null, null, rows);
+        documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setNamespaceAware(true);
+        transformerFactory = TransformerFactory.newInstance();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE billing_records");
+        dataSource.destroy();
+    }
+    
+    @Benchmark
+    public void stax() throws Exception {
+        service.writeInvoices(query, OutputStream.nullOutputStream());
+    }
+    
+    @Benchmark
+    public void dom() throws Exception {
+        Document document = documentBuilderFactory.newDocumentBuilder().newDocument();
+        Element envelope = document.createElementNS(InvoiceSoapService.SOAP_NS, "soap:Envelope");
+        envelope.setAttributeNS("http://www.w3.org/2000/xmlns/", "xmlns:bil", InvoiceSoapService.BILLING_NS);
+        document.appendChild(envelope);
+        Element body = document.createElementNS(InvoiceSoapService.SOAP_NS, "soap:Body");
+        envelope.appendChild(body);
+        Element response = document.createElementNS(InvoiceSoapService.BILLING_NS, "bil:GetInvoicesResponse");
+        body.appendChild(response);
+        
+        long[] count = new long[1];
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            Element invoice = document.createElementNS(InvoiceSoapService.BILLING_NS, "bil:invoice");
+            for (String[] column : COLUMNS) {
+                String value = rs.getString(column[1]);
+                if (value != null) {
+                    Element element = document.createElementNS(InvoiceSoapService.BILLING_NS, "bil:" + column[0]);
+                    element.setTextContent(value);
+                    invoice.appendChild(element);
+                }
+            }
+            response.appendChild(invoice);
+            count[0]++;
+        });
+        Element countElement = document.createElementNS(InvoiceSoapService.BILLING_NS, "bil:count");
+        countElement.setTextContent(Long.toString(count[0]));
+        response.appendChild(countElement);
+        
+        Transformer transformer = transformerFactory.newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        OutputStream out = new BufferedOutputStream(OutputStream.nullOutputStream(), 1 << 16);
+        transformer.transform(new DOMSource(document), new StreamResult(out));
+        out.flush();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InvoiceSoapBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.telecom.enterprise.backend.benchmark;
+
+import com.telecom.enterprise.backend.pricing.Money;
+import com.telecom.enterprise.backend.pricing.Rate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Prices a cart the way CartService.toDTO does: line totals, subtotal, tax rounded half-up to
+// cents, total. bigDecimal is the code Money replaced; money converts each stored BigDecimal
+// price at the boundary as the services do; moneyMinor starts from minor units to show the
+// arithmetic alone. Run main (or the JMH runner with -prof gc) for throughput and allocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+    
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.08");
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Rate TAX = Rate.of(TAX_RATE);
+    
+    @Param({"3", "20"})
+    private int lines;
+    
+    private BigDecimal[] prices;
+    private long[] minorPrices;
+    private int[] quantities;
+    
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        prices = new BigDecimal[lines];
+        minorPrices = new long[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            minorPrices[i] = random.nextLong(99, 150_000);
+            prices[i] = BigDecimal.valueOf(minorPrices[i], 2);
+            quantities[i] = random.nextInt(1, 5);
+        }
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            subtotal = subtotal.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        BigDecimal tax = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+        return subtotal.add(tax);
+    }
+    
+    @Benchmark
+    public Money money() {
+        Money subtotal = Money.zero(USD);
+        for (int i = 0; i < lines; i++) {
+            subtotal = subtotal.plus(Money.of(prices[i], USD, RoundingMode.HALF_UP).times(quantities[i]));
+        }
+        return subtotal.plus(subtotal.times(TAX, RoundingMode.HALF_UP));
+    }
+    
+    @Benchmark
+    public Money moneyMinor() {
+        Money subtotal = Money.zero(USD);
+        for (int i = 0; i < lines; i++) {
+            subtotal = subtotal.plus(Money.ofMinor(minorPrices[i], USD).times(quantities[i]));
+        }
+        return subtotal.plus(subtotal.times(TAX, RoundingMode.HALF_UP));
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.telecom.enterprise.backend.benchmark;
+
+import com.telecom.enterprise.backend.dto.UsageIngestDTO;
+import com.telecom.enterprise.backend.service.UsageRatingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// End-to-end ingest of a 20-million-record CdrGenerator file through UsageRatingService: the
+// mapped parallel parse, the merge, the aggregate upserts and the file record in one
+// transaction, and the archive move. Minutes of work with a file of about 700 MB, so surefire
+// skips it by name; run it with mvn test -Dtest=UsageIngestBenchmark. CdrIngestBenchmark
+// breaks the parse and aggregation down under JMH.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usageingestbench;DB_CLOSE_DELAY=-1",
+        "app.usage.generator.enabled=true"})
+@ActiveProfiles("test")
+class UsageIngestBenchmark {
+    
+    private static final long RECORDS = 20_000_000;
+    private static final int SUBSCRIBERS = 100_000;
+    
+    @TempDir
+    static Path usageDir;
+    
+    @DynamicPropertySource
+    static void usageDirectories(DynamicPropertyRegistry registry) {
+        registry.add("app.usage.inbox-dir", () -> usageDir.resolve("inbox").toString());
+        registry.add("app.usage.archive-dir", () -> usageDir.resolve("archive").toString());
+    }
+    
+    @Autowired
+    private UsageRatingService usageRatingService;
+    
+    @Test
+    void ingestGeneratedFile() throws Exception {
+        // Last month, so the period is still open but no CDR falls in the future
+        YearMonth period = YearMonth.now().minusMonths(1);
+        UsageIngestDTO generated = usageRatingService.generate(RECORDS, SUBSCRIBERS, period, 42);
+        System.out.printf("CDR generator: %d records in %d ms%n", generated.getAccepted(), generated.getDurationMillis());
+        
+        UsageIngestDTO ingested = usageRatingService.ingest();
+        
+        System.out.printf("CDR ingest: %d records in %d ms (%.0f records/s)%n",
+                ingested.getAccepted(), ingested.getDurationMillis(), ingested.getRecordsPerSecond());
+        assertThat(ingested.getFiles()).hasSize(1);
+        assertThat(ingested.getAccepted()).isEqualTo(RECORDS);
+        assertThat(ingested.getRejected()).isZero();
+        assertThat(ingested.getLate()).isZero();
+        assertThat(usageRatingService.getUsage(1L, period).getRecords()).isPositive();
+    }
+}
@@ -0,0 +1,88 @@
+package com.telecom.enterprise.backend.benchmark;
+
+import com.telecom.enterprise.backend.dto.UserImportResponse;
+import com.telecom.enterprise.backend.service.PasswordHashingService;
+import com.telecom.enterprise.backend.service.UserImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Timed import of a 50,000-row CSV through the real service: the email filter, the per-chunk
+// existence query, BCrypt on the shared password pool and the JDBC batches. It takes minutes at
+// the default BCrypt cost, so surefire skips it by name; run it with
+// mvn test -Dtest=UserImportBenchmark. Logins are sent while it runs to check they still get a
+// hash thread instead of a 429.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userimportbench;DB_CLOSE_DELAY=-1",
+        "app.users.import.max-rows=50000"})
+@ActiveProfiles("test")
+class UserImportBenchmark {
+    
+    private static final int ROWS = 50_000;
+    // Every 100th row repeats an earlier email in upper case
+    private static final int DUPLICATE_EVERY = 100;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Test
+    void import50kRows() throws Exception {
+        StringBuilder csv = new StringBuilder(ROWS * 64).append("email,password,first_name,last_name,city\n");
+        for (int i = 0; i < ROWS; i++) {
+            String email = i % DUPLICATE_EVERY == DUPLICATE_EVERY - 1
+                    ? ("bench-" + (i - 1) + "@telecom.com").toUpperCase(Locale.ROOT)
+                    : "bench-" + i + "@telecom.com";
+            csv.append(email).append(",Passw0rd-").append(i).append(",Bench,User").append(i).append(",Austin\n");
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+        
+        String storedHash = passwordHashingService.encode("login-password").join();
+        List<CompletableFuture<Boolean>> logins = new ArrayList<>();
+        Thread loginTraffic = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                logins.add(passwordHashingService.matches("login-password", storedHash));
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        
+        long started = System.nanoTime();
+        loginTraffic.start();
+        UserImportResponse response;
+        try {
+            response = userImportService.importUsers(new ByteArrayInputStream(body), UserImportService.Format.CSV);
+        } finally {
+            loginTraffic.interrupt();
+            loginTraffic.join();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        
+        System.out.printf("User import: %d rows in %d ms (%.0f rows/s), %d imported, %d duplicates%n",
+                response.getRows(), elapsedMillis, response.getRows() * 1000.0 / elapsedMillis,
+                response.getImported(), response.getDuplicates());
+        
+        assertThat(response.getRows()).isEqualTo(ROWS);
+        assertThat(response.getDuplicates()).isEqualTo(ROWS / DUPLICATE_EVERY);
+        assertThat(response.getImported()).isEqualTo(ROWS - ROWS / DUPLICATE_EVERY);
+        assertThat(response.getFailed()).isZero();
+        // The import holds back a thread, so no login was turned away
+        assertThat(logins).allSatisfy(login -> assertThat(login).succeedsWithin(Duration.ofSeconds(30)));
+    }
+}
@@ -0,0 +1,99 @@
+package com.telecom.enterprise.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A burst of logins far beyond the hash pool must not hold Tomcat threads, so catalog requests
+// made during the burst answer about as fast as before it. Tomcat is cut to a few threads, which
+// a synchronous login path would fill at once and keep busy for seconds, and the connection pool
+// stays at its default size, which logins holding a connection while they hash would drain.
+// Admitting the burst itself costs the first catalog calls a moment, so the p95 is taken over
+// enough samples to look past that.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.ssl.enabled=false",
+        // Its own database, since this context lives alongside the shared one
+        "spring.datasource.url=jdbc:h2:mem:loginspike;DB_CLOSE_DELAY=-1",
+        "server.tomcat.threads.max=8",
+        "app.security.login-throttle.enabled=false"})
+@ActiveProfiles("test")
+class LoginSpikeLatencyTest {
+    
+    private static final int LOGINS = 400;
+    private static final int SAMPLES = 100;
+    private static final int WARMUP_LOGINS = 20;
+    
+    @LocalServerPort
+    private int port;
+    
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    
+    @Test
+    void catalogLatencyStaysFlatDuringLoginSpike() throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(uri("/api/users/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"demo@telecom.com\",\"password\":\"not-the-password\"}"))
+                .build();
+        // Warm up both paths, so the spike measures contention rather than first-call compilation
+        for (int i = 0; i < WARMUP_LOGINS; i++) {
+            client.send(login, HttpResponse.BodyHandlers.discarding());
+        }
+        catalogLatencies(SAMPLES);
+        long baseline = p95(catalogLatencies(SAMPLES));
+        
+        List<CompletableFuture<HttpResponse<Void>>> logins = new ArrayList<>(LOGINS);
+        for (int i = 0; i < LOGINS; i++) {
+            logins.add(client.sendAsync(login, HttpResponse.BodyHandlers.discarding()));
+        }
+        long duringSpike = p95(catalogLatencies(SAMPLES));
+        
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).join();
+        // Every login was verified and refused, or turned away with 429 once the queue was full
+        assertThat(logins).allSatisfy(response -> assertThat(response.join().statusCode()).isIn(401, 429));
+        // Generous bounds for a shared CI machine: the burst is still hashing on every core
+        assertThat(duringSpike).isLessThan(Math.max(baseline * 10, 500));
+    }
+    
+    private long[] catalogLatencies(int samples) throws Exception {
+        HttpRequest products = HttpRequest.newBuilder(uri("/api/products"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long[] latencies = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(products, HttpResponse.BodyHandlers.discarding());
+            latencies[i] = (System.nanoTime() - start) / 1_000_000;
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        return latencies;
+    }
+    
+    private static long p95(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+    }
+    
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,90 @@
+package com.telecom.enterprise.backend.entity;
+
+import com.telecom.enterprise.backend.dto.CreateOrderRequest;
+import com.telecom.enterprise.backend.dto.OrderDTO;
+import com.telecom.enterprise.backend.dto.OrderItemRequest;
+import com.telecom.enterprise.backend.repository.ProductRepository;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import com.telecom.enterprise.backend.service.OrderService;
+import com.telecom.enterprise.backend.support.SqlRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PooledSequenceBatchingTest {
+    
+    private static final int LINES = 120;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 50;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void createOrderBatchesItemInsertsAndPoolsSequenceCalls() {
+        // A user of its own, since createOrder clears the buyer's cart
+        Long userId = userRepository.save(User.builder()
+                .email("batching-" + UUID.randomUUID().toString().substring(0, 8) + "@telecom.com")
+                .password("not-a-hash")
+                .firstName("Batch")
+                .lastName("Insert")
+                .active(true)
+                .build()).getId();
+        List<Product> products = productRepository.findAll();
+        List<OrderItemRequest> items = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            items.add(new OrderItemRequest(products.get(i % products.size()).getId(), 1 + i % 3));
+        }
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .userId(userId)
+                .items(items)
+                .paymentMethod("CREDIT_CARD")
+                .build();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        statistics.clear();
+        SqlRecorder.start();
+        OrderDTO order;
+        List<String> statements;
+        try {
+            order = orderService.createOrder(request);
+        } finally {
+            statements = SqlRecorder.stop();
+        }
+        
+        assertThat(order.getItems()).hasSize(LINES);
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(LINES + 1);
+        // The order cascades to its items, which go out in JDBC batches: one prepare per batch
+        // where one INSERT per line used to be sent
+        assertThat(SqlRecorder.count(statements, "insert into orders")).isEqualTo(1);
+        assertThat(SqlRecorder.count(statements, "insert into order_items"))
+                .isPositive()
+                .isLessThanOrEqualTo((LINES + BATCH_SIZE - 1) / BATCH_SIZE);
+        // One sequence call per block of fifty ids at most; the pooled optimizer may fetch one
+        // extra block when it initialises, and blocks left over from earlier tests need none
+        assertThat(SqlRecorder.count(statements, "order_items_seq"))
+                .isLessThanOrEqualTo((LINES + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE + 1);
+        assertThat(SqlRecorder.count(statements, "orders_seq")).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,96 @@
+package com.telecom.enterprise.backend.graphql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ResponseError;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rejections by QueryCostInstrumentation over the HTTP endpoint, with limits small enough to reach
+// with ordinary queries. Anonymous callers are budgeted by address with X-Forwarded-For trusted
+// from one proxy, so each test names its own client in the rightmost entry.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:graphqlcost;DB_CLOSE_DELAY=-1",
+        "app.graphql.cost.max-depth=5",
+        "app.graphql.cost.max-complexity=300",
+        "app.graphql.cost.budget.capacity=1000",
+        "app.graphql.cost.budget.refill-per-second=1",
+        "app.security.login-throttle.trust-forwarded-for=true",
+        "app.security.login-throttle.trusted-proxies=1"})
+@AutoConfigureMockMvc
+@AutoConfigureHttpGraphQlTester
+@ActiveProfiles("test")
+class GraphQLQueryCostTest {
+    
+    // Depth 6: user, orders, user, orders, items, quantity
+    private static final String TOO_DEEP = """
+            { user(id: 1) { orders { user { orders { items { quantity } } } } } }""";
+    
+    // 5 + 3 + 20 orders * (3 + 5 items * 3): depth 5 but cost 368
+    private static final String TOO_COMPLEX = """
+            { user(id: 1) { orders { items { product { name } } } } }""";
+    
+    // 5 + 20 orders * 3 = 65, so a budget of 1000 covers 15 of them
+    private static final String MODERATE = """
+            { userOrders(userId: 1) { items { quantity } } }""";
+    
+    @Autowired
+    private HttpGraphQlTester graphQlTester;
+    
+    @Test
+    void rejectsQueriesDeeperThanTheLimit() {
+        ResponseError error = singleError(client("203.0.113.1"), TOO_DEEP);
+        
+        assertThat(error.getExtensions())
+                .containsEntry("code", "QUERY_TOO_DEEP")
+                .containsEntry("depth", 6)
+                .containsEntry("maxDepth", 5);
+    }
+    
+    @Test
+    void rejectsQueriesCostlierThanTheLimit() {
+        ResponseError error = singleError(client("203.0.113.2"), TOO_COMPLEX);
+        
+        assertThat(error.getExtensions())
+                .containsEntry("code", "QUERY_TOO_COMPLEX")
+                .containsEntry("cost", 368)
+                .containsEntry("maxCost", 300);
+    }
+    
+    @Test
+    void rejectsQueriesOnceTheClientBudgetIsSpent() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            // The client's own entry changes every time; only the proxy's entry names the client
+            HttpGraphQlTester tester = graphQlTester.mutate()
+                    .header("X-Forwarded-For", "198.51.100." + i + ", 203.0.113.3")
+                    .build();
+            tester.document(MODERATE).execute().errors().satisfy(errors ->
+                    codes.add(errors.isEmpty() ? null : (String) errors.get(0).getExtensions().get("code")));
+        }
+        
+        assertThat(codes.subList(0, 15)).containsOnlyNulls();
+        assertThat(codes.get(15)).isEqualTo("QUERY_BUDGET_EXHAUSTED");
+        // Another client still has its whole budget
+        client("203.0.113.4").document(MODERATE).execute().errors().verify();
+    }
+    
+    private HttpGraphQlTester client(String address) {
+        return graphQlTester.mutate().header("X-Forwarded-For", address).build();
+    }
+    
+    private static ResponseError singleError(HttpGraphQlTester tester, String document) {
+        List<ResponseError> errors = new ArrayList<>();
+        tester.document(document).execute().errors().satisfy(errors::addAll);
+        assertThat(errors).hasSize(1);
+        return errors.get(0);
+    }
+}
@@ -0,0 +1,220 @@
+package com.telecom.enterprise.backend.graphql;
+
+import com.telecom.enterprise.backend.entity.BillingRecord;
+import com.telecom.enterprise.backend.entity.Cart;
+import com.telecom.enterprise.backend.entity.CartItem;
+import com.telecom.enterprise.backend.entity.Order;
+import com.telecom.enterprise.backend.entity.OrderItem;
+import com.telecom.enterprise.backend.entity.Product;
+import com.telecom.enterprise.backend.entity.User;
+import com.telecom.enterprise.backend.repository.BillingRepository;
+import com.telecom.enterprise.backend.repository.CartRepository;
+import com.telecom.enterprise.backend.repository.OrderRepository;
+import com.telecom.enterprise.backend.repository.ProductRepository;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statements per GraphQL query shape, counted by Hibernate statistics over the HTTP endpoint.
+// Each shape runs against a customer with one order and against one with many orders, cart
+// items and bills spread over many products; with every relation batch-loaded the two counts
+// are equal, and they stay within one statement per level of the query.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:graphqlstatements;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureHttpGraphQlTester
+@ActiveProfiles("test")
+class GraphQLStatementCountTest {
+    
+    private static final String USER_ORDERS = """
+            query($userId: ID!) {
+              userOrders(userId: $userId) {
+                orderNumber
+                items { quantity product { name features additionalImages } }
+              }
+            }""";
+    
+    private static final String USER_WITH_RELATIONS = """
+            query($id: ID!) {
+              user(id: $id) {
+                email
+                orders { orderNumber total }
+                cart { total items { quantity product { name features } } }
+                billingHistory { invoiceNumber totalAmount }
+              }
+            }""";
+    
+    private static final String PRODUCTS = """
+            { products { name price features additionalImages } }""";
+    
+    @Autowired
+    private HttpGraphQlTester graphQlTester;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private CartRepository cartRepository;
+    
+    @Autowired
+    private BillingRepository billingRepository;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void userOrdersWithItemsAndProducts() {
+        Long small = createCustomer(1, 1, 1, 1);
+        Long large = createCustomer(12, 4, 6, 10);
+        
+        long smallCount = statements(USER_ORDERS, "userId", small);
+        long largeCount = statements(USER_ORDERS, "userId", large);
+        
+        assertThat(largeCount).isEqualTo(smallCount);
+        // Orders, their items, the items' products, and one subselect per product collection
+        assertThat(largeCount).isLessThanOrEqualTo(5);
+    }
+    
+    @Test
+    void userWithOrdersCartAndBillingHistory() {
+        Long small = createCustomer(1, 1, 1, 1);
+        Long large = createCustomer(12, 4, 6, 10);
+        
+        long smallCount = statements(USER_WITH_RELATIONS, "id", small);
+        long largeCount = statements(USER_WITH_RELATIONS, "id", large);
+        
+        assertThat(largeCount).isEqualTo(smallCount);
+        // The user, their orders, the cart with its items, the items' products and their
+        // features, and the bills
+        assertThat(largeCount).isLessThanOrEqualTo(7);
+    }
+    
+    @Test
+    void productsWithCollections() {
+        long before = statements(PRODUCTS, null, null);
+        addProducts(25);
+        long after = statements(PRODUCTS, null, null);
+        
+        assertThat(after).isEqualTo(before);
+        // The products, then one subselect each for features and images
+        assertThat(after).isLessThanOrEqualTo(3);
+    }
+    
+    private long statements(String document, String variable, Object value) {
+        GraphQlTester.Request<?> request = graphQlTester.document(document);
+        if (variable != null) {
+            request = request.variable(variable, value);
+        }
+        statistics.clear();
+        request.execute().errors().verify();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private Long createCustomer(int orders, int itemsPerOrder, int cartItems, int bills) {
+        return transactionTemplate.execute(status -> {
+            String tag = UUID.randomUUID().toString().substring(0, 8);
+            List<Product> products = productRepository.findAll();
+            User user = userRepository.save(User.builder()
+                    .email("graphql-" + tag + "@telecom.com")
+                    .password("not-a-hash")
+                    .firstName("Graph")
+                    .lastName("Ql")
+                    .active(true)
+                    .build());
+            
+            int next = 0;
+            for (int o = 0; o < orders; o++) {
+                Order order = Order.builder()
+                        .orderNumber("GQL-" + tag + "-" + o)
+                        .user(user)
+                        .subtotal(BigDecimal.TEN)
+                        .total(BigDecimal.TEN)
+                        .build();
+                for (int i = 0; i < itemsPerOrder; i++) {
+                    Product product = products.get(next++ % products.size());
+                    order.getItems().add(OrderItem.builder()
+                            .order(order)
+                            .product(product)
+                            .productName(product.getName())
+                            .quantity(1)
+                            .unitPrice(product.getPrice())
+                            .totalPrice(product.getPrice())
+                            .build());
+                }
+                orderRepository.save(order);
+            }
+            
+            Cart cart = Cart.builder().user(user).build();
+            for (int i = 0; i < cartItems; i++) {
+                cart.getItems().add(CartItem.builder()
+                        .cart(cart)
+                        .product(products.get(next++ % products.size()))
+                        .quantity(2)
+                        .build());
+            }
+            cartRepository.save(cart);
+            
+            for (int b = 0; b < bills; b++) {
+                billingRepository.save(BillingRecord.builder()
+                        .user(user)
+                        .invoiceNumber("GQL-INV-" + tag + "-" + b)
+                        .amount(BigDecimal.TEN)
+                        .tax(BigDecimal.ONE)
+                        .totalAmount(BigDecimal.valueOf(11))
+                        .billingDate(LocalDate.now())
+                        .dueDate(LocalDate.now().plusDays(30))
+                        .billingType(BillingRecord.BillingType.SUBSCRIPTION)
+                        .build());
+            }
+            return user.getId();
+        });
+    }
+    
+    private void addProducts(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                productRepository.save(Product.builder()
+                        .name("GraphQL product " + i)
+                        .price(BigDecimal.valueOf(10 + i))
+                        .category("Accessories")
+                        .additionalImages(List.of("/images/extra-" + i + ".png"))
+                        .features(List.of("Feature " + i, "Another feature"))
+                        .active(true)
+                        .build());
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.CreateOrderRequest;
+import com.telecom.enterprise.backend.dto.OrderDTO;
+import com.telecom.enterprise.backend.dto.OrderItemRequest;
+import com.telecom.enterprise.backend.dto.PaymentRequest;
+import com.telecom.enterprise.backend.dto.PaymentResponse;
+import com.telecom.enterprise.backend.entity.User;
+import com.telecom.enterprise.backend.repository.ProductRepository;
+import com.telecom.enterprise.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentRetryTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void retryingAPaidOrderReturnsTheOriginalPayment() {
+        Long userId = userRepository.save(User.builder()
+                .email("retry-" + UUID.randomUUID().toString().substring(0, 8) + "@telecom.com")
+                .password("not-a-hash")
+                .firstName("Retry")
+                .lastName("Payment")
+                .active(true)
+                .build()).getId();
+        OrderDTO order = orderService.createOrder(CreateOrderRequest.builder()
+                .userId(userId)
+                .items(List.of(new OrderItemRequest(productRepository.findAll().get(0).getId(), 1)))
+                .paymentMethod("CREDIT_CARD")
+                .build());
+        PaymentRequest request = PaymentRequest.builder()
+                .orderId(order.getOrderNumber())
+                .paymentMethod("CREDIT_CARD")
+                .build();
+        
+        // The simulated gateway declines one payment in ten
+        PaymentResponse paid = orderService.processPayment(request);
+        for (int attempt = 1; !paid.isSuccess() && attempt < 20; attempt++) {
+            paid = orderService.processPayment(request);
+        }
+        assertThat(paid.isSuccess()).isTrue();
+        
+        PaymentResponse retried = orderService.processPayment(request);
+        
+        assertThat(retried.isSuccess()).isTrue();
+        assertThat(retried.getTransactionId()).isEqualTo(paid.getTransactionId());
+        assertThat(retried.getStatus()).isEqualTo("COMPLETED");
+    }
+}
@@ -0,0 +1,43 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.UserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfileCacheTest {
+    
+    @Test
+    void callersCannotChangeTheCachedProfile() {
+        ProfileCache cache = cache();
+        AtomicInteger loads = new AtomicInteger();
+        
+        UserDTO loaded = cache.getById(1L, () -> {
+            loads.incrementAndGet();
+            return UserDTO.builder().id(1L).email("a@example.com").firstName("Ada").active(true).build();
+        });
+        loaded.setFirstName("Mallory");
+        UserDTO hit = cache.getById(1L, () -> null);
+        hit.setActive(false);
+        
+        UserDTO again = cache.getById(1L, () -> null);
+        assertThat(loads).hasValue(1);
+        assertThat(again).isNotSameAs(hit);
+        assertThat(again.getFirstName()).isEqualTo("Ada");
+        assertThat(again.isActive()).isTrue();
+    }
+    
+    private static ProfileCache cache() {
+        ProfileCache cache = new ProfileCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        cache.init();
+        return cache;
+    }
+}
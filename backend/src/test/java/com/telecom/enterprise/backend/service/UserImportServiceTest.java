@@ -0,0 +1,40 @@
+package com.telecom.enterprise.backend.service;
+
+import com.telecom.enterprise.backend.dto.UserImportResponse;
+import com.telecom.enterprise.backend.dto.UserImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportServiceTest {
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Test
+    void emailsAreDedupedRegardlessOfCase() throws Exception {
+        String email = "import-" + UUID.randomUUID().toString().substring(0, 8) + "@telecom.com";
+        String csv = "email,password,first_name,last_name\n"
+                + "DEMO@Telecom.com,secret,Demo,Again\n"
+                + email + ",secret,New,User\n"
+                + email.toUpperCase(Locale.ROOT) + ",secret,New,Again\n";
+        
+        UserImportResponse response = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.CSV);
+        
+        assertThat(response.getResults()).extracting(UserImportResult::getStatus)
+                .containsExactly(UserImportService.DUPLICATE, UserImportService.IMPORTED, UserImportService.DUPLICATE);
+        assertThat(response.getResults().get(0).getMessage()).isEqualTo("Email already registered");
+        assertThat(response.getResults().get(2).getMessage()).isEqualTo("Email appears earlier in the file");
+    }
+}
@@ -0,0 +1,39 @@
+package com.telecom.enterprise.backend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Hibernate statement inspector, registered by the test profile, that keeps the SQL prepared on
+// the current thread between start() and stop(). Hibernate sees one prepare per JDBC batch, so
+// counting inserts here counts batches rather than rows.
+public class SqlRecorder implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql.toLowerCase(Locale.ROOT));
+        }
+        return sql;
+    }
+    
+    public static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+    
+    public static List<String> stop() {
+        List<String> recorded = RECORDED.get();
+        RECORDED.remove();
+        return recorded != null ? recorded : List.of();
+    }
+    
+    public static long count(List<String> statements, String fragment) {
+        String needle = fragment.toLowerCase(Locale.ROOT);
+        return statements.stream().filter(sql -> sql.contains(needle)).count();
+    }
+}
@@ -0,0 +1,52 @@
+package com.telecom.enterprise.backend.throttle;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientAddressResolverTest {
+    
+    @Test
+    void ignoresForwardedForUnlessTrusted() {
+        ClientAddressResolver resolver = resolver(false, 1);
+        
+        assertThat(resolver.resolve(request("203.0.113.7"))).isEqualTo("10.0.0.5");
+    }
+    
+    @Test
+    void takesTheEntryAppendedByTheTrustedProxy() {
+        ClientAddressResolver resolver = resolver(true, 1);
+        
+        assertThat(resolver.resolve(request("203.0.113.7"))).isEqualTo("203.0.113.7");
+        // A client rotating its own X-Forwarded-For still lands on the address the proxy saw
+        assertThat(resolver.resolve(request("198.51.100.1, 203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(resolver.resolve(request("198.51.100.2, 203.0.113.7"))).isEqualTo("203.0.113.7");
+    }
+    
+    @Test
+    void countsTrustedProxiesFromTheRight() {
+        ClientAddressResolver resolver = resolver(true, 2);
+        
+        assertThat(resolver.resolve(request("198.51.100.1, 203.0.113.7, 10.1.0.2"))).isEqualTo("203.0.113.7");
+        assertThat(resolver.resolve(request("203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(resolver.resolve(request(null))).isEqualTo("10.0.0.5");
+    }
+    
+    private static ClientAddressResolver resolver(boolean trust, int proxies) {
+        ClientAddressResolver resolver = new ClientAddressResolver();
+        ReflectionTestUtils.setField(resolver, "trustForwardedFor", trust);
+        ReflectionTestUtils.setField(resolver, "trustedProxies", proxies);
+        return resolver;
+    }
+    
+    private static MockHttpServletRequest request(String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.5");
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.telecom.enterprise.bff.order.config;
+
+import com.telecom.enterprise.bff.order.service.AccessTokenVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Exposes a verified bearer token as the "accessToken" request attribute. With
+// app.security.token.required off, requests without a valid token pass through as before.
+@Component
+@RequiredArgsConstructor
+public class AccessTokenFilter extends OncePerRequestFilter {
+    
+    public static final String ATTRIBUTE = "accessToken";
+    private static final String BEARER = "Bearer ";
+    
+    private final AccessTokenVerifier accessTokenVerifier;
+    
+    @Value("${app.security.token.required:false}")
+    private boolean required;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AccessTokenVerifier.AccessToken token = header != null && header.startsWith(BEARER)
+                ? accessTokenVerifier.verify(header.substring(BEARER.length()).trim())
+                : null;
+        
+        if (token != null) {
+            request.setAttribute(ATTRIBUTE, token);
+        } else if (required && requiresToken(request)) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    private boolean requiresToken(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/api/v1/")
+                && !path.startsWith("/api/v1/auth/")
+                && !"OPTIONS".equals(request.getMethod());
+    }
+}
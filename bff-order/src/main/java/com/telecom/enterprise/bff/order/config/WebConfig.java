@@ -3,10 +3,16 @@ package com.telecom.enterprise.bff.order.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 
 import java.util.Arrays;
 import java.util.List;
@@ -14,6 +20,8 @@ import java.util.List;
 @Configuration
 public class WebConfig {
     
+    private static final String CALLER_AUTHORIZATION = WebConfig.class.getName() + ".authorization";
+    
     @Value("${backend.url:http://localhost:9080}")
     private String backendUrl;
     
@@ -21,9 +29,33 @@ public class WebConfig {
     public WebClient backendWebClient() {
         return WebClient.builder()
                 .baseUrl(backendUrl)
+                .filter(forwardAuthorization())
                 .build();
     }
     
+    // The caller's Authorization header as Reactor context. Controllers capture the header on the
+    // request thread and attach it with contextWrite, so it reaches every backend call in the
+    // chain whichever thread subscribes to it.
+    public static ContextView callerAuthorization(String authorization) {
+        return authorization == null ? Context.empty() : Context.of(CALLER_AUTHORIZATION, authorization);
+    }
+    
+    // Passes the caller's bearer token on to the backend, which checks it again when
+    // app.security.token.required is on. Calls made outside a request, like the revocation poll,
+    // carry no token in their context, and calls that set their own header are left alone.
+    private static ExchangeFilterFunction forwardAuthorization() {
+        return (request, next) -> {
+            if (request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+                return next.exchange(request);
+            }
+            return Mono.deferContextual(context -> context.<String>getOrEmpty(CALLER_AUTHORIZATION)
+                    .map(authorization -> next.exchange(ClientRequest.from(request)
+                            .header(HttpHeaders.AUTHORIZATION, authorization)
+                            .build()))
+                    .orElseGet(() -> next.exchange(request)));
+        };
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -1,10 +1,12 @@
 package com.telecom.enterprise.bff.order.controller;
 
+import com.telecom.enterprise.bff.order.config.WebConfig;
 import com.telecom.enterprise.bff.order.dto.*;
 import com.telecom.enterprise.bff.order.service.OrderBffService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
@@ -23,53 +25,71 @@ public class OrderBffController {
     // Product endpoints
     @GetMapping("/products")
     @Operation(summary = "Get all products")
-    public Mono<ResponseEntity<List<ProductDTO>>> getAllProducts() {
+    public Mono<ResponseEntity<List<ProductDTO>>> getAllProducts(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getAllProducts()
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/products/{productId}")
     @Operation(summary = "Get product by ID")
-    public Mono<ResponseEntity<ProductDTO>> getProduct(@PathVariable Long productId) {
+    public Mono<ResponseEntity<ProductDTO>> getProduct(
+            @PathVariable Long productId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getProduct(productId)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/products/category/{category}")
     @Operation(summary = "Get products by category")
-    public Mono<ResponseEntity<List<ProductDTO>>> getProductsByCategory(@PathVariable String category) {
+    public Mono<ResponseEntity<List<ProductDTO>>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getProductsByCategory(category)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/products/featured")
     @Operation(summary = "Get featured products")
-    public Mono<ResponseEntity<List<ProductDTO>>> getFeaturedProducts() {
+    public Mono<ResponseEntity<List<ProductDTO>>> getFeaturedProducts(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getFeaturedProducts()
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/products/search")
     @Operation(summary = "Search products")
-    public Mono<ResponseEntity<List<ProductDTO>>> searchProducts(@RequestParam String query) {
+    public Mono<ResponseEntity<List<ProductDTO>>> searchProducts(
+            @RequestParam String query,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.searchProducts(query)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/categories")
     @Operation(summary = "Get all categories")
-    public Mono<ResponseEntity<List<String>>> getCategories() {
+    public Mono<ResponseEntity<List<String>>> getCategories(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getCategories()
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     // Cart endpoints
     @GetMapping("/cart/{userId}")
     @Operation(summary = "Get user cart")
-    public Mono<ResponseEntity<CartDTO>> getCart(@PathVariable Long userId) {
+    public Mono<ResponseEntity<CartDTO>> getCart(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getCart(userId)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @PostMapping("/cart/{userId}/items")
@@ -77,9 +97,11 @@ public class OrderBffController {
     public Mono<ResponseEntity<CartDTO>> addToCart(
             @PathVariable Long userId,
             @RequestParam Long productId,
-            @RequestParam(defaultValue = "1") Integer quantity) {
+            @RequestParam(defaultValue = "1") Integer quantity,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.addToCart(userId, productId, quantity)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @PutMapping("/cart/{userId}/items/{itemId}")
@@ -87,73 +109,98 @@ public class OrderBffController {
     public Mono<ResponseEntity<CartDTO>> updateCartItem(
             @PathVariable Long userId,
             @PathVariable Long itemId,
-            @RequestParam Integer quantity) {
+            @RequestParam Integer quantity,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.updateCartItem(userId, itemId, quantity)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @DeleteMapping("/cart/{userId}/items/{itemId}")
     @Operation(summary = "Remove item from cart")
     public Mono<ResponseEntity<CartDTO>> removeFromCart(
             @PathVariable Long userId,
-            @PathVariable Long itemId) {
+            @PathVariable Long itemId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.removeFromCart(userId, itemId)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @DeleteMapping("/cart/{userId}")
     @Operation(summary = "Clear cart")
-    public Mono<ResponseEntity<Void>> clearCart(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Void>> clearCart(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.clearCart(userId)
-                .then(Mono.just(ResponseEntity.noContent().build()));
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     // Order endpoints
     @PostMapping("/orders")
     @Operation(summary = "Create a new order")
-    public Mono<ResponseEntity<OrderDTO>> createOrder(@RequestBody CreateOrderRequest request) {
+    public Mono<ResponseEntity<OrderDTO>> createOrder(
+            @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.createOrder(request)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/orders/{orderId}")
     @Operation(summary = "Get order by ID")
-    public Mono<ResponseEntity<OrderDTO>> getOrder(@PathVariable Long orderId) {
+    public Mono<ResponseEntity<OrderDTO>> getOrder(
+            @PathVariable Long orderId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getOrder(orderId)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/orders/number/{orderNumber}")
     @Operation(summary = "Get order by order number")
-    public Mono<ResponseEntity<OrderDTO>> getOrderByNumber(@PathVariable String orderNumber) {
+    public Mono<ResponseEntity<OrderDTO>> getOrderByNumber(
+            @PathVariable String orderNumber,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getOrderByNumber(orderNumber)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/orders/user/{userId}")
     @Operation(summary = "Get user orders")
-    public Mono<ResponseEntity<List<OrderDTO>>> getUserOrders(@PathVariable Long userId) {
+    public Mono<ResponseEntity<List<OrderDTO>>> getUserOrders(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.getUserOrders(userId)
-                .map(ResponseEntity::ok);
+                .map(ResponseEntity::ok)
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/orders/track/{trackingNumber}")
     @Operation(summary = "Track order by tracking number")
-    public Mono<ResponseEntity<OrderDTO>> trackOrder(@PathVariable String trackingNumber) {
+    public Mono<ResponseEntity<OrderDTO>> trackOrder(
+            @PathVariable String trackingNumber,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.trackOrder(trackingNumber)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     // Payment endpoint
     @PostMapping("/payments")
     @Operation(summary = "Process payment")
-    public Mono<ResponseEntity<PaymentResponse>> processPayment(@RequestBody PaymentRequest request) {
+    public Mono<ResponseEntity<PaymentResponse>> processPayment(
+            @RequestBody PaymentRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return orderBffService.processPayment(request)
                 .map(response -> response.isSuccess() 
                         ? ResponseEntity.ok(response) 
-                        : ResponseEntity.badRequest().body(response));
+                        : ResponseEntity.badRequest().body(response))
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
 }
@@ -0,0 +1,17 @@
+package com.telecom.enterprise.bff.order.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevocationDeltaDTO {
+    private String epoch;
+    private long sequence;
+    private boolean full;
+    private long[] tokenIds;
+    private long[] tokenExpiries;
+    private long[] userIds;
+    private long[] userCutoffs;
+}
@@ -0,0 +1,192 @@
+package com.telecom.enterprise.bff.order.service;
+
+import java.util.Arrays;
+
+// Open-addressing map from long to long with linear probing and backward-shift deletion, so
+// an entry costs two array slots and no objects. Keys and values are interleaved in one array:
+// a reader holding a stale reference during a resize sees a consistent, if outdated, table,
+// which lets callers read under an optimistic lock. Key 0 marks empty slots and is kept aside.
+// Not thread-safe. The backend and both BFFs each carry this same copy, since they are separate
+// applications with no module in common; change all three together.
+public class LongLongMap {
+    
+    private static final long EMPTY = 0;
+    
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroValue;
+    
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+    
+    public interface EntryPredicate {
+        boolean test(long key, long value);
+    }
+    
+    public LongLongMap(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedEntries) * 2 - 1) << 1;
+        table = new long[capacity * 2];
+        mask = capacity - 1;
+    }
+    
+    public long get(long key, long missing) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        long[] slots = table;
+        int i = probe(slots, key);
+        return i < 0 ? missing : slots[(i << 1) + 1];
+    }
+    
+    public boolean containsKey(long key) {
+        if (key == EMPTY) {
+            return hasZeroKey;
+        }
+        return probe(table, key) >= 0;
+    }
+    
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            size += hasZeroKey ? 0 : 1;
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = mix(key) & mask;
+        while (true) {
+            long candidate = table[i << 1];
+            if (candidate == key) {
+                table[(i << 1) + 1] = value;
+                return;
+            }
+            if (candidate == EMPTY) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        // Value before key, so an optimistic reader never pairs the key with a stale value
+        table[(i << 1) + 1] = value;
+        table[i << 1] = key;
+        if (++size * 2 > mask + 1) {
+            resize();
+        }
+    }
+    
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int hole = probe(table, key);
+        if (hole < 0) {
+            return false;
+        }
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long candidate = table[i << 1];
+            if (candidate == EMPTY) {
+                break;
+            }
+            int home = mix(candidate) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                table[(hole << 1) + 1] = table[(i << 1) + 1];
+                table[hole << 1] = candidate;
+                hole = i;
+            }
+        }
+        table[hole << 1] = EMPTY;
+        size--;
+        return true;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(EMPTY, zeroValue);
+        }
+        for (int i = 0; i <= mask; i++) {
+            long key = table[i << 1];
+            if (key != EMPTY) {
+                consumer.accept(key, table[(i << 1) + 1]);
+            }
+        }
+    }
+    
+    // Collects the matching keys first, since removal shifts entries under a running scan
+    public int removeIf(EntryPredicate predicate) {
+        long[] matched = new long[16];
+        int count = 0;
+        if (hasZeroKey && predicate.test(EMPTY, zeroValue)) {
+            hasZeroKey = false;
+            size--;
+        }
+        for (int i = 0; i <= mask; i++) {
+            long key = table[i << 1];
+            if (key != EMPTY && predicate.test(key, table[(i << 1) + 1])) {
+                if (count == matched.length) {
+                    matched = Arrays.copyOf(matched, count * 2);
+                }
+                matched[count++] = key;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            remove(matched[i]);
+        }
+        return count;
+    }
+    
+    // Works on the array it is handed and is bounded, so a reader racing a writer gets a wrong
+    // answer to revalidate rather than an exception or an endless probe
+    private static int probe(long[] slots, long key) {
+        int slotMask = (slots.length >>> 1) - 1;
+        int i = mix(key) & slotMask;
+        for (int probes = 0; probes <= slotMask; probes++) {
+            long candidate = slots[i << 1];
+            if (candidate == key) {
+                return i;
+            }
+            if (candidate == EMPTY) {
+                return -1;
+            }
+            i = (i + 1) & slotMask;
+        }
+        return -1;
+    }
+    
+    // Builds the new table completely before publishing it
+    private void resize() {
+        long[] old = table;
+        int capacity = (mask + 1) * 2;
+        long[] resized = new long[capacity * 2];
+        int resizedMask = capacity - 1;
+        for (int i = 0; i < old.length; i += 2) {
+            long key = old[i];
+            if (key != EMPTY) {
+                int j = mix(key) & resizedMask;
+                while (resized[j << 1] != EMPTY) {
+                    j = (j + 1) & resizedMask;
+                }
+                resized[j << 1] = key;
+                resized[(j << 1) + 1] = old[i + 1];
+            }
+        }
+        mask = resizedMask;
+        table = resized;
+    }
+    
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,165 @@
+package com.telecom.enterprise.bff.order.service;
+
+import com.telecom.enterprise.bff.order.dto.RevocationDeltaDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+// Local replica of the backend's token revocations, so a revoked token is turned away here
+// without a call per request. A poller fetches what was revoked since the last sequence it
+// applied and merges it in; checks are two primitive-map probes under an optimistic read.
+// Snapshots are merged rather than swapped in, so revocations survive a backend restart here
+// until the tokens expire, and a periodic sweep drops entries that can no longer match.
+// If the backend is unreachable the last known revocations keep being enforced. Both BFFs carry
+// this class, differing only in package, as they share no module; change them together.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationList {
+    
+    private static final long NO_CUTOFF = Long.MIN_VALUE;
+    
+    private final WebClient backendWebClient;
+    
+    @Value("${app.security.revocations.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.security.revocations.poll-interval:PT2S}")
+    private Duration pollInterval;
+    
+    @Value("${app.security.revocations.timeout:PT5S}")
+    private Duration timeout;
+    
+    @Value("${app.security.revocations.sweep-interval:PT1M}")
+    private Duration sweepInterval;
+    
+    private final StampedLock lock = new StampedLock();
+    // Token id -> expiry (epoch seconds)
+    private final LongLongMap tokens = new LongLongMap(1024);
+    // User id -> cutoff (epoch seconds)
+    private final LongLongMap users = new LongLongMap(1024);
+    // Only touched by the poller thread
+    private String epoch;
+    private long sequence;
+    private ScheduledExecutorService poller;
+    
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(namedThreads("revocation-poll-"));
+        poller.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::sweep, sweepInterval.toMillis(), sweepInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+    
+    public boolean isRevoked(long tokenId, long userId, long expiresAt) {
+        long stamp = lock.tryOptimisticRead();
+        boolean revoked = revoked(tokenId, userId, expiresAt);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                revoked = revoked(tokenId, userId, expiresAt);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return revoked;
+    }
+    
+    private boolean revoked(long tokenId, long userId, long expiresAt) {
+        return tokens.containsKey(tokenId) || expiresAt <= users.get(userId, NO_CUTOFF);
+    }
+    
+    // Applies a logout made through this BFF at once instead of on the next poll
+    public void revoke(long tokenId, long expiresAt) {
+        long stamp = lock.writeLock();
+        try {
+            tokens.put(tokenId, expiresAt);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    private void poll() {
+        try {
+            RevocationDeltaDTO delta = backendWebClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/sessions/revocations")
+                            .queryParamIfPresent("epoch", Optional.ofNullable(epoch))
+                            .queryParam("since", sequence)
+                            .build())
+                    .retrieve()
+                    .bodyToMono(RevocationDeltaDTO.class)
+                    .block(timeout);
+            if (delta != null) {
+                apply(delta);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh token revocations: {}", e.getMessage());
+        }
+    }
+    
+    private void apply(RevocationDeltaDTO delta) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < delta.getTokenIds().length; i++) {
+                tokens.put(delta.getTokenIds()[i], delta.getTokenExpiries()[i]);
+            }
+            for (int i = 0; i < delta.getUserIds().length; i++) {
+                long userId = delta.getUserIds()[i];
+                users.put(userId, Math.max(delta.getUserCutoffs()[i], users.get(userId, NO_CUTOFF)));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (delta.isFull()) {
+            log.info("Token revocations resynchronised: {} tokens, {} users at sequence {}",
+                    delta.getTokenIds().length, delta.getUserIds().length, delta.getSequence());
+        }
+        epoch = delta.getEpoch();
+        sequence = delta.getSequence();
+    }
+    
+    private void sweep() {
+        long now = Instant.now().getEpochSecond();
+        long stamp = lock.writeLock();
+        try {
+            tokens.removeIf((tokenId, expiresAt) -> expiresAt < now);
+            users.removeIf((userId, cutoff) -> cutoff < now);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
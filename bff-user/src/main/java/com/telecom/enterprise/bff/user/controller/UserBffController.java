@@ -1,15 +1,28 @@
 package com.telecom.enterprise.bff.user.controller;
 
+import com.telecom.enterprise.bff.user.config.AccessTokenFilter;
+import com.telecom.enterprise.bff.user.config.WebConfig;
 import com.telecom.enterprise.bff.user.dto.*;
+import com.telecom.enterprise.bff.user.service.AccessTokenVerifier;
+import com.telecom.enterprise.bff.user.service.LoginThrottle;
+import com.telecom.enterprise.bff.user.service.RevocationList;
 import com.telecom.enterprise.bff.user.service.UserBffService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -19,11 +32,20 @@ import java.util.List;
 public class UserBffController {
     
     private final UserBffService userBffService;
+    private final LoginThrottle loginThrottle;
+    private final RevocationList revocationList;
     
     @PostMapping("/auth/login")
     @Operation(summary = "User login")
-    public Mono<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest request) {
-        return userBffService.login(request)
+    public Mono<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        String clientAddress = httpRequest.getRemoteAddr();
+        if (!loginThrottle.tryAcquire(request.getEmail(), clientAddress)) {
+            return Mono.just(ResponseEntity.status(429).body(AuthResponse.builder()
+                    .success(false)
+                    .message("Too many login attempts, try again later")
+                    .build()));
+        }
+        return userBffService.login(request, clientAddress)
                 .map(response -> response.isSuccess() 
                         ? ResponseEntity.ok(response) 
                         : ResponseEntity.status(401).body(response));
@@ -38,22 +60,41 @@ public class UserBffController {
                         : ResponseEntity.badRequest().body(response));
     }
     
+    // Rejected here at once; the backend then spreads the revocation to the other replicas
+    @PostMapping("/auth/logout")
+    @Operation(summary = "User logout")
+    public Mono<ResponseEntity<Void>> logout(
+            @RequestAttribute(name = AccessTokenFilter.ATTRIBUTE, required = false) AccessTokenVerifier.AccessToken token,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (token == null) {
+            return Mono.just(ResponseEntity.noContent().build());
+        }
+        revocationList.revoke(token.tokenId(), token.expiresAt());
+        return userBffService.logout(authorization)
+                .thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+    
     @GetMapping("/users/{userId}/profile")
     @Operation(summary = "Get user profile")
-    public Mono<ResponseEntity<UserDTO>> getProfile(@PathVariable Long userId) {
+    public Mono<ResponseEntity<UserDTO>> getProfile(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return userBffService.getProfile(userId)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @PutMapping("/users/{userId}/profile")
     @Operation(summary = "Update user profile")
     public Mono<ResponseEntity<UserDTO>> updateProfile(
             @PathVariable Long userId,
-            @RequestBody UserDTO updates) {
+            @RequestBody UserDTO updates,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return userBffService.updateProfile(userId, updates)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @PostMapping("/users/{userId}/password")
@@ -61,26 +102,91 @@ public class UserBffController {
     public Mono<ResponseEntity<String>> updatePassword(
             @PathVariable Long userId,
             @RequestParam String currentPassword,
-            @RequestParam String newPassword) {
+            @RequestParam String newPassword,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return userBffService.updatePassword(userId, currentPassword, newPassword)
                 .map(ResponseEntity::ok)
-                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .contextWrite(WebConfig.callerAuthorization(authorization));
+    }
+    
+    @GetMapping("/users/{userId}/balance")
+    @Operation(summary = "Get user account balance summary")
+    public Mono<ResponseEntity<AccountBalanceDTO>> getBalance(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return userBffService.getBalance(userId)
+                .map(ResponseEntity::ok)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(ResponseEntity.notFound().build()))
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @GetMapping("/users/{userId}/billing")
     @Operation(summary = "Get user billing history")
-    public Mono<ResponseEntity<List<BillingDTO>>> getBillingHistory(@PathVariable Long userId) {
-        return userBffService.getBillingHistory(userId)
-                .map(ResponseEntity::ok);
+    public Mono<ResponseEntity<StreamingResponseBody>> getBillingHistory(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return userBffService.streamBillingHistory(userId)
+                .map(this::relay)
+                .onErrorResume(WebClientResponseException.class, 
+                        e -> Mono.just(ResponseEntity.status(e.getStatusCode()).build()))
+                .contextWrite(WebConfig.callerAuthorization(authorization));
+    }
+    
+    @GetMapping("/users/{userId}/billing/statement")
+    @Operation(summary = "Download billing statement as CSV or printable text")
+    public Mono<ResponseEntity<StreamingResponseBody>> getStatement(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "CSV") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return userBffService.streamStatement(userId, format, from, to)
+                .map(this::relay)
+                .onErrorResume(WebClientResponseException.class, 
+                        e -> Mono.just(ResponseEntity.status(e.getStatusCode()).build()))
+                .contextWrite(WebConfig.callerAuthorization(authorization));
     }
     
     @PostMapping("/billing/{recordId}/pay")
     @Operation(summary = "Pay a bill")
     public Mono<ResponseEntity<BillingDTO>> payBill(
             @PathVariable Long recordId,
-            @RequestParam String paymentMethod) {
+            @RequestParam String paymentMethod,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         return userBffService.payBill(recordId, paymentMethod)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .contextWrite(WebConfig.callerAuthorization(authorization));
+    }
+    
+    @PostMapping("/users/{userId}/billing/pay")
+    @Operation(summary = "Pay selected bills, or all outstanding bills when none are listed")
+    public Mono<ResponseEntity<BulkPaymentResponse>> payBills(
+            @PathVariable Long userId,
+            @RequestBody BulkPaymentRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return userBffService.payBills(userId, request)
+                .map(ResponseEntity::ok)
+                .onErrorResume(WebClientResponseException.class, 
+                        e -> Mono.just(ResponseEntity.status(e.getStatusCode()).build()))
+                .contextWrite(WebConfig.callerAuthorization(authorization));
+    }
+    
+    // Copies backend chunks to the servlet output as they arrive, releasing each buffer once written
+    private ResponseEntity<StreamingResponseBody> relay(ResponseEntity<Flux<DataBuffer>> upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(upstream.getHeaders().getContentType());
+        String disposition = upstream.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
+        if (disposition != null) {
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        }
+        Flux<DataBuffer> body = upstream.getBody() != null ? upstream.getBody() : Flux.empty();
+        return ResponseEntity.status(upstream.getStatusCode())
+                .headers(headers)
+                .body(out -> DataBufferUtils.write(body, out)
+                        .doOnNext(DataBufferUtils::release)
+                        .then()
+                        .block());
     }
 }
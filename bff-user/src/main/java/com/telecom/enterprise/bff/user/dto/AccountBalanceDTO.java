@@ -0,0 +1,19 @@
+package com.telecom.enterprise.bff.user.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceDTO {
+    private Long userId;
+    private BigDecimal outstanding;
+    private BigDecimal overdue;
+    private BigDecimal paidYtd;
+    private LocalDate nextDueDate;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,106 @@
+package com.telecom.enterprise.bff.user.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+// Verifies the backend's access tokens (kid.claims.signature, HMAC-SHA256) locally with the
+// shared key list, so checking a caller costs one MAC and no call to the backend.
+// Per-thread Mac instances are keyed once at startup. Revoked tokens are rejected from the
+// locally replicated RevocationList. Key checks match the backend's AccessTokenService. Each
+// BFF is a standalone application with no module shared with the others, so this class is kept
+// identical in both BFFs; change them together.
+@Service
+@RequiredArgsConstructor
+public class AccessTokenVerifier {
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final RevocationList revocationList;
+    
+    @Value("${app.security.token.keys}")
+    private String keyConfig;
+    
+    private final Map<String, ThreadLocal<Mac>> macs = new HashMap<>();
+    
+    public record AccessToken(long userId, String role, long expiresAt, long tokenId) {
+    }
+    
+    @PostConstruct
+    void init() {
+        for (String entry : keyConfig.split(",")) {
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalStateException("app.security.token.keys entries must be kid=secret");
+            }
+            byte[] secret = parts[1].trim().getBytes(StandardCharsets.UTF_8);
+            if (secret.length < 32) {
+                throw new IllegalStateException("Token key " + parts[0] + " must be at least 32 bytes");
+            }
+            SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+            macs.put(parts[0].trim(), ThreadLocal.withInitial(() -> newMac(key)));
+        }
+    }
+    
+    // Null for anything that is malformed, signed with an unknown key, forged, expired or revoked
+    public AccessToken verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int claimsStart = token.indexOf('.');
+        int signatureStart = token.lastIndexOf('.');
+        if (claimsStart <= 0 || signatureStart <= claimsStart + 1) {
+            return null;
+        }
+        ThreadLocal<Mac> mac = macs.get(token.substring(0, claimsStart));
+        if (mac == null) {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            byte[] expected = mac.get().doFinal(token.substring(0, signatureStart).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(signature, expected)) {
+                return null;
+            }
+            String[] claims = new String(DECODER.decode(token.substring(claimsStart + 1, signatureStart)),
+                    StandardCharsets.UTF_8).split(":");
+            if (claims.length != 4) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(claims[2]);
+            if (expiresAt <= Instant.now().getEpochSecond()) {
+                return null;
+            }
+            long userId = Long.parseLong(claims[0]);
+            long tokenId = Long.parseUnsignedLong(claims[3], 16);
+            if (revocationList.isRevoked(tokenId, userId, expiresAt)) {
+                return null;
+            }
+            return new AccessToken(userId, claims[1], expiresAt, tokenId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
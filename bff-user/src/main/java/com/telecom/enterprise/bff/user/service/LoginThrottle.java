@@ -0,0 +1,60 @@
+package com.telecom.enterprise.bff.user.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Login attempts allowed per email and per client address, checked before the backend is called
+// so a credential-stuffing burst is answered here with a few CAS operations per attempt. The
+// backend applies its own limits as well, for callers that do not come through this BFF.
+@Component
+@Slf4j
+public class LoginThrottle {
+    
+    @Value("${app.security.login-throttle.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.security.login-throttle.expected-identities:65536}")
+    private int expectedIdentities;
+    
+    @Value("${app.security.login-throttle.email.burst:5}")
+    private int emailBurst;
+    
+    // One attempt is regained per interval
+    @Value("${app.security.login-throttle.email.interval:PT1M}")
+    private Duration emailInterval;
+    
+    @Value("${app.security.login-throttle.address.burst:30}")
+    private int addressBurst;
+    
+    @Value("${app.security.login-throttle.address.interval:PT2S}")
+    private Duration addressInterval;
+    
+    private TokenBucketTable emails;
+    private TokenBucketTable addresses;
+    
+    @PostConstruct
+    void init() {
+        emails = new TokenBucketTable(expectedIdentities, emailBurst, emailInterval.toNanos());
+        addresses = new TokenBucketTable(expectedIdentities, addressBurst, addressInterval.toNanos());
+        log.info("Login throttle {}: {} per email every {}, {} per address every {}, {} slots each",
+                enabled ? "on" : "off", emailBurst, emailInterval, addressBurst, addressInterval, emails.capacity());
+    }
+    
+    // The address is checked first so a blocked address does not use up its targets' allowance.
+    // Either argument may be null when the caller cannot supply it.
+    public boolean tryAcquire(String email, String clientAddress) {
+        if (!enabled) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (clientAddress != null && !addresses.tryAcquire(clientAddress, now)) {
+            return false;
+        }
+        return email == null || emails.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+    }
+}
@@ -0,0 +1,106 @@
+package com.telecom.enterprise.bff.user.service;
+
+import com.telecom.enterprise.bff.user.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Short-lived profile cache in front of the backend, keyed by user id. Each entry is a cached
+// Mono, so every request that misses while a fetch is in flight subscribes to that one call.
+// The fetch runs in the Reactor context of the request that started it, so it carries that
+// caller's Authorization. Failed or empty fetches are dropped so the next request tries again.
+// Profile changes made through this BFF invalidate at once; the TTL covers changes made anywhere
+// else.
+@Service
+@RequiredArgsConstructor
+public class ProfileCache {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.profile-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.profile-cache.ttl:PT30S}")
+    private Duration ttl;
+    
+    @Value("${app.profile-cache.max-entries:50000}")
+    private int maxEntries;
+    
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private long ttlNanos;
+    private Counter hits;
+    private Counter misses;
+    
+    private static class Entry {
+        final long expiresAt;
+        Mono<UserDTO> profile;
+        
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        ttlNanos = ttl.toNanos();
+        hits = meterRegistry.counter("user.profile.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("user.profile.cache.requests", "result", "miss");
+        Gauge.builder("user.profile.cache.size", entries, Map::size).register(meterRegistry);
+    }
+    
+    public Mono<UserDTO> get(Long userId, Supplier<Mono<UserDTO>> fetch) {
+        if (!enabled) {
+            return fetch.get();
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt - now > 0) {
+            hits.increment();
+            return entry.profile;
+        }
+        
+        Entry created = new Entry(now + ttlNanos);
+        created.profile = Mono.defer(fetch)
+                .doOnSuccess(profile -> {
+                    if (profile == null) {
+                        entries.remove(userId, created);
+                    }
+                })
+                .doOnError(e -> entries.remove(userId, created))
+                .cache();
+        entry = entries.compute(userId, (id, current) -> current != null && current.expiresAt - now > 0 ? current : created);
+        if (entry == created) {
+            misses.increment();
+            if (entries.size() > maxEntries) {
+                trim(now);
+            }
+        } else {
+            hits.increment();
+        }
+        return entry.profile;
+    }
+    
+    public void invalidate(Long userId) {
+        entries.remove(userId);
+    }
+    
+    private void trim(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -3,11 +3,16 @@ package com.telecom.enterprise.bff.user.service;
 import com.telecom.enterprise.bff.user.dto.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -15,11 +20,14 @@ import java.util.List;
 public class UserBffService {
     
     private final WebClient backendWebClient;
+    private final ProfileCache profileCache;
     
-    public Mono<AuthResponse> login(LoginRequest request) {
+    // Forwards the caller's address so the backend throttles the end user, not this BFF
+    public Mono<AuthResponse> login(LoginRequest request, String clientAddress) {
         log.info("BFF: Processing login for {}", request.getEmail());
         return backendWebClient.post()
                 .uri("/api/users/login")
+                .header("X-Forwarded-For", clientAddress)
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(AuthResponse.class)
@@ -36,12 +44,24 @@ public class UserBffService {
                 .doOnError(e -> log.error("Registration failed: {}", e.getMessage()));
     }
     
-    public Mono<UserDTO> getProfile(Long userId) {
-        log.info("BFF: Getting profile for user {}", userId);
-        return backendWebClient.get()
-                .uri("/api/users/{id}", userId)
+    // Revokes the token in the backend, which passes it on to every other replica
+    public Mono<Void> logout(String authorization) {
+        return backendWebClient.post()
+                .uri("/api/users/logout")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
                 .retrieve()
-                .bodyToMono(UserDTO.class);
+                .toBodilessEntity()
+                .then();
+    }
+    
+    public Mono<UserDTO> getProfile(Long userId) {
+        return profileCache.get(userId, () -> {
+            log.info("BFF: Getting profile for user {}", userId);
+            return backendWebClient.get()
+                    .uri("/api/users/{id}", userId)
+                    .retrieve()
+                    .bodyToMono(UserDTO.class);
+        });
     }
     
     public Mono<UserDTO> updateProfile(Long userId, UserDTO updates) {
@@ -50,7 +70,8 @@ public class UserBffService {
                 .uri("/api/users/{id}", userId)
                 .bodyValue(updates)
                 .retrieve()
-                .bodyToMono(UserDTO.class);
+                .bodyToMono(UserDTO.class)
+                .doFinally(signal -> profileCache.invalidate(userId));
     }
     
     public Mono<String> updatePassword(Long userId, String currentPassword, String newPassword) {
@@ -62,16 +83,38 @@ public class UserBffService {
                         .queryParam("newPassword", newPassword)
                         .build(userId))
                 .retrieve()
-                .bodyToMono(String.class);
+                .bodyToMono(String.class)
+                .doFinally(signal -> profileCache.invalidate(userId));
+    }
+    
+    public Mono<AccountBalanceDTO> getBalance(Long userId) {
+        log.info("BFF: Getting balance for user {}", userId);
+        return backendWebClient.get()
+                .uri("/api/billing/user/{userId}/balance", userId)
+                .retrieve()
+                .bodyToMono(AccountBalanceDTO.class);
     }
     
-    public Mono<List<BillingDTO>> getBillingHistory(Long userId) {
-        log.info("BFF: Getting billing history for user {}", userId);
+    // Relays the backend's bytes as they arrive instead of decoding and collecting every record
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamBillingHistory(Long userId) {
+        log.info("BFF: Streaming billing history for user {}", userId);
         return backendWebClient.get()
                 .uri("/api/billing/user/{userId}", userId)
                 .retrieve()
-                .bodyToFlux(BillingDTO.class)
-                .collectList();
+                .toEntityFlux(DataBuffer.class);
+    }
+    
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamStatement(Long userId, String format, LocalDate from, LocalDate to) {
+        log.info("BFF: Streaming {} statement for user {}", format, userId);
+        return backendWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/billing/user/{userId}/statement")
+                        .queryParam("format", format)
+                        .queryParamIfPresent("from", Optional.ofNullable(from))
+                        .queryParamIfPresent("to", Optional.ofNullable(to))
+                        .build(userId))
+                .retrieve()
+                .toEntityFlux(DataBuffer.class);
     }
     
     public Mono<BillingDTO> payBill(Long recordId, String paymentMethod) {
@@ -84,4 +127,13 @@ public class UserBffService {
                 .retrieve()
                 .bodyToMono(BillingDTO.class);
     }
+    
+    public Mono<BulkPaymentResponse> payBills(Long userId, BulkPaymentRequest request) {
+        log.info("BFF: Processing bulk bill payment for user {}", userId);
+        return backendWebClient.post()
+                .uri("/api/billing/user/{userId}/pay", userId)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(BulkPaymentResponse.class);
+    }
 }
@@ -13,6 +13,7 @@ import {
 } from "lucide-react"
 import { useState } from "react"
 import { useStore } from "@/store"
+import { authAPI } from "@/lib/api"
 import { Button } from "@/components/ui/button"
 import { Badge } from "@/components/ui/badge"
 import {
@@ -38,6 +39,7 @@ export function Header() {
   const cartItemCount = cartItems.reduce((sum, item) => sum + item.quantity, 0)
 
   const handleLogout = () => {
+    authAPI.logout().catch(() => undefined)
     logout()
   }
 
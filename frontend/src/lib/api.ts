@@ -1,3 +1,5 @@
+import { useAuthStore } from '@/store'
+
 const API_USER_BASE = 'http://localhost:8081/api/v1'
 const API_ORDER_BASE = 'http://localhost:8082/api/v1'
 
@@ -48,10 +50,12 @@ export interface BillingInfo {
 }
 
 async function fetchAPI(url: string, options?: RequestInit) {
+  const token = useAuthStore.getState().token
   const response = await fetch(url, {
     ...options,
     headers: {
       'Content-Type': 'application/json',
+      ...(token ? { Authorization: `Bearer ${token}` } : {}),
       ...options?.headers,
     },
   })
@@ -61,6 +65,9 @@ async function fetchAPI(url: string, options?: RequestInit) {
     throw new Error(error.message || 'Request failed')
   }
   
+  if (response.status === 204) {
+    return null
+  }
   return response.json()
 }
 
@@ -77,6 +84,12 @@ export const authAPI = {
       method: 'POST',
       body: JSON.stringify(data),
     }),
+  
+  // Revokes the current token server-side; reads it before the store is cleared
+  logout: () =>
+    fetchAPI(`${API_USER_BASE}/auth/logout`, {
+      method: 'POST',
+    }),
 }
 
 // User API
@@ -93,10 +106,20 @@ export const userAPI = {
   getBillingHistory: (userId: number) =>
     fetchAPI(`${API_USER_BASE}/users/${userId}/billing`),
   
+  getBalance: (userId: number) =>
+    fetchAPI(`${API_USER_BASE}/users/${userId}/balance`),
+  
   payBill: (recordId: number, paymentMethod: string) =>
     fetchAPI(`${API_USER_BASE}/billing/${recordId}/pay?paymentMethod=${encodeURIComponent(paymentMethod)}`, {
       method: 'POST',
     }),
+  
+  // Omit billingIds to pay every outstanding invoice
+  payBills: (userId: number, paymentMethod: string, billingIds?: number[]) =>
+    fetchAPI(`${API_USER_BASE}/users/${userId}/billing/pay`, {
+      method: 'POST',
+      body: JSON.stringify({ billingIds, paymentMethod }),
+    }),
 }
 
 // Product API
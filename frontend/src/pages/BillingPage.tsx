@@ -63,10 +63,13 @@ export function BillingPage() {
     
     try {
       setIsLoading(true)
-      const data = await userApi.getBillingHistory(user.id)
+      const [data, balance] = await Promise.all([
+        userApi.getBillingHistory(user.id),
+        userApi.getBalance(user.id),
+      ])
       setBilling({
-        currentBalance: 59.99,
-        nextBillingDate: "2024-04-15",
+        currentBalance: balance?.outstanding ?? 0,
+        nextBillingDate: balance?.nextDueDate ?? "",
         paymentMethod: "Visa ending in 4242",
         billingHistory: data || mockInvoices,
       })
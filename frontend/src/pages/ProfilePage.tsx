@@ -24,7 +24,7 @@ import { Separator } from "@/components/ui/separator"
 import { Tabs, TabsContent, TabsList, TabsTrigger } from "@/components/ui/tabs"
 import { useStore } from "@/store"
 import { useToast } from "@/hooks/use-toast"
-import { userApi } from "@/lib/api"
+import { authAPI, userApi } from "@/lib/api"
 
 export function ProfilePage() {
   const navigate = useNavigate()
@@ -87,6 +87,7 @@ export function ProfilePage() {
   }
 
   const handleLogout = () => {
+    authAPI.logout().catch(() => undefined)
     logout()
     navigate("/")
     toast({